@@ -0,0 +1,84 @@
+package com.emerson.desafiovotacao.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.emerson.desafiovotacao.external.Cpf;
+import com.emerson.desafiovotacao.external.CpfEligibilityCache;
+import com.emerson.desafiovotacao.external.CpfEligibilityCacheProperties;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Custo da normalização e validação de CPF e da consulta de elegibilidade já presente no cache,
+ * etapas executadas em todo voto antes de acessar o banco de dados.
+ *
+ * @author Emerson Oliveira
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CpfBenchmark {
+
+	private String formattedCpf = "166.431.510-15";
+
+	private String normalizedCpf = "16643151015";
+
+	private CpfValidationClient client;
+
+	@Setup
+	public void setup() {
+		CpfEligibilityCache cache = new CpfEligibilityCache();
+		Fixtures.inject(cache, "properties", new CpfEligibilityCacheProperties(100_000, Duration.ofDays(1), Duration.ofDays(1)));
+		Fixtures.inject(cache, "meterRegistry", new SimpleMeterRegistry());
+		Fixtures.init(cache, "init");
+
+		this.client = new CpfValidationClient();
+		Fixtures.inject(this.client, "eligibilityCache", cache);
+
+		// a primeira consulta preenche o cache; as medições usam sempre o CPF já em cache
+		this.client.validateCpf(this.normalizedCpf);
+	}
+
+	@Benchmark
+	public String normalizeFormatted() {
+		return Cpf.normalize(this.formattedCpf);
+	}
+
+	@Benchmark
+	public String normalizeNormalized() {
+		return Cpf.normalize(this.normalizedCpf);
+	}
+
+	@Benchmark
+	public boolean isValid() {
+		return Cpf.isValid(this.normalizedCpf);
+	}
+
+	@Benchmark
+	public long toLong() {
+		return Cpf.toLong(this.normalizedCpf);
+	}
+
+	@Benchmark
+	public CpfValidationResponse validateCpfCached() {
+		return this.client.validateCpf(Cpf.normalize(this.formattedCpf));
+	}
+
+}
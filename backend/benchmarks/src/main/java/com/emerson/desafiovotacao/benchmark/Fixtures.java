@@ -0,0 +1,72 @@
+package com.emerson.desafiovotacao.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Utilitários para montar os serviços do backend fora do Spring, com repositórios em memória.
+ *
+ * @author Emerson Oliveira
+ */
+final class Fixtures {
+
+	private Fixtures() {
+	}
+
+	/**
+	 * Cria um repositório em memória que responde apenas aos métodos informados.
+	 *
+	 * @param type A interface do repositório.
+	 * @param answers As respostas de cada método, indexadas pelo nome do método.
+	 * @return O repositório em memória.
+	 * @throws UnsupportedOperationException Ao chamar um método sem resposta.
+	 */
+	static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+		Object repository = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			if (method.getDeclaringClass() == Object.class)
+				return method.invoke(answers, args);
+
+			Function<Object[], Object> answer = answers.get(method.getName());
+			if (answer == null)
+				throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+			return answer.apply(args);
+		});
+		return type.cast(repository);
+	}
+
+	/**
+	 * Atribui uma dependência a um campo injetado pelo Spring ({@code @Autowired}).
+	 *
+	 * @return O próprio alvo, para encadeamento.
+	 */
+	static <T> T inject(T target, String fieldName, Object value) {
+		Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+		if (field == null)
+			throw new IllegalArgumentException(target.getClass().getSimpleName() + " não possui o campo " + fieldName);
+
+		ReflectionUtils.makeAccessible(field);
+		ReflectionUtils.setField(field, target, value);
+		return target;
+	}
+
+	/**
+	 * Executa um método de inicialização ({@code @PostConstruct}) sem argumentos.
+	 *
+	 * @return O próprio alvo, para encadeamento.
+	 */
+	static <T> T init(T target, String methodName) {
+		Method method = ReflectionUtils.findMethod(target.getClass(), methodName);
+		if (method == null)
+			throw new IllegalArgumentException(target.getClass().getSimpleName() + " não possui o método " + methodName);
+
+		ReflectionUtils.makeAccessible(method);
+		ReflectionUtils.invokeMethod(method, target);
+		return target;
+	}
+
+}
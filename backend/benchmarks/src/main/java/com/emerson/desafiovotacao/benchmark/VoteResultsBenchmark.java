@@ -0,0 +1,165 @@
+package com.emerson.desafiovotacao.benchmark;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.VoteTally;
+import com.emerson.desafiovotacao.repository.topic.TopicRepository;
+import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteTallyRepository;
+import com.emerson.desafiovotacao.service.topic.TopicCache;
+import com.emerson.desafiovotacao.service.topic.TopicCacheProperties;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.vote.VoteResultsService;
+import com.emerson.desafiovotacao.service.vote.VoteTallyService;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVoteResultsDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteRowDto;
+import com.emerson.desafiovotacao.service.vote.snapshot.VoteResultSnapshotService;
+import com.emerson.desafiovotacao.service.vote.tally.VoteTallyCounters;
+import com.emerson.desafiovotacao.service.vote.tally.VoteTallyMode;
+import com.emerson.desafiovotacao.service.vote.tally.VoteTallyProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Custo da montagem do resultado de uma pauta ({@link VoteResultsService#getResultsByTopicUuid(UUID, boolean)})
+ * e da sua serialização em JSON, variando a quantidade de sessões da pauta e de votos por sessão.
+ *
+ * Os repositórios respondem com dados em memória, então o tempo medido é apenas o do processamento na aplicação,
+ * sem o banco de dados.
+ *
+ * @author Emerson Oliveira
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoteResultsBenchmark {
+
+	@Param({ "1", "10", "50" })
+	private int sessionsPerTopic;
+
+	@Param({ "10", "1000", "10000" })
+	private int votesPerSession;
+
+	/** No modo resumido, os votos individuais não são lidos nem incluídos no resultado. */
+	@Param({ "true", "false" })
+	private boolean summary;
+
+	private UUID topicUuid;
+
+	private VoteResultsService service;
+
+	private ObjectMapper objectMapper;
+
+	private TopicVoteResultsDto results;
+
+	@Setup
+	public void setup() {
+		Instant now = Instant.now();
+		Topic topic = new Topic("Pauta benchmark", "Descrição da pauta benchmark", now.minusSeconds(3600));
+		topic.setUuid(UUID.randomUUID());
+		this.topicUuid = topic.getUuid();
+
+		List<TopicVotingSession> sessions = new ArrayList<>();
+		List<VoteTally> tallies = new ArrayList<>();
+		List<VoteRowDto> votes = new ArrayList<>();
+		long cpf = 10_000_000_000L;
+		for (int s = 0; s < this.sessionsPerTopic; s++) {
+			// apenas a última sessão continua aberta
+			Instant startTime = now.minusSeconds(60L * (this.sessionsPerTopic - s));
+			Instant endTime = s == this.sessionsPerTopic - 1 ? now.plusSeconds(3600) : startTime.plusSeconds(30);
+			TopicVotingSession session = TopicVotingSession.builder()
+														   .uuid(UUID.randomUUID())
+														   .topic(topic)
+														   .startTime(startTime)
+														   .endTime(endTime)
+														   .build();
+			sessions.add(session);
+			topic.setLatestVotingSession(session);
+			topic.setLatestVotingSessionEndTime(endTime);
+
+			long favorableVotes = 0;
+			for (int v = 0; v < this.votesPerSession; v++) {
+				boolean vote = v % 3 != 0;
+				favorableVotes += vote ? 1 : 0;
+				votes.add(new VoteRowDto(UUID.randomUUID(), session.getUuid(), Long.toString(cpf++), vote, startTime.plusMillis(v)));
+			}
+			tallies.add(VoteTally.builder()
+								 .uuid(UUID.randomUUID())
+								 .topicVotingSession(session)
+								 .favorableVotes(favorableVotes)
+								 .againstVotes(this.votesPerSession - favorableVotes)
+								 .totalVotes((long) this.votesPerSession)
+								 .lastVotedAt(startTime.plusMillis(this.votesPerSession))
+								 .build());
+		}
+
+		TopicService topicService = Fixtures.inject(new TopicService(), "repository", Fixtures.repository(TopicRepository.class, Map.of(
+			"findById", args -> Optional.of(topic)
+		)));
+		// cache de pautas desativado: cada composição consulta a pauta no repositório
+		TopicCache topicCache = Fixtures.inject(new TopicCache(), "properties", new TopicCacheProperties(0, Duration.ZERO));
+		Fixtures.inject(topicCache, "meterRegistry", new SimpleMeterRegistry());
+		Fixtures.inject(topicService, "topicCache", Fixtures.init(topicCache, "init"));
+		VoteRepository voteRepository = Fixtures.repository(VoteRepository.class, Map.of(
+			"findRowsByTopicUuid", args -> votes
+		));
+		VoteTallyService voteTallyService = Fixtures.inject(new VoteTallyService(), "repository", Fixtures.repository(VoteTallyRepository.class, Map.of(
+			"findByTopicVotingSessionTopicUuid", args -> tallies
+		)));
+		Fixtures.inject(voteTallyService, "counters", Fixtures.inject(new VoteTallyCounters(), "properties",
+				new VoteTallyProperties(VoteTallyMode.DATABASE, Duration.ofSeconds(1))));
+
+		this.service = new VoteResultsService();
+		Fixtures.inject(this.service, "topicService", topicService);
+		Fixtures.inject(this.service, "voteRepository", voteRepository);
+		Fixtures.inject(this.service, "voteTallyService", voteTallyService);
+		// a última sessão está aberta: o resultado imutável da pauta não é consultado
+		Fixtures.inject(this.service, "voteResultSnapshotService", new VoteResultSnapshotService());
+		Fixtures.inject(this.service, "votingSessionRepository", Fixtures.repository(TopicVotingSessionRepository.class, Map.of(
+			"findByTopicUuid", args -> sessions
+		)));
+
+		// mesmas configurações do ObjectMapper criado pelo Spring Boot
+		this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		this.results = this.service.getResultsByTopicUuid(this.topicUuid, this.summary);
+	}
+
+	@Benchmark
+	public TopicVoteResultsDto compose() {
+		return this.service.getResultsByTopicUuid(this.topicUuid, this.summary);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.results);
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.emerson.desafiovotacao.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latências e respostas registradas de um endpoint durante a carga medida.
+ *
+ * A latência é contada a partir do instante em que a requisição deveria ter sido enviada pela taxa configurada
+ * (e não de quando foi de fato enviada), para que atrasos do próprio gerador de carga não escondam a espera.
+ *
+ * @author Emerson Oliveira
+ */
+public class EndpointStats {
+
+	private final String name;
+
+	private long[] latencies = new long[1024];
+
+	private int count;
+
+	private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+	private int errors;
+
+	private int dropped;
+
+	public EndpointStats(String name) {
+		this.name = name;
+	}
+
+	public synchronized void record(long latencyNanos, int status) {
+		if (this.count == this.latencies.length)
+			this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+		this.latencies[this.count++] = latencyNanos;
+		this.statuses.merge(status, 1, Integer::sum);
+	}
+
+	/**
+	 * Registra uma requisição sem resposta (tempo esgotado ou falha de conexão), que não entra nas latências.
+	 */
+	public synchronized void error() {
+		this.errors++;
+	}
+
+	/**
+	 * Registra uma requisição não enviada por exceder o limite de requisições aguardando resposta.
+	 */
+	public synchronized void drop() {
+		this.dropped++;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public synchronized int getCount() {
+		return this.count;
+	}
+
+	public synchronized Map<Integer, Integer> getStatuses() {
+		return new TreeMap<>(this.statuses);
+	}
+
+	public synchronized int getErrors() {
+		return this.errors;
+	}
+
+	public synchronized int getDropped() {
+		return this.dropped;
+	}
+
+	/**
+	 * @param percentile O percentil, entre 0 e 100 (ex.: 99.9).
+	 * @return A latência no percentil informado, em nanossegundos, ou {@code 0} caso não haja respostas.
+	 */
+	public synchronized long percentile(double percentile) {
+		if (this.count == 0)
+			return 0;
+
+		long[] sorted = Arrays.copyOf(this.latencies, this.count);
+		Arrays.sort(sorted);
+		int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.emerson.desafiovotacao.loadtest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.emerson.desafiovotacao.exception.http.BadRequestException;
+import com.emerson.desafiovotacao.external.Cpf;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+
+/**
+ * Stub da consulta de elegibilidade usado no teste de carga, no lugar do {@link CpfValidationClient}.
+ *
+ * Toda consulta aguarda a latência configurada (sem cache), reproduzindo um serviço externo lento, e a elegibilidade
+ * de cada CPF é determinística, para que execuções diferentes tenham a mesma proporção de votos recusados.
+ *
+ * @author Emerson Oliveira
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "loadtest.cpf-stub", havingValue = "true", matchIfMissing = true)
+public class LatencyCpfValidationClient extends CpfValidationClient {
+
+	@Autowired
+	private LoadTestProperties properties;
+
+	@Override
+	public CpfValidationResponse validateCpf(String cpf) {
+		if (!Cpf.isValid(cpf))
+			throw new BadRequestException("Informe um CPF válido.");
+
+		this.simulateLatency();
+		return new CpfValidationResponse(this.status(cpf));
+	}
+
+	@Override
+	public Map<String, VoteEligibilityStatus> validateCpfs(Collection<String> cpfs) {
+		Map<String, VoteEligibilityStatus> statuses = new HashMap<>(cpfs.size() * 2);
+		for (String cpf : cpfs) {
+			if (!Cpf.isValid(cpf))
+				throw new BadRequestException("Informe um CPF válido.");
+			statuses.put(cpf, this.status(cpf));
+		}
+
+		// uma única consulta para todo o lote
+		this.simulateLatency();
+		return statuses;
+	}
+
+	private VoteEligibilityStatus status(String cpf) {
+		// dígitos iniciais do CPF (sequenciais nos CPFs gerados pelo teste), sem os dígitos verificadores
+		return Cpf.toLong(cpf) / 100 % 100 < this.properties.cpfAblePercentage()
+				? VoteEligibilityStatus.ABLE_TO_VOTE
+				: VoteEligibilityStatus.UNABLE_TO_VOTE;
+	}
+
+	private void simulateLatency() {
+		long latency = this.properties.cpfLatency().toNanos();
+		long jitter = this.properties.cpfLatencyJitter().toNanos();
+		if (jitter > 0)
+			latency += ThreadLocalRandom.current().nextLong(jitter + 1);
+		if (latency <= 0)
+			return;
+
+		try {
+			Thread.sleep(Duration.ofNanos(latency));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
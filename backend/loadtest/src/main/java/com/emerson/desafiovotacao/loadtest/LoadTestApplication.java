@@ -0,0 +1,27 @@
+package com.emerson.desafiovotacao.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.emerson.desafiovotacao.DesafiovotacaoApplication;
+
+/**
+ * Inicia a aplicação com o perfil {@code loadtest} (H2 em memória por padrão), executa o teste de carga
+ * ({@link LoadTestRunner}) e encerra.
+ *
+ * As configurações podem ser alteradas por argumentos, ex.: {@code --loadtest.rate=2000} ou
+ * {@code --spring.datasource.url=jdbc:postgresql://localhost:5433/desafiovotacao?reWriteBatchedInserts=true}.
+ *
+ * @author Emerson Oliveira
+ */
+public class LoadTestApplication {
+
+	public static void main(String[] args) {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(DesafiovotacaoApplication.class)
+				.profiles("loadtest")
+				.run(args);
+		System.exit(SpringApplication.exit(context));
+	}
+
+}
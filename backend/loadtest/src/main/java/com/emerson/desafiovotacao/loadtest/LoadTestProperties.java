@@ -0,0 +1,53 @@
+package com.emerson.desafiovotacao.loadtest;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações do teste de carga.
+ *
+ * @param seedTopics Quantidade de pautas geradas no banco antes da carga. {@code 0} não gera dados (ex.: banco já populado).
+ * @param seedSessions Quantidade de pautas, entre as geradas, com uma sessão de votação encerrada.
+ * @param seedVotesPerSession Quantidade de votos gerados em cada sessão encerrada.
+ * @param seedBatchSize Quantidade de registros por lote de inserção.
+ * @param seedTimeOrderedKeys Gera as chaves dos registros ordenadas pelo momento da geração, como a aplicação; {@code false} gera
+ * chaves aleatórias, para comparar a vazão de inserção e o tamanho do índice da chave primária dos votos.
+ * @param openSessions Quantidade de pautas criadas e com sessão aberta no início da carga, que recebem os votos.
+ * @param rate Requisições por segundo, somando todos os endpoints. A taxa não depende do tempo de resposta (carga em malha aberta).
+ * @param warmup Duração do aquecimento, cujas requisições não entram no relatório.
+ * @param duration Duração da carga medida, após o aquecimento.
+ * @param voteWeight Peso dos votos na distribuição das requisições.
+ * @param resultsWeight Peso das consultas de resultado das pautas com sessão aberta na distribuição das requisições.
+ * @param topicListWeight Peso das listagens de pautas na distribuição das requisições.
+ * @param requestTimeout Tempo máximo de cada requisição, contada como erro ao ser excedido.
+ * @param maxInFlight Quantidade máxima de requisições aguardando resposta; acima disso, as requisições são descartadas (e contadas).
+ * @param cpfStub Substitui a consulta de elegibilidade por um stub com latência configurável, sem cache.
+ * @param cpfLatency Latência fixa da consulta de elegibilidade do stub.
+ * @param cpfLatencyJitter Latência adicional aleatória (de 0 até o valor informado) da consulta de elegibilidade do stub.
+ * @param cpfAblePercentage Percentual de CPFs aptos para votar no stub (determinístico por CPF).
+ */
+@ConfigurationProperties(prefix = "loadtest")
+public record LoadTestProperties(
+		@DefaultValue("1000000") int seedTopics,
+		@DefaultValue("1000") int seedSessions,
+		@DefaultValue("1000") int seedVotesPerSession,
+		@DefaultValue("5000") int seedBatchSize,
+		@DefaultValue("true") boolean seedTimeOrderedKeys,
+		@DefaultValue("10") int openSessions,
+		@DefaultValue("500") int rate,
+		@DefaultValue("10s") Duration warmup,
+		@DefaultValue("60s") Duration duration,
+		@DefaultValue("80") int voteWeight,
+		@DefaultValue("15") int resultsWeight,
+		@DefaultValue("5") int topicListWeight,
+		@DefaultValue("30s") Duration requestTimeout,
+		@DefaultValue("10000") int maxInFlight,
+		@DefaultValue("true") boolean cpfStub,
+		@DefaultValue("50ms") Duration cpfLatency,
+		@DefaultValue("0ms") Duration cpfLatencyJitter,
+		@DefaultValue("90") int cpfAblePercentage
+) {
+
+}
@@ -0,0 +1,111 @@
+package com.emerson.desafiovotacao.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executa o teste de carga após a inicialização da aplicação: gera os dados sintéticos, cria as pautas e abre
+ * as sessões que recebem os votos, executa a carga e imprime o relatório de cada endpoint.
+ *
+ * @author Emerson Oliveira
+ */
+@Component
+@Slf4j
+public class LoadTestRunner implements ApplicationRunner {
+
+	@Autowired
+	private LoadTestProperties properties;
+
+	@Autowired
+	private SyntheticDataGenerator dataGenerator;
+
+	@Autowired
+	private OpenLoopLoadGenerator loadGenerator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private Environment environment;
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		String baseUrl = "http://localhost:" + this.environment.getRequiredProperty("local.server.port");
+
+		this.dataGenerator.seed();
+
+		// pautas e sessões da "tempestade" de votos, criadas pela própria API
+		List<UUID> topicUuids = new ArrayList<>();
+		List<UUID> sessionUuids = new ArrayList<>();
+		long minutes = this.properties.warmup().plus(this.properties.duration()).toMinutes() + 2;
+		try (HttpClient client = HttpClient.newHttpClient()) {
+			String run = UUID.randomUUID().toString().substring(0, 8);
+			for (int i = 0; i < this.properties.openSessions(); i++) {
+				TopicDto topic = new TopicDto(String.format("Pauta carga %s %s", run, i), "Pauta do teste de carga");
+				UUID topicUuid = this.post(client, baseUrl + "/api/v1/topic", this.objectMapper.writeValueAsString(topic));
+				topicUuids.add(topicUuid);
+				sessionUuids.add(this.post(client, String.format("%s/api/v1/topic/%s/startVotingSession?durationInMinutes=%s", baseUrl, topicUuid, minutes), null));
+			}
+		}
+
+		List<EndpointStats> stats = this.loadGenerator.run(baseUrl, topicUuids, sessionUuids);
+		this.report(stats);
+	}
+
+	private UUID post(HttpClient client, String url, String json) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+										 .header("Content-Type", "application/json")
+										 .POST(json != null ? HttpRequest.BodyPublishers.ofString(json) : HttpRequest.BodyPublishers.noBody())
+										 .build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 201)
+			throw new IllegalStateException(String.format("POST %s: HTTP %s %s", url, response.statusCode(), response.body()));
+
+		return UUID.fromString(this.objectMapper.readTree(response.body()).get("uuid").asText());
+	}
+
+	private void report(List<EndpointStats> stats) {
+		double seconds = this.properties.duration().toMillis() / 1000.0;
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%nResultado da carga: %s req/s por %.0f s%n", this.properties.rate(), seconds));
+		report.append(String.format("%-40s %9s %10s %9s %9s %9s %9s %7s %9s  %s%n",
+				"Endpoint", "Respostas", "Vazão/s", "p50 ms", "p99 ms", "p999 ms", "máx. ms", "Erros", "Descart.", "Status"));
+		for (EndpointStats s : stats) {
+			report.append(String.format("%-40s %9d %10.1f %9.1f %9.1f %9.1f %9.1f %7d %9d  %s%n",
+					s.getName(),
+					s.getCount(),
+					s.getCount() / seconds,
+					millis(s.percentile(50)),
+					millis(s.percentile(99)),
+					millis(s.percentile(99.9)),
+					millis(s.percentile(100)),
+					s.getErrors(),
+					s.getDropped(),
+					s.getStatuses()));
+		}
+		log.info(report.toString());
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.emerson.desafiovotacao.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gerador de carga em malha aberta: as requisições são enviadas na taxa configurada independente do tempo de
+ * resposta, como chegariam de usuários reais durante a abertura de uma sessão de votação.
+ *
+ * Cada requisição é sorteada entre voto, consulta de resultado e listagem de pautas, conforme os pesos configurados.
+ * Os votos são distribuídos entre as sessões abertas, cada um com um CPF diferente.
+ *
+ * @author Emerson Oliveira
+ */
+@Component
+@Slf4j
+public class OpenLoopLoadGenerator {
+
+	@Autowired
+	private LoadTestProperties properties;
+
+	private final AtomicInteger nextCpf = new AtomicInteger();
+
+	/**
+	 * Executa o aquecimento e a carga medida.
+	 *
+	 * @param baseUrl A URL da aplicação (ex.: {@code http://localhost:8085}).
+	 * @param topicUuids As pautas com sessão aberta, na mesma ordem das sessões.
+	 * @param sessionUuids As sessões abertas que recebem os votos.
+	 * @return As estatísticas de voto, resultado e listagem de pautas, nessa ordem.
+	 */
+	public List<EndpointStats> run(String baseUrl, List<UUID> topicUuids, List<UUID> sessionUuids) throws InterruptedException {
+		EndpointStats vote = new EndpointStats("POST /api/v1/vote/votingSession/{id}");
+		EndpointStats results = new EndpointStats("GET /api/v1/vote/topic/{id}/results");
+		EndpointStats topicList = new EndpointStats("GET /api/v1/topic/list/keyset");
+
+		long interval = TimeUnit.SECONDS.toNanos(1) / this.properties.rate();
+		long warmup = this.properties.warmup().toNanos();
+		long total = warmup + this.properties.duration().toNanos();
+		int weights = this.properties.voteWeight() + this.properties.resultsWeight() + this.properties.topicListWeight();
+		AtomicInteger inFlight = new AtomicInteger();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+			 HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build()) {
+			long start = System.nanoTime();
+			log.info(String.format("Carga em malha aberta: %s req/s por %s s (aquecimento de %s s)",
+					this.properties.rate(), this.properties.duration().toSeconds(), this.properties.warmup().toSeconds()));
+
+			for (long i = 0; ; i++) {
+				long scheduled = start + i * interval;
+				if (scheduled - start >= total)
+					break;
+
+				long wait = scheduled - System.nanoTime();
+				if (wait > 0)
+					LockSupport.parkNanos(wait);
+
+				boolean measured = scheduled - start >= warmup;
+				int target = ThreadLocalRandom.current().nextInt(weights);
+				int session = (int) (i % sessionUuids.size());
+
+				EndpointStats stats;
+				HttpRequest.Builder request;
+				if (target < this.properties.voteWeight()) {
+					stats = vote;
+					request = HttpRequest.newBuilder(URI.create(String.format("%s/api/v1/vote/votingSession/%s?cpf=%s&vote=%s",
+							baseUrl, sessionUuids.get(session), SyntheticDataGenerator.cpf(this.nextCpf.getAndIncrement()), i % 3 != 0)))
+										 .POST(HttpRequest.BodyPublishers.noBody());
+				} else if (target < this.properties.voteWeight() + this.properties.resultsWeight()) {
+					stats = results;
+					request = HttpRequest.newBuilder(URI.create(String.format("%s/api/v1/vote/topic/%s/results?summary=true", baseUrl, topicUuids.get(session))));
+				} else {
+					stats = topicList;
+					request = HttpRequest.newBuilder(URI.create(String.format("%s/api/v1/topic/list/keyset?size=20", baseUrl)));
+				}
+
+				if (inFlight.incrementAndGet() > this.properties.maxInFlight()) {
+					inFlight.decrementAndGet();
+					if (measured)
+						stats.drop();
+					continue;
+				}
+
+				CompletableFuture<HttpResponse<Void>> response = client.sendAsync(request.timeout(this.properties.requestTimeout()).build(), HttpResponse.BodyHandlers.discarding());
+				response.whenComplete((r, e) -> {
+					inFlight.decrementAndGet();
+					if (!measured)
+						return;
+					if (e != null)
+						stats.error();
+					else
+						stats.record(System.nanoTime() - scheduled, r.statusCode());
+				});
+			}
+
+			// aguarda as respostas pendentes, limitado ao tempo máximo de cada requisição
+			long deadline = System.nanoTime() + this.properties.requestTimeout().toNanos();
+			while (inFlight.get() > 0 && System.nanoTime() < deadline)
+				Thread.sleep(10);
+		}
+
+		return List.of(vote, results, topicList);
+	}
+
+}
@@ -0,0 +1,220 @@
+package com.emerson.desafiovotacao.loadtest;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.emerson.desafiovotacao.domain.TimeOrderedUuid;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gerador de dados sintéticos para o teste de carga: pautas, sessões de votação encerradas, votos e as
+ * contagens consolidadas de cada sessão.
+ *
+ * Os registros são inseridos diretamente com JDBC em lotes (sem JPA), com uma transação por lote. No PostgreSQL,
+ * use {@code reWriteBatchedInserts=true} na URL de conexão para que cada lote seja enviado como um único comando.
+ * Ao final, é informada a vazão da inserção dos votos e, no PostgreSQL, o tamanho do índice da chave primária dos votos,
+ * para comparar chaves ordenadas pelo momento da geração ({@link TimeOrderedUuid}) com chaves aleatórias.
+ *
+ * @author Emerson Oliveira
+ */
+@Component
+@Slf4j
+public class SyntheticDataGenerator {
+
+	private static final Instant BASE_TIME = Instant.parse("2020-01-01T00:00:00Z");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private LoadTestProperties properties;
+
+	/**
+	 * Gera as pautas e, nas primeiras pautas, uma sessão encerrada com votos.
+	 */
+	public void seed() {
+		int topics = this.properties.seedTopics();
+		int sessions = Math.min(this.properties.seedSessions(), topics);
+		int votesPerSession = this.properties.seedVotesPerSession();
+		if (topics <= 0)
+			return;
+
+		Supplier<UUID> keys = this.properties.seedTimeOrderedKeys() ? TimeOrderedUuid::next : UUID::randomUUID;
+		long start = System.nanoTime();
+		UUID[] topicUuids = new UUID[sessions];
+		this.insert(topics, """
+			INSERT INTO topic (uuid, title, description, created_at)
+			VALUES (?, ?, ?, ?)
+		""", (ps, row) -> {
+			int i = (int) row;
+			UUID uuid = keys.get();
+			if (i < sessions)
+				topicUuids[i] = uuid;
+
+			ps.setObject(1, uuid);
+			ps.setString(2, "Pauta sintética " + i);
+			ps.setString(3, "Descrição da pauta sintética " + i);
+			ps.setTimestamp(4, Timestamp.from(this.createdAt(i)));
+		});
+		log.info(String.format("%s pautas geradas em %s ms", topics, (System.nanoTime() - start) / 1_000_000));
+
+		start = System.nanoTime();
+		UUID[] sessionUuids = new UUID[sessions];
+		this.insert(sessions, """
+			INSERT INTO voting_session (uuid, topic_uuid, start_time, end_time)
+			VALUES (?, ?, ?, ?)
+		""", (ps, row) -> {
+			int i = (int) row;
+			sessionUuids[i] = keys.get();
+			ps.setObject(1, sessionUuids[i]);
+			ps.setObject(2, topicUuids[i]);
+			ps.setTimestamp(3, Timestamp.from(this.startTime(i)));
+			ps.setTimestamp(4, Timestamp.from(this.endTime(i)));
+		});
+		this.insert(sessions, """
+			UPDATE topic
+			SET latest_voting_session_uuid = ?, latest_voting_session_end_time = ?
+			WHERE uuid = ?
+		""", (ps, row) -> {
+			int i = (int) row;
+			ps.setObject(1, sessionUuids[i]);
+			ps.setTimestamp(2, Timestamp.from(this.endTime(i)));
+			ps.setObject(3, topicUuids[i]);
+		});
+		log.info(String.format("%s sessões de votação geradas em %s ms", sessions, (System.nanoTime() - start) / 1_000_000));
+
+		start = System.nanoTime();
+		long votes = (long) sessions * votesPerSession;
+		this.insert(votes, """
+			INSERT INTO vote (uuid, topic_voting_session_uuid, topic_uuid, cpf, vote, voted_at)
+			VALUES (?, ?, ?, ?, ?, ?)
+		""", (ps, i) -> {
+			int session = (int) (i / votesPerSession);
+			int vote = (int) (i % votesPerSession);
+			ps.setObject(1, keys.get());
+			ps.setObject(2, sessionUuids[session]);
+			ps.setObject(3, topicUuids[session]);
+			ps.setLong(4, Long.parseLong(cpf(vote)));
+			ps.setBoolean(5, isFavorable(vote));
+			ps.setTimestamp(6, Timestamp.from(this.startTime(session).plusMillis(vote)));
+		});
+		long votesMillis = (System.nanoTime() - start) / 1_000_000;
+		this.insert(sessions, """
+			INSERT INTO vote_tally (uuid, topic_voting_session_uuid, favorable_votes, against_votes, total_votes, last_voted_at)
+			VALUES (?, ?, ?, ?, ?, ?)
+		""", (ps, row) -> {
+			int i = (int) row;
+			long favorable = 0;
+			for (int vote = 0; vote < votesPerSession; vote++)
+				favorable += isFavorable(vote) ? 1 : 0;
+
+			ps.setObject(1, keys.get());
+			ps.setObject(2, sessionUuids[i]);
+			ps.setLong(3, favorable);
+			ps.setLong(4, votesPerSession - favorable);
+			ps.setLong(5, votesPerSession);
+			ps.setTimestamp(6, votesPerSession > 0 ? Timestamp.from(this.startTime(i).plusMillis(votesPerSession - 1)) : null);
+		});
+		log.info(String.format("%s votos gerados em %s ms (%s votos/s, chaves %s)", votes, votesMillis,
+				votesMillis > 0 ? votes * 1000 / votesMillis : votes, this.properties.seedTimeOrderedKeys() ? "ordenadas" : "aleatórias"));
+		this.logPrimaryKeySize("vote");
+	}
+
+	/**
+	 * Informa o tamanho em disco do índice da chave primária de uma tabela (apenas no PostgreSQL).
+	 */
+	private void logPrimaryKeySize(String table) {
+		String database = this.jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+		if (!"PostgreSQL".equals(database))
+			return;
+
+		String size = this.jdbcTemplate.queryForObject("""
+			SELECT pg_size_pretty(pg_relation_size(i.indexrelid))
+			FROM pg_index i
+			WHERE i.indrelid = ?::regclass AND i.indisprimary
+		""", String.class, table);
+		log.info(String.format("Índice da chave primária de %s: %s", table, size));
+	}
+
+	/**
+	 * Gera um CPF válido (com os dígitos verificadores corretos) a partir de um número sequencial.
+	 *
+	 * @param n O número sequencial, de 0 a 899.999.999.
+	 * @return O CPF contendo apenas números.
+	 */
+	public static String cpf(long n) {
+		int[] digits = new int[11];
+		String base = String.format("%09d", 100_000_000 + n);
+		for (int i = 0; i < 9; i++)
+			digits[i] = base.charAt(i) - '0';
+
+		for (int check = 9; check < 11; check++) {
+			int sum = 0;
+			for (int i = 0; i < check; i++)
+				sum += digits[i] * (check + 1 - i);
+			int remainder = sum % 11;
+			digits[check] = remainder < 2 ? 0 : 11 - remainder;
+		}
+
+		StringBuilder cpf = new StringBuilder(11);
+		for (int d : digits)
+			cpf.append(d);
+		return cpf.toString();
+	}
+
+	private static boolean isFavorable(int vote) {
+		return vote % 3 != 0;
+	}
+
+	private Instant createdAt(long topic) {
+		return BASE_TIME.plusSeconds(topic);
+	}
+
+	private Instant startTime(long topic) {
+		return this.createdAt(topic).plusSeconds(60);
+	}
+
+	private Instant endTime(long topic) {
+		return this.startTime(topic).plusSeconds(3600);
+	}
+
+	@FunctionalInterface
+	private interface RowSetter {
+
+		void set(PreparedStatement ps, long row) throws SQLException;
+
+	}
+
+	private void insert(long rows, String sql, RowSetter setter) {
+		int batchSize = this.properties.seedBatchSize();
+		for (long offset = 0; offset < rows; offset += batchSize) {
+			long batchOffset = offset;
+			int size = (int) Math.min(batchSize, rows - offset);
+			this.jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					setter.set(ps, batchOffset + i);
+				}
+
+				@Override
+				public int getBatchSize() {
+					return size;
+				}
+
+			});
+		}
+	}
+
+}
@@ -0,0 +1,199 @@
+package com.emerson.desafiovotacao.cache;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Cache limitado em memória, com expiração por tempo e remoção aproximada das entradas consultadas há mais tempo (LRU).
+ * 
+ * As consultas e inclusões não usam trava global: as entradas ficam em um {@link ConcurrentHashMap} e cada consulta
+ * apenas registra o momento do acesso na entrada. Quando o tamanho máximo é excedido, uma única thread por vez
+ * percorre o cache removendo as entradas expiradas e as de acesso mais antigo; as demais seguem sem esperar, então o
+ * cache pode exceder o tamanho máximo brevemente durante inclusões concorrentes.
+ * 
+ * Para não percorrer o cache a cada inclusão, a limpeza remove, além do excedente, uma folga de 1/16 do tamanho máximo.
+ * 
+ * @param <K> O tipo da chave.
+ * @param <V> O tipo do valor.
+ * @author Emerson Oliveira
+ */
+public class BoundedCache<K, V> {
+	
+	private static final long NEVER = Long.MAX_VALUE;
+	
+	private static final class Node<V> {
+		
+		private final V value;
+		
+		private final long expiresAt;
+		
+		/** Momento ({@link System#nanoTime()}) do último acesso; atualizado sem sincronização, por isso aproximado. */
+		private volatile long accessedAt;
+		
+		private Node(V value, long expiresAt, long accessedAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.accessedAt = accessedAt;
+		}
+		
+		private boolean isExpired(long now) {
+			return this.expiresAt != NEVER && this.expiresAt - now <= 0;
+		}
+	}
+	
+	private final Map<K, Node<V>> entries = new ConcurrentHashMap<>();
+	
+	private final ReentrantLock trimming = new ReentrantLock();
+	
+	private final int maxSize;
+	
+	private final int slack;
+	
+	private final Counter evictions;
+	
+	/**
+	 * @param maxSize Quantidade máxima de entradas.
+	 * @param evictions Contador das entradas removidas por limite de tamanho, expiração ou {@link #remove(Object)}.
+	 */
+	public BoundedCache(int maxSize, Counter evictions) {
+		this.maxSize = maxSize;
+		this.slack = maxSize / 16;
+		this.evictions = evictions;
+	}
+	
+	/**
+	 * Obtém um valor do cache.
+	 * 
+	 * @param key A chave.
+	 * @return O valor, ou {@code null} caso a chave não esteja no cache ou já tenha expirado.
+	 */
+	public V get(K key) {
+		Node<V> node = this.entries.get(key);
+		if (node == null)
+			return null;
+		
+		long now = System.nanoTime();
+		if (node.isExpired(now)) {
+			if (this.entries.remove(key, node))
+				this.evictions.increment();
+			return null;
+		}
+		node.accessedAt = now;
+		return node.value;
+	}
+	
+	/**
+	 * Armazena um valor no cache, sem expiração.
+	 * 
+	 * @param key A chave.
+	 * @param value O valor.
+	 */
+	public void put(K key, V value) {
+		this.put(key, value, 0, () -> true);
+	}
+	
+	/**
+	 * Armazena um valor no cache.
+	 * 
+	 * @param key A chave.
+	 * @param value O valor.
+	 * @param ttlNanos Tempo, em nanossegundos, pelo qual o valor permanece no cache; {@code 0} para não expirar.
+	 */
+	public void put(K key, V value, long ttlNanos) {
+		this.put(key, value, ttlNanos, () -> true);
+	}
+	
+	/**
+	 * Armazena um valor no cache somente se a condição for verdadeira.
+	 * 
+	 * A condição é avaliada de forma atômica em relação às demais inclusões e remoções da mesma chave: uma remoção
+	 * que torne a condição falsa antes de removê-la ou impede a inclusão ou remove o valor incluído.
+	 * 
+	 * @param key A chave.
+	 * @param value O valor.
+	 * @param ttlNanos Tempo, em nanossegundos, pelo qual o valor permanece no cache; {@code 0} para não expirar.
+	 * @param condition A condição para a inclusão.
+	 * @return {@code true} caso o valor tenha sido armazenado.
+	 */
+	public boolean put(K key, V value, long ttlNanos, BooleanSupplier condition) {
+		if (this.maxSize <= 0)
+			return false;
+		
+		long now = System.nanoTime();
+		Node<V> node = new Node<>(value, ttlNanos > 0 ? now + ttlNanos : NEVER, now);
+		boolean stored = this.entries.compute(key, (k, current) -> condition.getAsBoolean() ? node : current) == node;
+		
+		if (this.entries.size() > this.maxSize)
+			this.trim();
+		return stored;
+	}
+	
+	/**
+	 * Remove um valor do cache.
+	 * 
+	 * @param key A chave.
+	 * @return {@code true} caso a chave estivesse no cache.
+	 */
+	public boolean remove(K key) {
+		if (this.entries.remove(key) == null)
+			return false;
+		
+		this.evictions.increment();
+		return true;
+	}
+	
+	/**
+	 * @return A quantidade de entradas no cache, incluindo as expiradas ainda não removidas.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+	
+	/**
+	 * Remove as entradas expiradas e, caso o cache continue acima do tamanho máximo, as de acesso mais antigo,
+	 * até o tamanho máximo menos a folga. Caso outra thread já esteja limpando o cache, retorna sem esperar.
+	 */
+	private void trim() {
+		if (!this.trimming.tryLock())
+			return;
+		
+		try {
+			long now = System.nanoTime();
+			int excess = this.entries.size() - this.maxSize + this.slack;
+			
+			// heap com as entradas de acesso mais antigo encontradas até o momento, a mais recente no topo
+			PriorityQueue<Map.Entry<K, Node<V>>> oldest = new PriorityQueue<>(Math.max(excess, 1),
+					Comparator.comparingLong((Map.Entry<K, Node<V>> e) -> e.getValue().accessedAt).reversed());
+			for (Map.Entry<K, Node<V>> e : this.entries.entrySet()) {
+				if (e.getValue().isExpired(now)) {
+					if (this.entries.remove(e.getKey(), e.getValue())) {
+						this.evictions.increment();
+						excess--;
+					}
+					continue;
+				}
+				
+				oldest.add(Map.entry(e.getKey(), e.getValue()));
+				if (oldest.size() > Math.max(excess, 0))
+					oldest.poll();
+			}
+			
+			// as entradas expiradas removidas durante a varredura reduzem o excedente
+			while (oldest.size() > Math.max(excess, 0))
+				oldest.poll();
+			for (Map.Entry<K, Node<V>> e : oldest) {
+				if (this.entries.remove(e.getKey(), e.getValue()))
+					this.evictions.increment();
+			}
+		} finally {
+			this.trimming.unlock();
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.emerson.desafiovotacao.datasource;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.Assert;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Configuração dos DataSources no modo de roteamento {@code REPLICA}: um pool de conexões para o banco principal,
+ * outro para a réplica, e o DataSource usado pela aplicação (JPA, JdbcTemplate e Flyway), que escolhe entre eles
+ * a cada transação ({@link ReadWriteRoutingDataSource}).
+ * 
+ * No modo {@code PRIMARY} (padrão), nada aqui é criado e o DataSource é configurado automaticamente pelo Spring Boot.
+ * 
+ * @author Emerson Oliveira
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "votacao.datasource.routing", name = "mode", havingValue = "REPLICA")
+public class DataSourceRoutingConfiguration {
+	
+	@Bean
+	@ConfigurationProperties(prefix = "spring.datasource.hikari")
+	HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+		HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+	
+	@Bean
+	HikariDataSource replicaDataSource(DataSourceRoutingProperties properties, DataSourceProperties dataSourceProperties) {
+		Assert.hasText(properties.replicaUrl(), "Informe a URL da réplica (votacao.datasource.routing.replica-url) no modo de roteamento REPLICA.");
+		
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName("replica");
+		dataSource.setJdbcUrl(properties.replicaUrl());
+		dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+		dataSource.setUsername(properties.replicaUsername());
+		dataSource.setPassword(properties.replicaPassword());
+		dataSource.setMaximumPoolSize(properties.replicaMaximumPoolSize());
+		dataSource.setConnectionTimeout(properties.replicaConnectionTimeout().toMillis());
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+	
+	@Bean
+	@Primary
+	DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource, DataSourceRoutingProperties properties) {
+		ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, properties.replicaRetryInterval());
+		routingDataSource.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+	
+	/**
+	 * Libera a conexão ao final de cada transação, em vez de mantê-la até o fim da sessão do Hibernate (que, com o
+	 * open-in-view, dura toda a requisição). Assim, cada transação da requisição obtém a conexão do banco adequado.
+	 */
+	@Bean
+	HibernatePropertiesCustomizer connectionHandlingCustomizer() {
+		return properties -> properties.put("hibernate.connection.handling_mode", 
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+	
+}
@@ -0,0 +1,16 @@
+package com.emerson.desafiovotacao.datasource;
+
+/**
+ * Modo de roteamento das conexões com o banco de dados.
+ * 
+ * @author Emerson Oliveira
+ */
+public enum DataSourceRoutingMode {
+	
+	/** Todas as conexões são obtidas do banco principal. */
+	PRIMARY,
+	
+	/** Transações somente leitura usam a réplica; as demais (e as operações fora de transação) usam o banco principal. */
+	REPLICA
+	
+}
@@ -0,0 +1,32 @@
+package com.emerson.desafiovotacao.datasource;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações do roteamento das conexões entre o banco principal e a réplica de leitura.
+ * 
+ * O pool de conexões do banco principal continua configurado pelas propriedades {@code spring.datasource.*}.
+ * 
+ * @param mode Modo de roteamento. {@code REPLICA} envia as transações somente leitura para a réplica.
+ * @param replicaUrl URL JDBC da réplica (obrigatória no modo {@code REPLICA}).
+ * @param replicaUsername Usuário da réplica.
+ * @param replicaPassword Senha da réplica.
+ * @param replicaMaximumPoolSize Quantidade máxima de conexões com a réplica.
+ * @param replicaConnectionTimeout Tempo máximo de espera por uma conexão com a réplica, após o qual a consulta usa o banco principal.
+ * @param replicaRetryInterval Tempo durante o qual a réplica deixa de ser usada após uma falha ao obter conexão.
+ */
+@ConfigurationProperties(prefix = "votacao.datasource.routing")
+public record DataSourceRoutingProperties(
+		@DefaultValue("PRIMARY") DataSourceRoutingMode mode,
+		String replicaUrl,
+		String replicaUsername,
+		String replicaPassword,
+		@DefaultValue("20") int replicaMaximumPoolSize,
+		@DefaultValue("2s") Duration replicaConnectionTimeout,
+		@DefaultValue("30s") Duration replicaRetryInterval
+) {
+
+}
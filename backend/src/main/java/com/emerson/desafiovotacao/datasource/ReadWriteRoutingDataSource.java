@@ -0,0 +1,101 @@
+package com.emerson.desafiovotacao.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * DataSource que envia as conexões das transações somente leitura para a réplica e as demais para o banco principal.
+ * 
+ * A escolha depende da transação em andamento no momento em que a conexão é obtida; por isso, este DataSource deve
+ * ser usado através de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, que só obtém
+ * a conexão na primeira instrução, quando a transação já foi marcada como somente leitura.
+ * 
+ * Caso não seja possível obter uma conexão com a réplica, a conexão é obtida do banco principal e a réplica deixa
+ * de ser usada pelo intervalo informado, evitando que cada consulta espere pelo tempo limite da réplica.
+ * 
+ * @author Emerson Oliveira
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+	
+	private final DataSource primary;
+	
+	private final DataSource replica;
+	
+	private final long retryIntervalNanos;
+	
+	private volatile long replicaUnavailableUntil;
+	
+	private volatile boolean replicaUnavailable;
+	
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration retryInterval) {
+		this.primary = primary;
+		this.replica = replica;
+		this.retryIntervalNanos = retryInterval.toNanos();
+		this.setTargetDataSources(Map.of(DataSourceRoutingMode.PRIMARY, primary, DataSourceRoutingMode.REPLICA, replica));
+		this.setDefaultTargetDataSource(primary);
+	}
+	
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && this.isReplicaAvailable()
+				? DataSourceRoutingMode.REPLICA
+				: DataSourceRoutingMode.PRIMARY;
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		DataSource target = this.determineTargetDataSource();
+		if (target != this.replica)
+			return target.getConnection();
+		
+		try {
+			return this.replica.getConnection();
+		} catch (SQLException e) {
+			this.markReplicaUnavailable(e);
+			return this.primary.getConnection();
+		}
+	}
+	
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		DataSource target = this.determineTargetDataSource();
+		if (target != this.replica)
+			return target.getConnection(username, password);
+		
+		try {
+			return this.replica.getConnection(username, password);
+		} catch (SQLException e) {
+			this.markReplicaUnavailable(e);
+			return this.primary.getConnection(username, password);
+		}
+	}
+	
+	/**
+	 * @return Se verdadeiro, a réplica está sendo usada nas transações somente leitura.
+	 */
+	public boolean isReplicaAvailable() {
+		if (this.replicaUnavailable && System.nanoTime() - this.replicaUnavailableUntil >= 0) {
+			this.replicaUnavailable = false;
+			log.info("Tentando novamente usar a réplica de leitura.");
+		}
+		return !this.replicaUnavailable;
+	}
+	
+	private void markReplicaUnavailable(SQLException e) {
+		this.replicaUnavailableUntil = System.nanoTime() + this.retryIntervalNanos;
+		this.replicaUnavailable = true;
+		log.warn(String.format("Réplica de leitura indisponível; usando o banco principal pelos próximos %s ms: %s", 
+				this.retryIntervalNanos / 1_000_000, e.getMessage()));
+	}
+	
+}
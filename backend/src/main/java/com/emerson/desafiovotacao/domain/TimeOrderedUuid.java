@@ -0,0 +1,49 @@
+package com.emerson.desafiovotacao.domain;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de UUIDs ordenados pelo momento da geração, no formato da versão 7 (RFC 9562).
+ * 
+ * Os 48 bits mais significativos contêm os milissegundos desde a época Unix, seguidos da versão e de uma sequência
+ * de 12 bits que ordena os UUIDs gerados no mesmo milissegundo; os 62 bits restantes são aleatórios. Assim, as chaves
+ * inseridas em sequência ficam próximas no índice da chave primária, em vez de espalhadas por todo o índice como os
+ * UUIDs aleatórios (versão 4), e a representação textual continua a mesma.
+ * 
+ * Os UUIDs são estritamente crescentes dentro da JVM, mesmo com gerações concorrentes, com mais de 4096 gerações
+ * no mesmo milissegundo (a sequência avança para o milissegundo seguinte) ou com o relógio do sistema retrocedendo.
+ * Não devem ser usados como identificadores secretos, pois revelam o momento da geração.
+ * 
+ * @author Emerson Oliveira
+ */
+public final class TimeOrderedUuid {
+	
+	private static final int SEQUENCE_BITS = 12;
+	
+	private static final long VERSION = 7L << SEQUENCE_BITS;
+	
+	private static final long VARIANT = 0x8000_0000_0000_0000L;
+	
+	/** Milissegundos e sequência do último UUID gerado. */
+	private static final AtomicLong LAST = new AtomicLong();
+	
+	private TimeOrderedUuid() {
+	}
+	
+	/**
+	 * Gera um novo UUID, maior que todos os gerados anteriormente na JVM.
+	 * 
+	 * @return O UUID gerado.
+	 */
+	public static UUID next() {
+		long now = System.currentTimeMillis() << SEQUENCE_BITS;
+		long timestamp = LAST.updateAndGet(last -> Math.max(last + 1, now));
+		
+		long mostSignificantBits = (timestamp >>> SEQUENCE_BITS) << 16 | VERSION | (timestamp & ((1L << SEQUENCE_BITS) - 1));
+		long leastSignificantBits = VARIANT | (ThreadLocalRandom.current().nextLong() >>> 2);
+		return new UUID(mostSignificantBits, leastSignificantBits);
+	}
+	
+}
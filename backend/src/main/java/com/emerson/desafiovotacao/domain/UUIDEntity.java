@@ -28,7 +28,7 @@ public abstract class UUIDEntity implements Serializable {
 	@PrePersist
 	private void ensureUuid() {
 		if (uuid == null) {
-			uuid = UUID.randomUUID();
+			uuid = TimeOrderedUuid.next();
 		}
 	}
 
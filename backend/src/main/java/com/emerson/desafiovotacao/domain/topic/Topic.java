@@ -5,9 +5,13 @@ import java.time.Instant;
 import org.hibernate.annotations.DynamicInsert;
 
 import com.emerson.desafiovotacao.domain.UUIDEntity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -37,5 +41,23 @@ public class Topic extends UUIDEntity {
 
 	@Column(nullable = false, updatable = false)
 	private Instant createdAt;
+	
+	/** Sessão de votação mais recente da pauta, mantida a cada nova sessão para evitar buscá-la entre todas as sessões. */
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "latest_voting_session_uuid")
+	@JsonIgnore
+	@ToString.Exclude
+	private TopicVotingSession latestVotingSession;
+	
+	/** Término da sessão de votação mais recente da pauta. */
+	@Column(name = "latest_voting_session_end_time")
+	@JsonIgnore
+	private Instant latestVotingSessionEndTime;
+	
+	public Topic(String title, String description, Instant createdAt) {
+		this.title = title;
+		this.description = description;
+		this.createdAt = createdAt;
+	}
 
 }
@@ -0,0 +1,33 @@
+package com.emerson.desafiovotacao.domain.vote;
+
+import com.emerson.desafiovotacao.external.Cpf;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Converte o CPF (11 dígitos) para {@code bigint} ao gravá-lo no banco de dados e de volta para texto,
+ * com os zeros à esquerda, ao lê-lo.
+ * 
+ * @author Emerson Oliveira
+ */
+@Converter
+public class CpfConverter implements AttributeConverter<String, Long> {
+
+	@Override
+	public Long convertToDatabaseColumn(String cpf) {
+		if (cpf == null)
+			return null;
+		
+		long value = Cpf.toLong(cpf);
+		if (value < 0)
+			throw new IllegalArgumentException("CPF deve conter exatamente 11 dígitos: " + cpf);
+		return value;
+	}
+
+	@Override
+	public String convertToEntityAttribute(Long cpf) {
+		return cpf != null ? Cpf.format(cpf) : null;
+	}
+
+}
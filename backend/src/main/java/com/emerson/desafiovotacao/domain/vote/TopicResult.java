@@ -0,0 +1,70 @@
+package com.emerson.desafiovotacao.domain.vote;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.DynamicInsert;
+import org.hibernate.annotations.Immutable;
+
+import com.emerson.desafiovotacao.domain.UUIDEntity;
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Resultado final de uma pauta cujas sessões de votação estão todas encerradas.
+ *
+ * É gravado uma única vez, quando termina a sessão mais recente da pauta, e nunca é alterado. Caso uma nova sessão
+ * seja aberta para a pauta, o resultado deixa de corresponder à sessão mais recente e um novo resultado é gravado
+ * quando a nova sessão terminar.
+ *
+ * @author Emerson Oliveira
+ */
+@Entity
+@Table(name = "topic_result")
+@Immutable
+@DynamicInsert
+@SuperBuilder
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class TopicResult extends UUIDEntity {
+
+	private static final long serialVersionUID = -3302542176283474417L;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(nullable = false, updatable = false)
+	@JsonIgnore
+	@ToString.Exclude
+	private Topic topic;
+
+	/** Sessão mais recente da pauta no momento em que o resultado foi gravado. */
+	@OneToOne(fetch = FetchType.LAZY)
+	@JoinColumn(nullable = false, unique = true, updatable = false)
+	@JsonIgnore
+	@ToString.Exclude
+	private TopicVotingSession latestVotingSession;
+
+	@Column(nullable = false, updatable = false)
+	private Long favorableVotes;
+
+	@Column(nullable = false, updatable = false)
+	private Long againstVotes;
+
+	@Column(nullable = false, updatable = false)
+	private Instant finalizedAt;
+
+}
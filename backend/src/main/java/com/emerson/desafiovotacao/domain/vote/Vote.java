@@ -1,6 +1,7 @@
 package com.emerson.desafiovotacao.domain.vote;
 
 import java.time.Instant;
+import java.util.UUID;
 
 import org.hibernate.annotations.DynamicInsert;
 
@@ -8,11 +9,13 @@ import com.emerson.desafiovotacao.domain.UUIDEntity;
 import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -20,23 +23,34 @@ import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "vote")
+@Table(
+	name = "vote",
+	// garante no próprio INSERT que o associado vote apenas uma vez por pauta
+	uniqueConstraints = @UniqueConstraint(name = Vote.TOPIC_CPF_CONSTRAINT, columnNames = { "topic_uuid", "cpf" })
+)
 @DynamicInsert
 @SuperBuilder
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 @ToString
 public class Vote extends UUIDEntity {
 	
 	private static final long serialVersionUID = -6702580382103258760L;
 	
+	public static final String TOPIC_CPF_CONSTRAINT = "uk_vote_topic_cpf";
+	
 	@ManyToOne
 	@JoinColumn(nullable = false)
 	private TopicVotingSession topicVotingSession;
 	
-	@Column(nullable = false, length = 11)
+	/** Pauta da sessão de votação, replicada no voto para a restrição de voto único por pauta. */
+	@Column(name = "topic_uuid", nullable = false, updatable = false)
+	private UUID topicUuid;
+	
+	/** CPF com 11 dígitos, gravado como {@code bigint}. */
+	@Column(nullable = false)
+	@Convert(converter = CpfConverter.class)
 	private String cpf;
 	
 	@Column(nullable = false)
@@ -44,5 +58,20 @@ public class Vote extends UUIDEntity {
 
 	@Column(nullable = false, updatable = false)
 	private Instant votedAt;
+	
+	public Vote(TopicVotingSession topicVotingSession, String cpf, Boolean vote, Instant votedAt) {
+		this.topicVotingSession = topicVotingSession;
+		this.topicUuid = topicVotingSession.getTopic().getUuid();
+		this.cpf = cpf;
+		this.vote = vote;
+		this.votedAt = votedAt;
+	}
+	
+	@PrePersist
+	private void ensureTopicUuid() {
+		if (topicUuid == null && topicVotingSession != null) {
+			topicUuid = topicVotingSession.getTopic().getUuid();
+		}
+	}
 
 }
@@ -0,0 +1,63 @@
+package com.emerson.desafiovotacao.domain.vote;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.DynamicInsert;
+
+import com.emerson.desafiovotacao.domain.UUIDEntity;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Contagem consolidada dos votos de uma sessão de votação.
+ *
+ * É mantida incrementalmente a cada voto registrado, na mesma transação da inserção do voto,
+ * evitando que o resultado de uma pauta precise ler todos os votos para ser calculado.
+ * No modo de contagem {@code MEMORY}, é atualizada periodicamente a partir de contadores em memória.
+ *
+ * @author Emerson Oliveira
+ */
+@Entity
+@Table(name = "vote_tally")
+@DynamicInsert
+@SuperBuilder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class VoteTally extends UUIDEntity {
+
+	private static final long serialVersionUID = 4521193093381307316L;
+
+	@OneToOne(fetch = FetchType.LAZY)
+	@JoinColumn(nullable = false, unique = true, updatable = false)
+	@JsonIgnore
+	@ToString.Exclude
+	private TopicVotingSession topicVotingSession;
+
+	@Column(nullable = false)
+	private Long favorableVotes;
+
+	@Column(nullable = false)
+	private Long againstVotes;
+
+	@Column(nullable = false)
+	private Long totalVotes;
+
+	private Instant lastVotedAt;
+
+}
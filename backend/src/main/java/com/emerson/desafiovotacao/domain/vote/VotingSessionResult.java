@@ -0,0 +1,62 @@
+package com.emerson.desafiovotacao.domain.vote;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.DynamicInsert;
+import org.hibernate.annotations.Immutable;
+
+import com.emerson.desafiovotacao.domain.UUIDEntity;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Resultado final de uma sessão de votação encerrada.
+ *
+ * É gravado uma única vez, logo após o término da sessão, a partir da tabela de votos, e nunca é alterado.
+ *
+ * @author Emerson Oliveira
+ */
+@Entity
+@Table(name = "voting_session_result")
+@Immutable
+@DynamicInsert
+@SuperBuilder
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class VotingSessionResult extends UUIDEntity {
+
+	private static final long serialVersionUID = 6395627614370148312L;
+
+	@OneToOne(fetch = FetchType.LAZY)
+	@JoinColumn(nullable = false, unique = true, updatable = false)
+	@JsonIgnore
+	@ToString.Exclude
+	private TopicVotingSession topicVotingSession;
+
+	@Column(nullable = false, updatable = false)
+	private Long favorableVotes;
+
+	@Column(nullable = false, updatable = false)
+	private Long againstVotes;
+
+	@Column(updatable = false)
+	private Instant lastVotedAt;
+
+	@Column(nullable = false, updatable = false)
+	private Instant finalizedAt;
+
+}
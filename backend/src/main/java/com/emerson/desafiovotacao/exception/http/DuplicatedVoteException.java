@@ -0,0 +1,18 @@
+package com.emerson.desafiovotacao.exception.http;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.CONFLICT)
+public class DuplicatedVoteException extends ConflictException {
+	
+	private static final long serialVersionUID = 3170246894115733912L;
+	
+	/** Mensagem da recusa, usada também nos votos recusados sem exceção (votos em lote e enfileirados). */
+	public static final String MESSAGE = "O associado já votou nesta pauta. Só é permitido votar uma vez por pauta.";
+	
+	public DuplicatedVoteException() {
+		super(MESSAGE);
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.emerson.desafiovotacao.exception.http;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends HttpRuntimeException {
+
+	private static final long serialVersionUID = 5817709452302117385L;
+
+	public TooManyRequestsException(String message) {
+		super(message, HttpStatus.TOO_MANY_REQUESTS);
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.emerson.desafiovotacao.external;
+
+/**
+ * Utilitários para normalização e validação de CPF sem expressões regulares e sem alocações 
+ * quando o CPF já está normalizado.
+ * 
+ * @author Emerson Oliveira
+ */
+public final class Cpf {
+	
+	public static final int LENGTH = 11;
+	
+	private static final long MAX_VALUE = 99_999_999_999L;
+	
+	private Cpf() {
+	}
+	
+	/**
+	 * Remove os caracteres do CPF, deixando apenas números.
+	 * 
+	 * @param cpf O CPF, com ou sem pontuação.
+	 * @return O CPF contendo apenas números; a própria instância informada caso ela já contenha apenas números.
+	 */
+	public static String normalize(String cpf) {
+		int digits = 0;
+		for (int i = 0; i < cpf.length(); i++) {
+			if (isDigit(cpf.charAt(i)))
+				digits++;
+		}
+		if (digits == cpf.length())
+			return cpf;
+		
+		char[] normalized = new char[digits];
+		int j = 0;
+		for (int i = 0; i < cpf.length(); i++) {
+			char c = cpf.charAt(i);
+			if (isDigit(c))
+				normalized[j++] = c;
+		}
+		return new String(normalized);
+	}
+	
+	/**
+	 * Valida a estrutura e os dígitos verificadores de um CPF.
+	 * 
+	 * @param cpf O CPF contendo apenas números.
+	 * @return {@code true} caso o CPF possua 11 dígitos, não seja uma sequência de dígitos repetidos
+	 * e os dígitos verificadores estejam corretos.
+	 */
+	public static boolean isValid(String cpf) {
+		if (cpf == null || cpf.length() != LENGTH)
+			return false;
+		
+		boolean repeated = true;
+		int sum1 = 0, sum2 = 0;
+		for (int i = 0; i < LENGTH; i++) {
+			char c = cpf.charAt(i);
+			if (!isDigit(c))
+				return false;
+			if (c != cpf.charAt(0))
+				repeated = false;
+			
+			int digit = c - '0';
+			if (i < 9)
+				sum1 += digit * (10 - i);
+			if (i < 10)
+				sum2 += digit * (11 - i);
+		}
+		if (repeated)
+			return false;
+		
+		int check1 = checkDigit(sum1);
+		return check1 == cpf.charAt(9) - '0' && checkDigit(sum2) == cpf.charAt(10) - '0';
+	}
+	
+	/**
+	 * Converte o CPF (apenas números) em {@code long}.
+	 * 
+	 * @param cpf O CPF contendo apenas números.
+	 * @return O CPF como {@code long}, ou {@code -1} caso o CPF não tenha 11 dígitos.
+	 */
+	public static long toLong(String cpf) {
+		if (cpf == null || cpf.length() != LENGTH)
+			return -1;
+		
+		long value = 0;
+		for (int i = 0; i < LENGTH; i++) {
+			char c = cpf.charAt(i);
+			if (!isDigit(c))
+				return -1;
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+	
+	/**
+	 * Converte o CPF em {@code long} para texto com 11 dígitos, incluindo os zeros à esquerda.
+	 * 
+	 * @param cpf O CPF como {@code long}.
+	 * @return O CPF contendo apenas números.
+	 * @throws IllegalArgumentException Caso o valor não seja um CPF de até 11 dígitos.
+	 */
+	public static String format(long cpf) {
+		if (cpf < 0 || cpf > MAX_VALUE)
+			throw new IllegalArgumentException("Valor fora do intervalo de um CPF: " + cpf);
+		
+		char[] digits = new char[LENGTH];
+		for (int i = LENGTH - 1; i >= 0; i--) {
+			digits[i] = (char) ('0' + cpf % 10);
+			cpf /= 10;
+		}
+		return new String(digits);
+	}
+	
+	private static int checkDigit(int sum) {
+		int remainder = sum % 11;
+		return remainder < 2 ? 0 : 11 - remainder;
+	}
+	
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.emerson.desafiovotacao.external;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.emerson.desafiovotacao.cache.BoundedCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache limitado da elegibilidade de CPFs para votação, com remoção aproximada dos CPFs consultados há mais tempo (LRU)
+ * e expiração por tempo (ver {@link BoundedCache}).
+ * 
+ * Evita consultar novamente a elegibilidade de um associado que vota em várias pautas. Os acertos, falhas
+ * e remoções são expostos como contadores do Micrometer.
+ * 
+ * @author Emerson Oliveira
+ */
+@Component
+public class CpfEligibilityCache {
+	
+	@Autowired
+	private CpfEligibilityCacheProperties properties;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	private BoundedCache<Long, VoteEligibilityStatus> entries;
+	
+	private Counter hits;
+	
+	private Counter misses;
+	
+	@PostConstruct
+	void init() {
+		this.hits = this.counter("votacao.cpf.eligibility.cache.hits", "Consultas de elegibilidade respondidas pelo cache");
+		this.misses = this.counter("votacao.cpf.eligibility.cache.misses", "Consultas de elegibilidade não encontradas no cache");
+		Counter evictions = this.counter("votacao.cpf.eligibility.cache.evictions", "CPFs removidos do cache por limite de tamanho ou expiração");
+		Gauge.builder("votacao.cpf.eligibility.cache.size", this, CpfEligibilityCache::size)
+			 .description("CPFs no cache de elegibilidade")
+			 .register(this.meterRegistry);
+		
+		this.entries = new BoundedCache<>(this.properties.maxSize(), evictions);
+	}
+	
+	/**
+	 * Obtém a elegibilidade de um CPF do cache.
+	 * 
+	 * @param cpf O CPF como {@code long}.
+	 * @return A elegibilidade do CPF, ou {@code null} caso o CPF não esteja no cache ou já tenha expirado.
+	 */
+	public VoteEligibilityStatus get(long cpf) {
+		VoteEligibilityStatus status = this.entries.get(cpf);
+		(status != null ? this.hits : this.misses).increment();
+		return status;
+	}
+	
+	/**
+	 * Armazena a elegibilidade de um CPF no cache, com a expiração correspondente ao status.
+	 * 
+	 * @param cpf O CPF como {@code long}.
+	 * @param status A elegibilidade do CPF.
+	 */
+	public void put(long cpf, VoteEligibilityStatus status) {
+		long ttl = VoteEligibilityStatus.ABLE_TO_VOTE.equals(status)
+				? this.properties.ttl().toNanos()
+				: this.properties.negativeTtl().toNanos();
+		if (ttl <= 0)
+			return;
+		
+		this.entries.put(cpf, status, ttl);
+	}
+	
+	/**
+	 * @return A quantidade de CPFs no cache, incluindo os expirados ainda não removidos.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+	
+	private Counter counter(String name, String description) {
+		return Counter.builder(name).description(description).register(this.meterRegistry);
+	}
+
+}
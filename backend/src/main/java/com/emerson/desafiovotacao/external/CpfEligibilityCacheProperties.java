@@ -0,0 +1,22 @@
+package com.emerson.desafiovotacao.external;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações do cache de elegibilidade de CPFs para votação.
+ * 
+ * @param maxSize Quantidade máxima de CPFs no cache. Acima disso, os CPFs consultados há mais tempo são removidos.
+ * @param ttl Tempo pelo qual um CPF apto para votar permanece no cache.
+ * @param negativeTtl Tempo pelo qual um CPF inapto para votar permanece no cache. {@code 0} desativa o cache de CPFs inaptos.
+ */
+@ConfigurationProperties(prefix = "votacao.cpf.eligibility-cache")
+public record CpfEligibilityCacheProperties(
+		@DefaultValue("100000") int maxSize,
+		@DefaultValue("10m") Duration ttl,
+		@DefaultValue("1m") Duration negativeTtl
+) {
+
+}
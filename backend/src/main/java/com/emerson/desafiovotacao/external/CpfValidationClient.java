@@ -1,55 +1,96 @@
 package com.emerson.desafiovotacao.external;
 
-import java.util.Random;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.emerson.desafiovotacao.exception.http.BadRequestException;
 
-import br.com.caelum.stella.validation.CPFValidator;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Cliente responsável por simular a validação de CPF e determinar a elegibilidade para votação.
  * 
  * Esta classe utiliza validação básica de CPF (estrutura e dígitos válidos)
- * e simula aleatoriamente se o CPF pode ou não votar.
+ * e simula aleatoriamente se o CPF pode ou não votar. A elegibilidade de cada CPF
+ * é mantida no {@link CpfEligibilityCache}.
  */
 @Component
 @Slf4j
 public class CpfValidationClient {
 	
-	private static final Random random = new Random();
+	@Autowired
+	private CpfEligibilityCache eligibilityCache;
 
 	/**
 	 * Valida um CPF e retorna o status de elegibilidade para votação.<br><br>
 	 * 
 	 * O método realiza duas verificações:<br>
-	 * 1. Validação da estrutura do CPF usando a biblioteca Stella.<br>
-	 * 2. Simulação aleatória do status de elegibilidade.
+	 * 1. Validação da estrutura do CPF e dos dígitos verificadores.<br>
+	 * 2. Simulação aleatória do status de elegibilidade, caso o CPF não esteja no cache.
 	 * 
-	 * @param cpf O CPF que será validado.
+	 * @param cpf O CPF (apenas números) que será validado.
 	 * @return Um objeto {@link CpfValidationResponse} contendo o status de elegibilidade.
-	 * @throws br.com.caelum.stella.validation.InvalidStateException se o CPF for inválido.
+	 * @throws BadRequestException se o CPF for inválido.
 	 */
 	public CpfValidationResponse validateCpf(String cpf) {
 		// validação da estrutura do CPF
-		CPFValidator cpfValidator = new CPFValidator();
-		try {
-			cpfValidator.assertValid(cpf);
-		} catch (Exception e) {
+		if (!Cpf.isValid(cpf))
 			throw new BadRequestException("Informe um CPF válido.");
-		}
+		
+		long key = Cpf.toLong(cpf);
+		VoteEligibilityStatus status = this.eligibilityCache.get(key);
+		if (status != null)
+			return new CpfValidationResponse(status);
 
+		status = this.lookup(key);
+		log.info(String.format("CPF %s: %s", cpf, status));
+
+		return new CpfValidationResponse(status);
+	}
+	
+	/**
+	 * Valida um conjunto de CPFs e retorna o status de elegibilidade de cada um.<br><br>
+	 * 
+	 * Os CPFs que não estão no cache são consultados em uma única chamada.
+	 * 
+	 * @param cpfs Os CPFs (apenas números) que serão validados.
+	 * @return Um mapa com o status de elegibilidade de cada CPF.
+	 * @throws BadRequestException se algum dos CPFs for inválido.
+	 */
+	public Map<String, VoteEligibilityStatus> validateCpfs(Collection<String> cpfs) {
+		Map<String, VoteEligibilityStatus> statuses = new HashMap<>(cpfs.size() * 2);
+		boolean misses = false;
+		for (String cpf : cpfs) {
+			if (!Cpf.isValid(cpf))
+				throw new BadRequestException("Informe um CPF válido.");
+			
+			VoteEligibilityStatus status = this.eligibilityCache.get(Cpf.toLong(cpf));
+			statuses.put(cpf, status);
+			misses |= status == null;
+		}
+		if (!misses)
+			return statuses;
+		
+		statuses.replaceAll((cpf, status) -> status != null ? status : this.lookup(Cpf.toLong(cpf)));
+		log.info(String.format("%s CPFs validados em lote", statuses.size()));
+		
+		return statuses;
+	}
+	
+	private VoteEligibilityStatus lookup(long cpf) {
 		// simula aleatoriamente se o CPF é válido (pode votar) ou não
-		boolean canVote = random.nextBoolean();
+		boolean canVote = ThreadLocalRandom.current().nextBoolean();
 		VoteEligibilityStatus status = canVote
 				? VoteEligibilityStatus.ABLE_TO_VOTE
 				: VoteEligibilityStatus.UNABLE_TO_VOTE;
+		this.eligibilityCache.put(cpf, status);
 		
-		log.info(String.format("CPF %s: %s", cpf, status));
-
-		return new CpfValidationResponse(status);
+		return status;
 	}
 
 }
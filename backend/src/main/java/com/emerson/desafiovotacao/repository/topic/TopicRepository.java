@@ -1,19 +1,26 @@
 package com.emerson.desafiovotacao.repository.topic;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.service.topic.dto.TopicRowDto;
 import com.emerson.desafiovotacao.service.topic.dto.TopicWithOpenSessionDto;
+import com.emerson.desafiovotacao.service.vote.dto.TopicResultsStateDto;
 
 public interface TopicRepository extends JpaRepository<Topic, UUID> {
-	
+
 	boolean existsByTitle(String title);
-	
+
 	@Query("""
 		SELECT new com.emerson.desafiovotacao.service.topic.dto.TopicWithOpenSessionDto(
 			t.uuid,
@@ -25,14 +32,73 @@ public interface TopicRepository extends JpaRepository<Topic, UUID> {
 			s.endTime
 		)
 		FROM Topic t
-		LEFT JOIN TopicVotingSession s ON s.topic.uuid = t.uuid
-		WHERE s.startTime = (
-			SELECT MAX(sub.startTime)
-			FROM TopicVotingSession sub
-			WHERE sub.topic.uuid = t.uuid
-		)
-		OR s.uuid IS NULL
+		LEFT JOIN t.latestVotingSession s
 	""")
 	Page<TopicWithOpenSessionDto> findAllTopicsWithOpenVotingSession(Pageable page);
 
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.topic.dto.TopicRowDto(t.uuid, t.title, t.createdAt, s.uuid, s.startTime, s.endTime)
+		FROM Topic t
+		LEFT JOIN t.latestVotingSession s
+	""")
+	List<TopicRowDto> findRows(Sort sort, Limit limit);
+
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.topic.dto.TopicRowDto(t.uuid, t.title, t.createdAt, s.uuid, s.startTime, s.endTime)
+		FROM Topic t
+		LEFT JOIN t.latestVotingSession s
+		WHERE (t.createdAt, t.uuid) > (:createdAt, :uuid)
+		ORDER BY t.createdAt, t.uuid
+	""")
+	List<TopicRowDto> findRowsByCreatedAtAfter(Instant createdAt, UUID uuid, Limit limit);
+
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.topic.dto.TopicRowDto(t.uuid, t.title, t.createdAt, s.uuid, s.startTime, s.endTime)
+		FROM Topic t
+		LEFT JOIN t.latestVotingSession s
+		WHERE (t.createdAt, t.uuid) < (:createdAt, :uuid)
+		ORDER BY t.createdAt DESC, t.uuid DESC
+	""")
+	List<TopicRowDto> findRowsByCreatedAtBefore(Instant createdAt, UUID uuid, Limit limit);
+
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.topic.dto.TopicRowDto(t.uuid, t.title, t.createdAt, s.uuid, s.startTime, s.endTime)
+		FROM Topic t
+		LEFT JOIN t.latestVotingSession s
+		WHERE (t.title, t.uuid) > (:title, :uuid)
+		ORDER BY t.title, t.uuid
+	""")
+	List<TopicRowDto> findRowsByTitleAfter(String title, UUID uuid, Limit limit);
+
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.topic.dto.TopicRowDto(t.uuid, t.title, t.createdAt, s.uuid, s.startTime, s.endTime)
+		FROM Topic t
+		LEFT JOIN t.latestVotingSession s
+		WHERE (t.title, t.uuid) < (:title, :uuid)
+		ORDER BY t.title DESC, t.uuid DESC
+	""")
+	List<TopicRowDto> findRowsByTitleBefore(String title, UUID uuid, Limit limit);
+
+	@Query("SELECT MAX(t.createdAt) FROM Topic t")
+	Instant findLastCreatedAt();
+
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.vote.dto.TopicResultsStateDto(
+			ls.uuid,
+			t.latestVotingSessionEndTime,
+			COUNT(s),
+			COALESCE(SUM(vt.totalVotes), 0),
+			MAX(vt.lastVotedAt),
+			MAX(r.finalizedAt)
+		)
+		FROM Topic t
+		LEFT JOIN t.latestVotingSession ls
+		LEFT JOIN TopicVotingSession s ON s.topic = t
+		LEFT JOIN VoteTally vt ON vt.topicVotingSession = s
+		LEFT JOIN TopicResult r ON r.latestVotingSession = ls
+		WHERE t.uuid = :topicUuid
+		GROUP BY t.uuid, ls.uuid, t.latestVotingSessionEndTime
+	""")
+	Optional<TopicResultsStateDto> findResultsStateByUuid(UUID topicUuid);
+
 }
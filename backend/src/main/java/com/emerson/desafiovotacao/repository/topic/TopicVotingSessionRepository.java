@@ -5,18 +5,55 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
 import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
 
+import jakarta.persistence.LockModeType;
+
 public interface TopicVotingSessionRepository extends JpaRepository<TopicVotingSession, UUID> {
 
+	@Query("""
+		SELECT COUNT(s) > 0
+		FROM TopicVotingSession s
+		WHERE s.topic.uuid = :topicUuid
+		AND s.endTime > :endTime
+	""")
 	boolean existsByTopicUuidAndEndTimeGreaterThan(UUID topicUuid, Instant endTime);
 
+	@Query("""
+		SELECT s
+		FROM TopicVotingSession s
+		WHERE s.topic.uuid = :topicUuid
+		AND s.endTime > :endTime
+		ORDER BY s.startTime DESC
+		LIMIT 1
+	""")
 	Optional<TopicVotingSession> findTopByTopicUuidAndEndTimeGreaterThanOrderByStartTimeDesc(UUID topicUuid, Instant endTime);
 	
 	Optional<TopicVotingSession> findByUuidAndEndTimeGreaterThan(UUID id, Instant endTime);
 
+	@Query("SELECT s FROM TopicVotingSession s WHERE s.topic.uuid = :topicUuid")
 	List<TopicVotingSession> findByTopicUuid(UUID topicUuid);
 
+	List<TopicVotingSession> findByEndTimeGreaterThan(Instant endTime);
+
+	@Query("SELECT MAX(s.startTime) FROM TopicVotingSession s")
+	Instant findLastStartTime();
+
+	@Query("""
+		SELECT s.uuid
+		FROM TopicVotingSession s
+		WHERE s.endTime <= :endTime
+		AND NOT EXISTS (SELECT 1 FROM VotingSessionResult r WHERE r.topicVotingSession = s)
+		ORDER BY s.endTime
+	""")
+	List<UUID> findUuidsWithoutResultByEndTimeLessThanEqual(Instant endTime, Limit limit);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	Optional<TopicVotingSession> findForUpdateByUuid(UUID uuid);
+
 }
@@ -0,0 +1,16 @@
+package com.emerson.desafiovotacao.repository.vote;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.emerson.desafiovotacao.domain.vote.TopicResult;
+
+public interface TopicResultRepository extends JpaRepository<TopicResult, UUID> {
+
+	@Query("SELECT r FROM TopicResult r WHERE r.latestVotingSession.uuid = :latestVotingSessionUuid")
+	Optional<TopicResult> findByLatestVotingSessionUuid(UUID latestVotingSessionUuid);
+
+}
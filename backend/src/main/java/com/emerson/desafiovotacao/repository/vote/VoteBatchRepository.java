@@ -0,0 +1,55 @@
+package com.emerson.desafiovotacao.repository.vote;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.emerson.desafiovotacao.domain.TimeOrderedUuid;
+import com.emerson.desafiovotacao.domain.vote.Vote;
+import com.emerson.desafiovotacao.external.Cpf;
+
+/**
+ * Repositório para inserção de votos em lote via JDBC, sem passar pelo contexto de persistência.
+ * 
+ * Todos os votos do lote são enviados ao banco em um único batch JDBC e gravados na transação corrente.
+ * 
+ * @author Emerson Oliveira
+ */
+@Repository
+public class VoteBatchRepository {
+	
+	private static final String INSERT_VOTE = """
+		INSERT INTO vote (uuid, topic_voting_session_uuid, topic_uuid, cpf, vote, voted_at)
+		VALUES (?, ?, ?, ?, ?, ?)
+	""";
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Insere os votos informados em um único batch JDBC, atribuindo o UUID (ordenado pelo momento da geração,
+	 * ver {@link TimeOrderedUuid}) dos votos que ainda não o possuem.
+	 * 
+	 * @param votes Os votos a serem inseridos.
+	 */
+	public void insertAll(List<Vote> votes) {
+		for (Vote v : votes) {
+			if (v.getUuid() == null)
+				v.setUuid(TimeOrderedUuid.next());
+		}
+		
+		this.jdbcTemplate.batchUpdate(INSERT_VOTE, votes, votes.size(), (ps, v) -> {
+			ps.setObject(1, v.getUuid());
+			ps.setObject(2, v.getTopicVotingSession().getUuid());
+			ps.setObject(3, v.getTopicVotingSession().getTopic().getUuid());
+			ps.setLong(4, Cpf.toLong(v.getCpf()));
+			ps.setBoolean(5, v.getVote());
+			ps.setObject(6, OffsetDateTime.ofInstant(v.getVotedAt(), ZoneOffset.UTC));
+		});
+	}
+
+}
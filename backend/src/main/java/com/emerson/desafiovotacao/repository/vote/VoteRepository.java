@@ -1,19 +1,88 @@
 package com.emerson.desafiovotacao.repository.vote;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.emerson.desafiovotacao.domain.vote.Vote;
+import com.emerson.desafiovotacao.service.vote.dto.VoteCountDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteRowDto;
 
 public interface VoteRepository extends JpaRepository<Vote, UUID> {
 	
-	boolean existsByTopicVotingSessionTopicUuidAndCpf(UUID topicVotingSession, String cpf);
+	boolean existsByTopicUuidAndCpf(UUID topicUuid, String cpf);
 	
 	List<Vote> findByTopicVotingSessionTopicUuid(UUID topicUuid);
 
 	Optional<Vote> findByTopicVotingSessionTopicUuidAndCpf(UUID uuid, String cpf);
 
+	@Query("SELECT v.cpf FROM Vote v WHERE v.topicUuid = :topicUuid AND v.cpf IN :cpfs")
+	List<String> findCpfsByTopicUuidAndCpfIn(UUID topicUuid, Collection<String> cpfs);
+
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.vote.dto.VoteCountDto(
+			COALESCE(SUM(CASE WHEN v.vote = true THEN 1L ELSE 0L END), 0L),
+			COALESCE(SUM(CASE WHEN v.vote = false THEN 1L ELSE 0L END), 0L),
+			MAX(v.votedAt)
+		)
+		FROM Vote v
+		WHERE v.topicVotingSession.uuid = :topicVotingSessionUuid
+	""")
+	VoteCountDto countByTopicVotingSessionUuid(UUID topicVotingSessionUuid);
+
+	@Query("""
+		SELECT
+			v.topicVotingSession.uuid AS topicVotingSessionUuid,
+			v.vote AS vote,
+			COUNT(v) AS votes,
+			MAX(v.votedAt) AS lastVotedAt
+		FROM Vote v
+		WHERE v.topicUuid = :topicUuid
+		GROUP BY v.topicVotingSession.uuid, v.vote
+	""")
+	List<VoteSessionCount> countBySessionAndVoteByTopicUuid(UUID topicUuid);
+
+	@Query("""
+		SELECT
+			v.topicVotingSession.uuid AS topicVotingSessionUuid,
+			v.vote AS vote,
+			COUNT(v) AS votes,
+			MAX(v.votedAt) AS lastVotedAt
+		FROM Vote v
+		WHERE v.topicVotingSession.uuid IN :topicVotingSessionUuids
+		GROUP BY v.topicVotingSession.uuid, v.vote
+	""")
+	List<VoteSessionCount> countBySessionAndVoteByTopicVotingSessionUuidIn(Collection<UUID> topicVotingSessionUuids);
+
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.vote.dto.VoteRowDto(v.uuid, v.topicVotingSession.uuid, v.cpf, v.vote, v.votedAt)
+		FROM Vote v
+		WHERE v.topicUuid = :topicUuid
+		ORDER BY v.votedAt, v.uuid
+	""")
+	List<VoteRowDto> findRowsByTopicUuid(UUID topicUuid);
+
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.vote.dto.VoteRowDto(v.uuid, v.topicVotingSession.uuid, v.cpf, v.vote, v.votedAt)
+		FROM Vote v
+		WHERE v.topicVotingSession.uuid = :topicVotingSessionUuid
+		ORDER BY v.votedAt, v.uuid
+	""")
+	List<VoteRowDto> findRowsByTopicVotingSessionUuid(UUID topicVotingSessionUuid, Limit limit);
+
+	@Query("""
+		SELECT new com.emerson.desafiovotacao.service.vote.dto.VoteRowDto(v.uuid, v.topicVotingSession.uuid, v.cpf, v.vote, v.votedAt)
+		FROM Vote v
+		WHERE v.topicVotingSession.uuid = :topicVotingSessionUuid
+		AND (v.votedAt > :votedAt OR (v.votedAt = :votedAt AND v.uuid > :uuid))
+		ORDER BY v.votedAt, v.uuid
+	""")
+	List<VoteRowDto> findRowsByTopicVotingSessionUuidAfter(UUID topicVotingSessionUuid, Instant votedAt, UUID uuid, Limit limit);
+
 }
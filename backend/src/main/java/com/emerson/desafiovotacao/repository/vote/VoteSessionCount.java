@@ -0,0 +1,21 @@
+package com.emerson.desafiovotacao.repository.vote;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Projeção da quantidade de votos de um mesmo valor (favorável ou contra) em uma sessão de votação.
+ * 
+ * @author Emerson Oliveira
+ */
+public interface VoteSessionCount {
+
+	UUID getTopicVotingSessionUuid();
+
+	Boolean getVote();
+
+	long getVotes();
+
+	Instant getLastVotedAt();
+
+}
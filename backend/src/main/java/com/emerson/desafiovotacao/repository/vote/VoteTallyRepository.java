@@ -0,0 +1,45 @@
+package com.emerson.desafiovotacao.repository.vote;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.emerson.desafiovotacao.domain.vote.VoteTally;
+
+public interface VoteTallyRepository extends JpaRepository<VoteTally, UUID> {
+
+	@Query("SELECT t FROM VoteTally t WHERE t.topicVotingSession.uuid = :topicVotingSessionUuid")
+	Optional<VoteTally> findByTopicVotingSessionUuid(UUID topicVotingSessionUuid);
+
+	@Query("""
+		SELECT t
+		FROM VoteTally t
+		JOIN t.topicVotingSession s
+		WHERE s.topic.uuid = :topicUuid
+	""")
+	List<VoteTally> findByTopicVotingSessionTopicUuid(UUID topicUuid);
+
+	@Query("SELECT t FROM VoteTally t WHERE t.topicVotingSession.uuid IN :topicVotingSessionUuids")
+	List<VoteTally> findByTopicVotingSessionUuidIn(Collection<UUID> topicVotingSessionUuids);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+		UPDATE VoteTally t
+		SET t.favorableVotes = t.favorableVotes + :favorableVotes,
+			t.againstVotes = t.againstVotes + :againstVotes,
+			t.totalVotes = t.totalVotes + :favorableVotes + :againstVotes,
+			t.lastVotedAt = CASE
+				WHEN t.lastVotedAt IS NULL OR t.lastVotedAt < :votedAt THEN :votedAt
+				ELSE t.lastVotedAt
+			END
+		WHERE t.topicVotingSession.uuid = :topicVotingSessionUuid
+	""")
+	int increment(UUID topicVotingSessionUuid, long favorableVotes, long againstVotes, Instant votedAt);
+
+}
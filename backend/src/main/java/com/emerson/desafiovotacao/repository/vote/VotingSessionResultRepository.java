@@ -0,0 +1,25 @@
+package com.emerson.desafiovotacao.repository.vote;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.emerson.desafiovotacao.domain.vote.VotingSessionResult;
+
+public interface VotingSessionResultRepository extends JpaRepository<VotingSessionResult, UUID> {
+
+	@Query("SELECT COUNT(r) > 0 FROM VotingSessionResult r WHERE r.topicVotingSession.uuid = :topicVotingSessionUuid")
+	boolean existsByTopicVotingSessionUuid(UUID topicVotingSessionUuid);
+
+	@Query("""
+		SELECT r
+		FROM VotingSessionResult r
+		JOIN FETCH r.topicVotingSession s
+		WHERE s.topic.uuid = :topicUuid
+		ORDER BY s.startTime
+	""")
+	List<VotingSessionResult> findByTopicUuid(UUID topicUuid);
+
+}
@@ -0,0 +1,83 @@
+package com.emerson.desafiovotacao.service.topic;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+
+/**
+ * Cache em memória das sessões de votação abertas, indexado pelo UUID da pauta e pelo UUID da sessão.
+ * 
+ * Cada sessão expira exatamente no seu {@code endTime}: a expiração é verificada a cada consulta, 
+ * de modo que uma sessão encerrada nunca é retornada, e as sessões expiradas são removidas periodicamente.
+ * 
+ * @author Emerson Oliveira
+ */
+@Component
+public class OpenVotingSessionCache {
+	
+	private final Map<UUID, TopicVotingSession> byTopic = new ConcurrentHashMap<>();
+	
+	private final Map<UUID, TopicVotingSession> bySession = new ConcurrentHashMap<>();
+	
+	/**
+	 * Obtém a sessão de votação aberta de uma pauta.
+	 * 
+	 * @param topicUuid O identificador único da pauta.
+	 * @param now O momento da consulta.
+	 * @return A sessão aberta da pauta, ou vazio caso ela não esteja no cache ou já tenha sido encerrada.
+	 */
+	public Optional<TopicVotingSession> getByTopicUuid(UUID topicUuid, Instant now) {
+		return this.get(this.byTopic, topicUuid, now);
+	}
+	
+	/**
+	 * Obtém uma sessão de votação aberta.
+	 * 
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação.
+	 * @param now O momento da consulta.
+	 * @return A sessão aberta, ou vazio caso ela não esteja no cache ou já tenha sido encerrada.
+	 */
+	public Optional<TopicVotingSession> getByUuid(UUID topicVotingSessionUuid, Instant now) {
+		return this.get(this.bySession, topicVotingSessionUuid, now);
+	}
+	
+	/**
+	 * Armazena uma sessão de votação aberta no cache, substituindo a sessão anterior da mesma pauta.
+	 * 
+	 * @param topicVotingSession A sessão de votação aberta.
+	 */
+	public void put(TopicVotingSession topicVotingSession) {
+		this.byTopic.put(topicVotingSession.getTopic().getUuid(), topicVotingSession);
+		this.bySession.put(topicVotingSession.getUuid(), topicVotingSession);
+	}
+	
+	/**
+	 * Remove do cache as sessões de votação já encerradas.
+	 */
+	@Scheduled(fixedDelay = 60_000)
+	public void evictExpired() {
+		Instant now = Instant.now();
+		this.byTopic.values().removeIf(s -> !s.getEndTime().isAfter(now));
+		this.bySession.values().removeIf(s -> !s.getEndTime().isAfter(now));
+	}
+	
+	private Optional<TopicVotingSession> get(Map<UUID, TopicVotingSession> sessions, UUID key, Instant now) {
+		TopicVotingSession topicVotingSession = sessions.get(key);
+		if (topicVotingSession == null)
+			return Optional.empty();
+		
+		if (!topicVotingSession.getEndTime().isAfter(now)) {
+			sessions.remove(key, topicVotingSession);
+			return Optional.empty();
+		}
+		return Optional.of(topicVotingSession);
+	}
+
+}
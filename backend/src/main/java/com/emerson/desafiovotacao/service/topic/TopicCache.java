@@ -0,0 +1,150 @@
+package com.emerson.desafiovotacao.service.topic;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.emerson.desafiovotacao.cache.BoundedCache;
+import com.emerson.desafiovotacao.domain.topic.Topic;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache limitado das pautas consultadas e dos títulos de pautas existentes, com remoção aproximada das entradas
+ * consultadas há mais tempo (LRU) e expiração por tempo (ver {@link BoundedCache}).
+ * 
+ * Uma pauta só muda ao abrir uma sessão de votação (que passa a ser a sua sessão mais recente), quando é removida
+ * do cache, e nunca é excluída nem renomeada; por isso, um título existente permanece existente e é mantido no
+ * cache sem expiração. As pautas do cache são instâncias desanexadas do contexto de persistência, compartilhadas
+ * entre as requisições, e não devem ser alteradas.
+ * 
+ * Para que uma pauta lida do banco antes de ser removida não volte ao cache com o estado anterior, cada leitura
+ * obtém uma marca ({@link #stamp()}) e a pauta só é armazenada se nenhuma remoção ocorreu desde então.
+ * 
+ * Os acertos, falhas e remoções são expostos como contadores do Micrometer, por cache ({@code topic} ou {@code title}).
+ * 
+ * @author Emerson Oliveira
+ */
+@Component
+public class TopicCache {
+	
+	@Autowired
+	private TopicCacheProperties properties;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	private final AtomicLong invalidations = new AtomicLong();
+	
+	private BoundedCache<UUID, Topic> topics;
+	
+	private BoundedCache<String, Boolean> titles;
+	
+	private Counter topicHits;
+	
+	private Counter topicMisses;
+	
+	private Counter titleHits;
+	
+	private Counter titleMisses;
+	
+	@PostConstruct
+	void init() {
+		this.topicHits = this.counter("votacao.topic.cache.hits", "topic", "Consultas de pautas respondidas pelo cache");
+		this.topicMisses = this.counter("votacao.topic.cache.misses", "topic", "Consultas de pautas não encontradas no cache");
+		this.titleHits = this.counter("votacao.topic.cache.hits", "title", "Verificações de título respondidas pelo cache");
+		this.titleMisses = this.counter("votacao.topic.cache.misses", "title", "Verificações de título não encontradas no cache");
+		Counter evictions = Counter.builder("votacao.topic.cache.evictions")
+								   .description("Pautas e títulos removidos do cache por limite de tamanho, expiração ou abertura de sessão")
+								   .register(this.meterRegistry);
+		Gauge.builder("votacao.topic.cache.size", this, TopicCache::size)
+			 .description("Pautas no cache")
+			 .register(this.meterRegistry);
+		
+		this.topics = new BoundedCache<>(this.properties.maxSize(), evictions);
+		this.titles = new BoundedCache<>(this.properties.maxSize(), evictions);
+	}
+	
+	/**
+	 * Obtém uma pauta do cache.
+	 * 
+	 * @param uuid O identificador único da pauta.
+	 * @return A pauta, ou {@code null} caso ela não esteja no cache ou já tenha expirado.
+	 */
+	public Topic get(UUID uuid) {
+		Topic topic = this.topics.get(uuid);
+		(topic != null ? this.topicHits : this.topicMisses).increment();
+		return topic;
+	}
+	
+	/**
+	 * Obtém a marca a ser informada em {@link #put(Topic, long)}, antes de ler a pauta do banco de dados.
+	 * 
+	 * @return A quantidade de remoções de pautas até o momento.
+	 */
+	public long stamp() {
+		return this.invalidations.get();
+	}
+	
+	/**
+	 * Armazena uma pauta lida do banco de dados no cache, caso nenhuma pauta tenha sido removida desde a leitura.
+	 * 
+	 * @param topic A pauta, desanexada do contexto de persistência.
+	 * @param stamp A marca obtida em {@link #stamp()} antes da leitura.
+	 */
+	public void put(Topic topic, long stamp) {
+		if (this.properties.ttl().isZero())
+			return;
+		
+		this.topics.put(topic.getUuid(), topic, this.properties.ttl().toNanos(), () -> stamp == this.invalidations.get());
+	}
+	
+	/**
+	 * Remove uma pauta do cache, após a abertura de uma sessão de votação.
+	 * 
+	 * @param uuid O identificador único da pauta.
+	 */
+	public void evict(UUID uuid) {
+		// a marca muda antes da remoção: uma inclusão concorrente com a marca anterior é recusada ou removida em seguida
+		this.invalidations.incrementAndGet();
+		this.topics.remove(uuid);
+	}
+	
+	/**
+	 * Verifica se um título pertence a uma pauta existente, conforme o cache.
+	 * 
+	 * @param title O título.
+	 * @return Se verdadeiro, já existe uma pauta com o título; se falso, o título não está no cache e deve ser verificado no banco de dados.
+	 */
+	public boolean containsTitle(String title) {
+		boolean found = this.titles.get(title) != null;
+		(found ? this.titleHits : this.titleMisses).increment();
+		return found;
+	}
+	
+	/**
+	 * Registra no cache um título de pauta existente.
+	 * 
+	 * @param title O título.
+	 */
+	public void putTitle(String title) {
+		this.titles.put(title, Boolean.TRUE);
+	}
+	
+	/**
+	 * @return A quantidade de pautas no cache, incluindo as expiradas ainda não removidas.
+	 */
+	public int size() {
+		return this.topics.size();
+	}
+	
+	private Counter counter(String name, String cache, String description) {
+		return Counter.builder(name).tag("cache", cache).description(description).register(this.meterRegistry);
+	}
+
+}
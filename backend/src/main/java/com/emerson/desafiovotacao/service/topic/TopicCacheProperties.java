@@ -0,0 +1,21 @@
+package com.emerson.desafiovotacao.service.topic;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações do cache de pautas.
+ * 
+ * @param maxSize Quantidade máxima de pautas (e, separadamente, de títulos existentes) no cache. Acima disso, as consultadas há mais tempo são removidas. {@code 0} desativa o cache.
+ * @param ttl Tempo pelo qual uma pauta permanece no cache. Limita o atraso com que uma sessão aberta por outra instância
+ * da aplicação (ou lida de uma réplica atrasada) é vista; nesta instância, a pauta é removida do cache ao abrir a sessão.
+ */
+@ConfigurationProperties(prefix = "votacao.topic.cache")
+public record TopicCacheProperties(
+		@DefaultValue("10000") int maxSize,
+		@DefaultValue("1m") Duration ttl
+) {
+
+}
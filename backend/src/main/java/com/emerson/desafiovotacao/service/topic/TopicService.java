@@ -1,23 +1,38 @@
 package com.emerson.desafiovotacao.service.topic;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
 import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.exception.http.BadRequestException;
 import com.emerson.desafiovotacao.exception.http.ConflictException;
 import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByIdException;
 import com.emerson.desafiovotacao.repository.topic.TopicRepository;
+import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.service.topic.dto.TopicCursorDto;
 import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.topic.dto.TopicKeysetPageDto;
+import com.emerson.desafiovotacao.service.topic.dto.TopicRowDto;
+import com.emerson.desafiovotacao.service.topic.dto.TopicSortKey;
 import com.emerson.desafiovotacao.service.topic.dto.TopicWithOpenSessionDto;
+import com.emerson.desafiovotacao.transaction.TransactionCallbacks;
 
 /**
  * Serviço responsável pela gestão de pautas.
@@ -31,18 +46,50 @@ public class TopicService {
 	@Autowired
 	private TopicRepository repository;
 	
+	@Autowired
+	private TopicVotingSessionRepository votingSessionRepository;
+	
+	@Autowired
+	private TopicCache topicCache;
+	
+	/** Pautas criadas e sessões abertas nesta instância, após o commit (ver {@link #getListVersion(Integer, Integer, String, String)}). */
+	private final AtomicLong listChanges = new AtomicLong();
+	
 	/**
-	 * Obtém uma pauta pelo seu ID.
+	 * Obtém uma pauta pelo seu ID, a partir do banco de dados.
 	 * 
 	 * @param uuid O identificador único da pauta a ser obtida.
 	 * @return A pauta encontrada, se existir.
 	 * @throws TopicVotingSessionNotFoundByIdException Caso a pauta não seja encontrada.
+	 * @see #getCached(UUID)
 	 */
 	public Topic get(UUID uuid) {
 		return this.repository.findById(uuid)
 								.orElseThrow(() -> new TopicVotingSessionNotFoundByIdException());
 	}
 	
+	/**
+	 * Obtém uma pauta pelo seu ID para consulta, a partir do cache de pautas ({@link TopicCache}) e, caso não esteja nele,
+	 * do banco de dados.
+	 * 
+	 * A pauta retornada pode ser compartilhada com outras requisições e não deve ser alterada; para alterá-la,
+	 * utilize {@link #get(UUID)}.
+	 * 
+	 * @param uuid O identificador único da pauta a ser obtida.
+	 * @return A pauta encontrada, se existir.
+	 * @throws TopicVotingSessionNotFoundByIdException Caso a pauta não seja encontrada.
+	 */
+	public Topic getCached(UUID uuid) {
+		Topic cached = this.topicCache.get(uuid);
+		if (cached != null)
+			return cached;
+		
+		long stamp = this.topicCache.stamp();
+		Topic topic = this.get(uuid);
+		TransactionCallbacks.afterCommit(() -> this.topicCache.put(topic, stamp));
+		return topic;
+	}
+	
 	/**
 	 * Retorna uma lista paginada de pautas, cada uma contendo a sessão de votação mais recente,
 	 * caso exista. A lista pode ser ordenada dinamicamente com base nos parâmetros fornecidos.
@@ -56,30 +103,148 @@ public class TopicService {
 	 * @param orderBy Nome do campo da pauta pelo qual a ordenação será realizada (ex: "createdAt", "title").
 	 * @return Página contendo as pautas com suas respectivas sessões de votação mais recentes (se existirem).
 	 */
+	@Transactional(readOnly = true)
 	public Page<TopicWithOpenSessionDto> list(Integer page, Integer size, String order, String orderBy) {
 		Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Direction.fromString(order), orderBy));
 		return this.repository.findAllTopicsWithOpenVotingSession(pageable);
 	}
 	
+	/**
+	 * Calcula a versão (ETag) de uma página de {@link #list(Integer, Integer, String, String)} sem obter a página.
+	 * 
+	 * Pautas e sessões de votação nunca são alteradas nem excluídas, e toda nova sessão passa a ser a sessão
+	 * mais recente da sua pauta. Assim, a lista só muda quando uma pauta é criada ou uma sessão é aberta, o que é
+	 * detectado pela criação da pauta mais recente e pelo início da sessão mais recente, cada um lido diretamente do
+	 * fim do respectivo índice, sem percorrer as tabelas.
+	 * 
+	 * Como uma pauta (ou sessão) pode ser confirmada depois de outra criada posteriormente, sem alterar os valores
+	 * máximos, a versão inclui também a quantidade de alterações confirmadas nesta instância ({@link #listChanged()}).
+	 * 
+	 * @param page Número da página (começando em 1).
+	 * @param size Quantidade de elementos por página.
+	 * @param order Direção da ordenação.
+	 * @param orderBy Nome do campo da pauta pelo qual a ordenação é realizada.
+	 * @return A ETag (fraca) da página, que muda sempre que o conteúdo da página puder mudar.
+	 */
+	@Transactional(readOnly = true)
+	public String getListVersion(Integer page, Integer size, String order, String orderBy) {
+		long changes = this.listChanges.get();
+		Instant lastCreatedAt = this.repository.findLastCreatedAt();
+		Instant lastStartTime = this.votingSessionRepository.findLastStartTime();
+		String version = String.join(":", 
+				String.valueOf(page), String.valueOf(size), order, orderBy,
+				String.valueOf(changes), String.valueOf(lastCreatedAt), String.valueOf(lastStartTime));
+		return "W/\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+	
+	/**
+	 * Retorna uma página de pautas paginada por cursor (keyset), cada uma contendo a sessão de votação mais recente,
+	 * caso exista.
+	 * 
+	 * Diferente de {@link #list(Integer, Integer, String, String)}, a ordenação é restrita aos campos indexados
+	 * (ver {@link TopicSortKey}), desempatada pelo UUID, e cada página é obtida diretamente a partir da última pauta
+	 * da página anterior, sem contar o total de pautas. A descrição (TEXT) só é lida quando solicitada.
+	 * 
+	 * @param orderBy Nome do campo da pauta pelo qual a ordenação será realizada ("createdAt" ou "title").
+	 * @param order Direção da ordenação: "ASC" para ascendente ou "DESC" para descendente.
+	 * @param after O cursor da última pauta da página anterior, ou {@code null} para a primeira página.
+	 * @param size A quantidade máxima de pautas da página.
+	 * @param includeDescription Se verdadeiro, inclui a descrição de cada pauta.
+	 * @return A página de pautas e o cursor para a próxima página, caso exista.
+	 * @throws BadRequestException Caso a ordenação não seja permitida ou o cursor esteja incompleto.
+	 */
+	@Transactional(readOnly = true)
+	public TopicKeysetPageDto listByCursor(String orderBy, String order, TopicCursorDto after, int size, boolean includeDescription) {
+		TopicSortKey sortKey = TopicSortKey.fromField(orderBy)
+				.orElseThrow(() -> new BadRequestException("Ordenação não permitida. Informe \"createdAt\" ou \"title\"."));
+		Direction direction = Direction.fromOptionalString(order)
+				.orElseThrow(() -> new BadRequestException("Direção de ordenação inválida. Informe \"asc\" ou \"desc\"."));
+		
+		// busca um registro a mais para saber se existe próxima página
+		Limit limit = Limit.of(size + 1);
+		List<TopicRowDto> rows;
+		if (after == null) {
+			rows = this.repository.findRows(Sort.by(direction, sortKey.getField(), "uuid"), limit);
+		} else if (TopicSortKey.CREATED_AT.equals(sortKey)) {
+			if (after.createdAt() == null || after.uuid() == null)
+				throw new BadRequestException("Informe a data de criação e o ID da última pauta para obter a próxima página.");
+			rows = direction.isAscending()
+					? this.repository.findRowsByCreatedAtAfter(after.createdAt(), after.uuid(), limit)
+					: this.repository.findRowsByCreatedAtBefore(after.createdAt(), after.uuid(), limit);
+		} else {
+			if (after.title() == null || after.uuid() == null)
+				throw new BadRequestException("Informe o título e o ID da última pauta para obter a próxima página.");
+			rows = direction.isAscending()
+					? this.repository.findRowsByTitleAfter(after.title(), after.uuid(), limit)
+					: this.repository.findRowsByTitleBefore(after.title(), after.uuid(), limit);
+		}
+		
+		boolean hasNext = rows.size() > size;
+		if (hasNext)
+			rows = rows.subList(0, size);
+		
+		Map<UUID, String> descriptions = includeDescription && !rows.isEmpty()
+				? this.repository.findAllById(rows.stream().map(TopicRowDto::uuid).toList())
+								 .stream()
+								 .collect(Collectors.toMap(Topic::getUuid, Topic::getDescription))
+				: Map.of();
+		
+		List<TopicWithOpenSessionDto> topics = rows.stream()
+				.map(t -> new TopicWithOpenSessionDto(
+						t.uuid(),
+						t.title(),
+						descriptions.get(t.uuid()),
+						t.createdAt(),
+						t.sessionUuid(),
+						t.sessionStartTime(),
+						t.sessionEndTime()
+				))
+				.toList();
+		
+		TopicRowDto last = hasNext ? rows.get(rows.size() - 1) : null;
+		return new TopicKeysetPageDto(
+			topics,
+			last != null ? new TopicCursorDto(last.createdAt(), last.title(), last.uuid()) : null
+		);
+	}
+	
 	/**
 	 * Cria uma nova pauta.
 	 * 
 	 * Verifica se já existe uma pauta com o título informado e, se existir, lança uma exceção de conflito.
 	 * Caso contrário, cria uma nova pauta e persiste no banco de dados.
+	 * Os títulos existentes são mantidos no cache de pautas, dispensando a consulta ao banco nas tentativas repetidas.
 	 * 
 	 * @param topicDto O objeto DTO contendo os dados da nova pauta a ser criada.
 	 * @return A pauta criada e persistida no banco de dados.
 	 * @throws ConflictException Caso já exista uma pauta com o título informado.
 	 */
 	public Topic create(TopicDto topicDto) {
-		if (this.repository.existsByTitle(topicDto.title()))
+		if (this.topicCache.containsTitle(topicDto.title()))
 			throw new ConflictException("Já existe uma pauta com o título informado.");
+		if (this.repository.existsByTitle(topicDto.title())) {
+			TransactionCallbacks.afterCommit(() -> this.topicCache.putTitle(topicDto.title()));
+			throw new ConflictException("Já existe uma pauta com o título informado.");
+		}
 		
 		Topic topic = new Topic();
 		topic.setCreatedAt(Instant.now());
 		BeanUtils.copyProperties(topicDto, topic);
 		
-		return this.repository.save(topic);
+		topic = this.repository.save(topic);
+		String title = topic.getTitle();
+		TransactionCallbacks.afterCommit(() -> {
+			this.topicCache.putTitle(title);
+			this.listChanged();
+		});
+		return topic;
+	}
+	
+	/**
+	 * Registra uma alteração na lista de pautas (pauta criada ou sessão aberta), após o commit da transação que a realizou.
+	 */
+	void listChanged() {
+		this.listChanges.incrementAndGet();
 	}
 
 }
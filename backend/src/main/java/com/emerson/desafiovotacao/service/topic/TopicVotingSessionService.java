@@ -2,19 +2,27 @@ package com.emerson.desafiovotacao.service.topic;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.emerson.desafiovotacao.domain.topic.Topic;
 import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
 import com.emerson.desafiovotacao.exception.http.ConflictException;
 import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.service.vote.registry.VoterRegistry;
+import com.emerson.desafiovotacao.service.vote.snapshot.VoteResultSnapshotService;
+import com.emerson.desafiovotacao.service.vote.stream.TopicResultsChangedEvent;
+import com.emerson.desafiovotacao.transaction.TransactionCallbacks;
 
 /**
  * Serviço responsável pela gestão das sessões de votação das pautas.
- * Contém métodos para iniciar uma nova sessão de votação para uma pauta específica.
+ * Contém métodos para iniciar uma nova sessão de votação para uma pauta específica
+ * e para obter as sessões de votação abertas, mantidas no {@link OpenVotingSessionCache}.
  * 
  * @author Emerson Oliveira
  */
@@ -26,18 +34,37 @@ public class TopicVotingSessionService {
 	
 	@Autowired
 	private TopicService topicService;
+	
+	@Autowired
+	private VoterRegistry voterRegistry;
+	
+	@Autowired
+	private VoteResultSnapshotService voteResultSnapshotService;
+	
+	@Autowired
+	private OpenVotingSessionCache openVotingSessionCache;
+	
+	@Autowired
+	private TopicCache topicCache;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
 
 	/**
 	 * Inicia uma nova sessão de votação para a pauta especificada.
 	 * 
 	 * Verifica se já existe uma sessão de votação em andamento para a pauta informada.
-	 * Se não houver, cria e persiste uma nova sessão de votação com o tempo de duração especificado.
+	 * Se não houver, cria e persiste uma nova sessão de votação com o tempo de duração especificado,
+	 * a registra como a sessão mais recente da pauta e a carrega no cache de sessões abertas e no registro de votantes.
+	 * A pauta, alterada, é removida do cache de pautas.
+	 * A gravação do resultado da sessão é agendada para logo após o seu término.
 	 * 
 	 * @param topicUuid O identificador único da pauta para a qual a sessão de votação será iniciada.
 	 * @param durationInMinutes A duração da sessão de votação em minutos.
 	 * @return A sessão de votação criada e persistida no banco de dados.
 	 * @throws ConflictException Caso já exista uma sessão de votação em andamento para a pauta informada.
 	 */
+	@Transactional
 	public TopicVotingSession startVotingSession(UUID topicUuid, int durationInMinutes) {
 		Instant now = Instant.now();
 		if (this.repository.existsByTopicUuidAndEndTimeGreaterThan(topicUuid, now))
@@ -53,7 +80,63 @@ public class TopicVotingSessionService {
 																.topic(topic)
 																.build();
 		
-		return this.repository.save(topicVotingSession);
+		TopicVotingSession saved = this.repository.save(topicVotingSession);
+		topic.setLatestVotingSession(saved);
+		topic.setLatestVotingSessionEndTime(endTime);
+		
+		TransactionCallbacks.afterCommit(() -> {
+			this.openVotingSessionCache.put(saved);
+			this.topicCache.evict(topicUuid);
+			this.topicService.listChanged();
+		});
+		this.voterRegistry.open(saved);
+		this.voteResultSnapshotService.schedule(saved);
+		this.eventPublisher.publishEvent(new TopicResultsChangedEvent(topicUuid));
+		
+		return saved;
+	}
+	
+	/**
+	 * Obtém a sessão de votação aberta mais recente de uma pauta.
+	 * 
+	 * A sessão é obtida do cache de sessões abertas e, caso não esteja nele, do banco de dados; a sessão lida do banco
+	 * só é armazenada no cache após o commit da transação em andamento (ver {@link TransactionCallbacks#afterCommit(Runnable)}).
+	 * 
+	 * @param topicUuid O identificador único da pauta.
+	 * @param now O momento do voto; sessões encerradas até este momento não são retornadas.
+	 * @return A sessão aberta da pauta, ou vazio caso a pauta não possua sessão aberta.
+	 */
+	public Optional<TopicVotingSession> getOpenByTopicUuid(UUID topicUuid, Instant now) {
+		Optional<TopicVotingSession> cached = this.openVotingSessionCache.getByTopicUuid(topicUuid, now);
+		if (cached.isPresent())
+			return cached;
+		
+		// o banco de dados arredonda o endTime para microssegundos: a expiração é conferida também no Java
+		Optional<TopicVotingSession> topicVotingSession = this.repository.findTopByTopicUuidAndEndTimeGreaterThanOrderByStartTimeDesc(topicUuid, now)
+				.filter(s -> s.getEndTime().isAfter(now));
+		topicVotingSession.ifPresent(s -> TransactionCallbacks.afterCommit(() -> this.openVotingSessionCache.put(s)));
+		return topicVotingSession;
+	}
+	
+	/**
+	 * Obtém uma sessão de votação aberta.
+	 * 
+	 * A sessão é obtida do cache de sessões abertas e, caso não esteja nele, do banco de dados; a sessão lida do banco
+	 * só é armazenada no cache após o commit da transação em andamento (ver {@link TransactionCallbacks#afterCommit(Runnable)}).
+	 * 
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação.
+	 * @param now O momento do voto; sessões encerradas até este momento não são retornadas.
+	 * @return A sessão de votação, ou vazio caso ela não exista ou já tenha sido encerrada.
+	 */
+	public Optional<TopicVotingSession> getOpenByUuid(UUID topicVotingSessionUuid, Instant now) {
+		Optional<TopicVotingSession> cached = this.openVotingSessionCache.getByUuid(topicVotingSessionUuid, now);
+		if (cached.isPresent())
+			return cached;
+		
+		Optional<TopicVotingSession> topicVotingSession = this.repository.findByUuidAndEndTimeGreaterThan(topicVotingSessionUuid, now)
+				.filter(s -> s.getEndTime().isAfter(now));
+		topicVotingSession.ifPresent(s -> TransactionCallbacks.afterCommit(() -> this.openVotingSessionCache.put(s)));
+		return topicVotingSession;
 	}
 	
 }
@@ -0,0 +1,12 @@
+package com.emerson.desafiovotacao.service.topic.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record TopicCursorDto(
+		Instant createdAt,
+		String title,
+		UUID uuid
+) {
+
+}
@@ -0,0 +1,10 @@
+package com.emerson.desafiovotacao.service.topic.dto;
+
+import java.util.List;
+
+public record TopicKeysetPageDto(
+		List<TopicWithOpenSessionDto> topics,
+		TopicCursorDto next
+) {
+
+}
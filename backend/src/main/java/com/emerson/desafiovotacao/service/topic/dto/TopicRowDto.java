@@ -0,0 +1,15 @@
+package com.emerson.desafiovotacao.service.topic.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record TopicRowDto(
+		UUID uuid,
+		String title,
+		Instant createdAt,
+		UUID sessionUuid,
+		Instant sessionStartTime,
+		Instant sessionEndTime
+) {
+
+}
@@ -0,0 +1,28 @@
+package com.emerson.desafiovotacao.service.topic.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Campos pelos quais a listagem de pautas paginada por cursor pode ser ordenada.
+ * Apenas campos indexados (junto do UUID, que desempata a ordenação) são permitidos.
+ */
+@Getter
+@AllArgsConstructor
+public enum TopicSortKey {
+	
+	CREATED_AT("createdAt"), 
+	TITLE("title");
+	
+	private final String field;
+	
+	public static Optional<TopicSortKey> fromField(String field) {
+		return Arrays.stream(values())
+					 .filter(k -> k.getField().equals(field))
+					 .findFirst();
+	}
+
+}
@@ -3,10 +3,12 @@ package com.emerson.desafiovotacao.service.topic.dto;
 import java.time.Instant;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public record TopicWithOpenSessionDto(
 		UUID id,
 		String title,
-		String description,
+		@JsonInclude(JsonInclude.Include.NON_NULL) String description,
 		Instant createdAt,
 		UUID sessionId,
 		Instant sessionStartTime,
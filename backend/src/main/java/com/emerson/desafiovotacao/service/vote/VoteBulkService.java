@@ -0,0 +1,268 @@
+package com.emerson.desafiovotacao.service.vote;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.Vote;
+import com.emerson.desafiovotacao.exception.http.ConflictException;
+import com.emerson.desafiovotacao.exception.http.DuplicatedVoteException;
+import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByIdException;
+import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByTopicException;
+import com.emerson.desafiovotacao.external.Cpf;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.repository.vote.VoteBatchRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.vote.VoteMetrics.Outcome;
+import com.emerson.desafiovotacao.service.vote.dto.BulkVoteItemDto;
+import com.emerson.desafiovotacao.service.vote.dto.BulkVoteItemResultDto;
+import com.emerson.desafiovotacao.service.vote.dto.BulkVoteItemStatus;
+import com.emerson.desafiovotacao.service.vote.dto.BulkVoteResultDto;
+import com.emerson.desafiovotacao.service.vote.ingestion.VoteIngestionService;
+import com.emerson.desafiovotacao.service.vote.registry.VoterRegistry;
+import com.emerson.desafiovotacao.transaction.TransactionCallbacks;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pelo registro de votos em lote, enviados de uma só vez por agregadores (ex.: delegados e totens de votação).
+ * 
+ * A sessão de votação é obtida uma única vez para todo o lote, os votos duplicados são verificados com uma única consulta,
+ * a elegibilidade é validada em uma única chamada e os votos são inseridos em um único batch JDBC, 
+ * com uma única atualização da contagem consolidada da sessão.
+ *
+ * @author Emerson Oliveira
+ */
+@Service
+@Slf4j
+public class VoteBulkService {
+	
+	private static final int MAX_INSERT_ATTEMPTS = 3;
+	
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+	
+	@Autowired
+	private VoteRepository repository;
+	
+	@Autowired
+	private VoteBatchRepository voteBatchRepository;
+	
+	@Autowired
+	private VoteTallyService voteTallyService;
+	
+	@Autowired
+	private VoterRegistry voterRegistry;
+	
+	@Autowired
+	private CpfValidationClient cpfValidationClient;
+	
+	@Autowired
+	private VoteIngestionService voteIngestionService;
+	
+	@Autowired
+	private VoteMetrics metrics;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private TransactionTemplate transaction;
+	
+	@PostConstruct
+	void init() {
+		this.transaction = new TransactionTemplate(this.transactionManager);
+	}
+	
+	/**
+	 * Registra um lote de votos para a sessão de votação aberta da pauta identificada pelo UUID.
+	 * 
+	 * @param topicUuid O identificador único da pauta.
+	 * @param votes Os votos (CPF e valor) a serem registrados.
+	 * @return A situação de cada voto do lote, na mesma ordem em que foram informados.
+	 * @throws TopicVotingSessionNotFoundByTopicException Caso não exista uma sessão de votação em andamento para a pauta.
+	 * @see #vote(TopicVotingSession, List)
+	 */
+	public BulkVoteResultDto voteByTopicUuid(UUID topicUuid, List<BulkVoteItemDto> votes) {
+		TopicVotingSession topicVotingSession = this.votingSessionService.getOpenByTopicUuid(topicUuid, Instant.now())
+																		 .orElseThrow(() -> this.reject(votes, new TopicVotingSessionNotFoundByTopicException()));
+		
+		return this.vote(topicVotingSession, votes);
+	}
+	
+	/**
+	 * Registra um lote de votos para a sessão de votação identificada pelo UUID.
+	 * 
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação.
+	 * @param votes Os votos (CPF e valor) a serem registrados.
+	 * @return A situação de cada voto do lote, na mesma ordem em que foram informados.
+	 * @throws TopicVotingSessionNotFoundByIdException Caso não exista uma sessão de votação em andamento para o UUID informado.
+	 * @see #vote(TopicVotingSession, List)
+	 */
+	public BulkVoteResultDto voteByVotingSessionUuid(UUID topicVotingSessionUuid, List<BulkVoteItemDto> votes) {
+		TopicVotingSession topicVotingSession = this.votingSessionService.getOpenByUuid(topicVotingSessionUuid, Instant.now())
+																		 .orElseThrow(() -> this.reject(votes, new TopicVotingSessionNotFoundByIdException()));
+		
+		return this.vote(topicVotingSession, votes);
+	}
+	
+	/**
+	 * Registra um lote de votos em uma sessão de votação.
+	 * 
+	 * Cada voto é recusado individualmente, sem impedir o registro dos demais, caso o CPF seja inválido, 
+	 * o associado já tenha votado na pauta (inclusive repetido no próprio lote) ou o CPF não esteja apto para votar.
+	 * O lote é registrado como em andamento na sessão até ser gravado (ver {@link VoteIngestionService#hasPendingVotes(UUID)}).
+	 * O desfecho de cada voto é contabilizado em {@link VoteMetrics}, assim como nos votos individuais.
+	 * 
+	 * @param topicVotingSession A sessão de votação na qual os votos serão registrados.
+	 * @param votes Os votos (CPF e valor) a serem registrados.
+	 * @return A situação de cada voto do lote, na mesma ordem em que foram informados.
+	 */
+	private BulkVoteResultDto vote(TopicVotingSession topicVotingSession, List<BulkVoteItemDto> votes) {
+		this.voteIngestionService.begin(topicVotingSession.getUuid());
+		try {
+			return this.voteInSession(topicVotingSession, votes);
+		} finally {
+			this.voteIngestionService.end(topicVotingSession.getUuid());
+		}
+	}
+	
+	private BulkVoteResultDto voteInSession(TopicVotingSession topicVotingSession, List<BulkVoteItemDto> votes) {
+		UUID topicUuid = topicVotingSession.getTopic().getUuid();
+		String[] cpfs = new String[votes.size()];
+		BulkVoteItemResultDto[] results = new BulkVoteItemResultDto[votes.size()];
+		
+		// CPFs inválidos, repetidos no próprio lote ou que já votaram segundo o registro de votantes
+		Set<String> candidates = new LinkedHashSet<>();
+		for (int i = 0; i < votes.size(); i++) {
+			cpfs[i] = Cpf.normalize(votes.get(i).cpf());
+			if (!Cpf.isValid(cpfs[i]))
+				results[i] = new BulkVoteItemResultDto(i, cpfs[i], BulkVoteItemStatus.INVALID_CPF, "Informe um CPF válido.");
+			else if (candidates.contains(cpfs[i]) || this.voterRegistry.hasVoted(topicVotingSession, cpfs[i]))
+				results[i] = new BulkVoteItemResultDto(i, cpfs[i], BulkVoteItemStatus.DUPLICATED, DuplicatedVoteException.MESSAGE);
+			else
+				candidates.add(cpfs[i]);
+		}
+		
+		// associados que já votaram na pauta: uma única consulta para todo o lote
+		Set<String> voted = candidates.isEmpty() ? Set.of() : new HashSet<>(this.repository.findCpfsByTopicUuidAndCpfIn(topicUuid, candidates));
+		candidates.removeAll(voted);
+		
+		// elegibilidade: uma única chamada para todo o lote
+		Map<String, VoteEligibilityStatus> eligibility = candidates.isEmpty() ? Map.of() : this.cpfValidationClient.validateCpfs(candidates);
+		
+		Instant now = Instant.now();
+		List<Vote> accepted = new ArrayList<>();
+		for (int i = 0; i < votes.size(); i++) {
+			if (results[i] != null)
+				continue;
+			
+			if (voted.contains(cpfs[i]))
+				results[i] = new BulkVoteItemResultDto(i, cpfs[i], BulkVoteItemStatus.DUPLICATED, DuplicatedVoteException.MESSAGE);
+			else if (!VoteEligibilityStatus.ABLE_TO_VOTE.equals(eligibility.get(cpfs[i])))
+				results[i] = new BulkVoteItemResultDto(i, cpfs[i], BulkVoteItemStatus.UNABLE_TO_VOTE, "O CPF informado não está apto para votar.");
+			else {
+				results[i] = new BulkVoteItemResultDto(i, cpfs[i], BulkVoteItemStatus.ACCEPTED, null);
+				accepted.add(new Vote(topicVotingSession, cpfs[i], votes.get(i).vote(), now));
+			}
+		}
+		
+		for (String cpf : this.insert(topicVotingSession, accepted)) {
+			for (int i = 0; i < votes.size(); i++) {
+				if (cpf.equals(cpfs[i]) && BulkVoteItemStatus.ACCEPTED.equals(results[i].status()))
+					results[i] = new BulkVoteItemResultDto(i, cpfs[i], BulkVoteItemStatus.DUPLICATED, DuplicatedVoteException.MESSAGE);
+			}
+		}
+		
+		int acceptedCount = 0;
+		for (BulkVoteItemResultDto result : results) {
+			if (BulkVoteItemStatus.ACCEPTED.equals(result.status()))
+				acceptedCount++;
+			else
+				this.metrics.count(toOutcome(result.status()));
+		}
+		// os votos aceitos já foram gravados, a menos que o lote participe de uma transação ainda em andamento
+		int committed = acceptedCount;
+		TransactionCallbacks.afterCommit(() -> this.metrics.count(Outcome.ACCEPTED, committed));
+		log.info(String.format("Lote de %s votos registrado: %s aceitos.", votes.size(), acceptedCount));
+		
+		return new BulkVoteResultDto(acceptedCount, votes.size() - acceptedCount, List.of(results));
+	}
+	
+	/**
+	 * Contabiliza todos os votos do lote como recusados por não haver sessão de votação aberta.
+	 * 
+	 * @param votes Os votos do lote.
+	 * @param e A exceção da recusa.
+	 * @return A própria exceção, para ser lançada.
+	 */
+	private <E extends RuntimeException> E reject(List<BulkVoteItemDto> votes, E e) {
+		this.metrics.count(Outcome.SESSION_CLOSED, votes.size());
+		return e;
+	}
+	
+	private static Outcome toOutcome(BulkVoteItemStatus status) {
+		return switch (status) {
+			case ACCEPTED -> Outcome.ACCEPTED;
+			case DUPLICATED -> Outcome.DUPLICATE;
+			case INVALID_CPF -> Outcome.INVALID_CPF;
+			case UNABLE_TO_VOTE -> Outcome.INELIGIBLE;
+		};
+	}
+	
+	/**
+	 * Insere os votos em um único batch JDBC e atualiza a contagem da sessão, na mesma transação.
+	 * 
+	 * Caso algum associado tenha votado concorrentemente após a verificação de duplicados, o lote falha 
+	 * pela restrição única (pauta, CPF); os duplicados são então consultados novamente e o lote é reenviado sem eles.
+	 * 
+	 * @return Os CPFs dos votos que não foram inseridos por já existirem.
+	 */
+	private Set<String> insert(TopicVotingSession topicVotingSession, List<Vote> votes) {
+		Set<String> duplicated = new HashSet<>();
+		for (int attempt = 1; !votes.isEmpty(); attempt++) {
+			try {
+				List<Vote> batch = votes;
+				this.transaction.executeWithoutResult(status -> {
+					this.voteBatchRepository.insertAll(batch);
+					
+					long favorableVotes = batch.stream().filter(Vote::getVote).count();
+					this.voteTallyService.increment(topicVotingSession, favorableVotes, batch.size() - favorableVotes, batch.get(0).getVotedAt());
+				});
+				votes.forEach(v -> this.voterRegistry.register(topicVotingSession, v.getCpf()));
+				return duplicated;
+			} catch (DataIntegrityViolationException e) {
+				if (!VoteService.isDuplicatedKey(e))
+					throw e;
+				if (attempt >= MAX_INSERT_ATTEMPTS)
+					throw new ConflictException("Não foi possível registrar o lote de votos por votos concorrentes dos mesmos associados. Tente novamente.");
+				
+				Set<String> concurrent = new HashSet<>(this.repository.findCpfsByTopicUuidAndCpfIn(
+						topicVotingSession.getTopic().getUuid(), 
+						votes.stream().map(Vote::getCpf).toList()
+				));
+				duplicated.addAll(concurrent);
+				votes = votes.stream().filter(v -> !concurrent.contains(v.getCpf())).toList();
+				
+				// os UUIDs atribuídos na tentativa anterior não foram gravados
+				votes.forEach(v -> v.setUuid(null));
+			}
+		}
+		return duplicated;
+	}
+
+}
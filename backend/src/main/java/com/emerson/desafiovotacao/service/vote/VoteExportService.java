@@ -0,0 +1,218 @@
+package com.emerson.desafiovotacao.service.vote;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emerson.desafiovotacao.external.Cpf;
+import com.emerson.desafiovotacao.service.vote.dto.VoteCursorDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pela exportação dos votos de uma pauta.
+ * 
+ * Os votos são lidos por um cursor JDBC somente-leitura e de avanço único, em uma transação somente leitura
+ * (atendida pela réplica de leitura, quando configurada), e escritos diretamente na saída conforme são lidos,
+ * sem passar pelo contexto de persistência nem acumular listas em memória.
+ * Assim, o consumo de memória é constante independente da quantidade de votos da pauta.
+ * 
+ * @author Emerson Oliveira
+ */
+@Service
+@Slf4j
+public class VoteExportService {
+	
+	private static final int FETCH_SIZE = 1_000;
+	
+	private static final String CSV_HEADER = "uuid,topicVotingSessionUuid,cpf,vote,votedAt\n";
+	
+	private static final String SELECT_VOTES = """
+		SELECT v.uuid, v.topic_voting_session_uuid, v.cpf, v.vote, v.voted_at
+		FROM vote v
+		WHERE v.topic_uuid = ?
+	""";
+	
+	private static final String AFTER_CURSOR = """
+		AND (v.voted_at > ? OR (v.voted_at = ? AND v.uuid > ?))
+	""";
+	
+	private static final String ORDER_BY = """
+		ORDER BY v.voted_at, v.uuid
+	""";
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	private TransactionTemplate readOnlyTransaction;
+	
+	@Autowired
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+	}
+	
+	/**
+	 * Exporta os votos de uma pauta no formato informado, ordenados por data do voto e UUID.
+	 * 
+	 * @param topicUuid O identificador único da pauta cujos votos serão exportados.
+	 * @param format O formato da exportação (NDJSON ou CSV).
+	 * @param after O cursor do último voto já exportado, para retomar uma exportação interrompida, ou {@code null} para exportar desde o início.
+	 * @param out A saída na qual os votos serão escritos. Não é fechada por este método.
+	 * @return A quantidade de votos exportados.
+	 */
+	public long export(UUID topicUuid, VoteExportFormat format, VoteCursorDto after, OutputStream out) {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		VoteRowWriter rowWriter = VoteExportFormat.CSV.equals(format) 
+				? new CsvVoteRowWriter(writer) 
+				: new NdjsonVoteRowWriter(this.objectMapper.getFactory(), writer);
+		
+		long[] exported = { 0 };
+		this.readOnlyTransaction.executeWithoutResult(status -> {
+			this.jdbcTemplate.query(
+				connection -> {
+					String sql = SELECT_VOTES + (after != null ? AFTER_CURSOR : "") + ORDER_BY;
+					PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+					ps.setFetchSize(FETCH_SIZE);
+					ps.setObject(1, topicUuid);
+					if (after != null) {
+						OffsetDateTime votedAt = OffsetDateTime.ofInstant(after.votedAt(), ZoneOffset.UTC);
+						ps.setObject(2, votedAt);
+						ps.setObject(3, votedAt);
+						ps.setObject(4, after.uuid());
+					}
+					return ps;
+				},
+				rs -> {
+					rowWriter.write(rs);
+					exported[0]++;
+				}
+			);
+		});
+		rowWriter.finish();
+		
+		log.info(String.format("%s votos da pauta %s exportados em %s.", exported[0], topicUuid, format));
+		return exported[0];
+	}
+	
+	private interface VoteRowWriter {
+		
+		void write(ResultSet rs) throws SQLException;
+		
+		void finish();
+		
+	}
+	
+	private static class NdjsonVoteRowWriter implements VoteRowWriter {
+		
+		private final Writer writer;
+		
+		private final JsonGenerator generator;
+		
+		NdjsonVoteRowWriter(JsonFactory factory, Writer writer) {
+			this.writer = writer;
+			try {
+				this.generator = factory.createGenerator(writer)
+										.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+										.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+				this.generator.setRootValueSeparator(null);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		@Override
+		public void write(ResultSet rs) throws SQLException {
+			try {
+				this.generator.writeStartObject();
+				this.generator.writeStringField("uuid", rs.getObject(1, UUID.class).toString());
+				this.generator.writeStringField("topicVotingSessionUuid", rs.getObject(2, UUID.class).toString());
+				this.generator.writeStringField("cpf", Cpf.format(rs.getLong(3)));
+				this.generator.writeBooleanField("vote", rs.getBoolean(4));
+				this.generator.writeStringField("votedAt", rs.getObject(5, OffsetDateTime.class).toInstant().toString());
+				this.generator.writeEndObject();
+				this.generator.writeRaw('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		@Override
+		public void finish() {
+			try {
+				this.generator.close();
+				this.writer.flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+	}
+	
+	private static class CsvVoteRowWriter implements VoteRowWriter {
+		
+		private final Writer writer;
+		
+		CsvVoteRowWriter(Writer writer) {
+			this.writer = writer;
+			try {
+				this.writer.write(CSV_HEADER);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		@Override
+		public void write(ResultSet rs) throws SQLException {
+			try {
+				// nenhum dos campos exportados contém vírgulas, aspas ou quebras de linha
+				this.writer.write(rs.getObject(1, UUID.class).toString());
+				this.writer.write(',');
+				this.writer.write(rs.getObject(2, UUID.class).toString());
+				this.writer.write(',');
+				this.writer.write(Cpf.format(rs.getLong(3)));
+				this.writer.write(',');
+				this.writer.write(rs.getBoolean(4) ? "true" : "false");
+				this.writer.write(',');
+				this.writer.write(rs.getObject(5, OffsetDateTime.class).toInstant().toString());
+				this.writer.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		@Override
+		public void finish() {
+			try {
+				this.writer.flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+	}
+
+}
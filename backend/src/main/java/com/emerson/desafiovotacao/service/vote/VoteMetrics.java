@@ -0,0 +1,158 @@
+package com.emerson.desafiovotacao.service.vote;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.emerson.desafiovotacao.transaction.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Métricas do registro de votos: o tempo de cada etapa e o desfecho de cada voto.
+ *
+ * As etiquetas possuem apenas valores fixos (etapa e desfecho), nunca o CPF ou o identificador da pauta ou da sessão,
+ * para que a quantidade de séries não cresça com os dados. A quantidade de execuções de cada etapa é a contagem do
+ * próprio timer.
+ *
+ * Um voto só é contabilizado como aceito após o commit da sua transação (ou, na recepção assíncrona, após a sua
+ * gravação pelo gravador em lotes).
+ *
+ * @author Emerson Oliveira
+ */
+@Component
+public class VoteMetrics {
+
+	/**
+	 * Etapas do registro de um voto.
+	 */
+	public enum Stage {
+
+		/** Busca da sessão de votação aberta (cache ou banco de dados). */
+		SESSION_LOOKUP,
+
+		/** Verificação de voto duplicado, pelo registro de votantes ou pelo banco de dados. */
+		DUPLICATE_CHECK,
+
+		/** Validação do CPF e consulta de elegibilidade. */
+		ELIGIBILITY,
+
+		/** Gravação do voto. */
+		INSERT,
+
+		/** Atualização da contagem consolidada da sessão. */
+		TALLY,
+
+		/** Commit da transação do voto. */
+		COMMIT;
+
+		String tag() {
+			return this.name().toLowerCase();
+		}
+
+	}
+
+	/**
+	 * Desfechos de um voto.
+	 */
+	public enum Outcome {
+
+		ACCEPTED,
+
+		DUPLICATE,
+
+		INELIGIBLE,
+
+		SESSION_CLOSED,
+
+		INVALID_CPF;
+
+		String tag() {
+			return this.name().toLowerCase();
+		}
+
+	}
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+	private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+
+	@PostConstruct
+	void init() {
+		for (Stage stage : Stage.values())
+			this.timers.put(stage, Timer.builder("votacao.vote.stage.duration")
+										.description("Tempo de cada etapa do registro de votos")
+										.tag("stage", stage.tag())
+										.register(this.meterRegistry));
+		for (Outcome outcome : Outcome.values())
+			this.outcomes.put(outcome, Counter.builder("votacao.vote.outcome")
+											  .description("Votos recebidos, por desfecho")
+											  .tag("outcome", outcome.tag())
+											  .register(this.meterRegistry));
+	}
+
+	/**
+	 * Executa e mede uma etapa do registro de votos, inclusive quando ela lança uma exceção.
+	 *
+	 * @param stage A etapa.
+	 * @param action A execução da etapa.
+	 * @return O retorno da etapa.
+	 */
+	public <T> T record(Stage stage, Supplier<T> action) {
+		return this.timers.get(stage).record(action);
+	}
+
+	/**
+	 * @see #record(Stage, Supplier)
+	 */
+	public void record(Stage stage, Runnable action) {
+		this.timers.get(stage).record(action);
+	}
+
+	/**
+	 * Mede o commit da transação atual e, somente caso ele ocorra, contabiliza o desfecho do voto.
+	 *
+	 * A medição termina antes das demais ações executadas após o commit (ex.: registro de votantes e contadores em memória),
+	 * que não fazem parte do commit. Caso não haja transação, o desfecho é contabilizado imediatamente.
+	 *
+	 * @param outcome O desfecho do voto, caso a transação seja confirmada.
+	 */
+	public void recordCommit(Outcome outcome) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			Timer timer = this.timers.get(Stage.COMMIT);
+			TransactionCallbacks.timeCommit(nanos -> timer.record(nanos, TimeUnit.NANOSECONDS));
+		}
+		TransactionCallbacks.afterCommit(() -> this.count(outcome));
+	}
+
+	/**
+	 * Contabiliza o desfecho de um voto.
+	 *
+	 * @param outcome O desfecho.
+	 */
+	public void count(Outcome outcome) {
+		this.outcomes.get(outcome).increment();
+	}
+
+	/**
+	 * Contabiliza o mesmo desfecho para um conjunto de votos (ex.: um lote recusado por inteiro).
+	 *
+	 * @param outcome O desfecho.
+	 * @param votes A quantidade de votos.
+	 */
+	public void count(Outcome outcome, long votes) {
+		this.outcomes.get(outcome).increment(votes);
+	}
+
+}
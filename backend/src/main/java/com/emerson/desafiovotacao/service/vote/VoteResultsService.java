@@ -1,28 +1,47 @@
 package com.emerson.desafiovotacao.service.vote;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
 import com.emerson.desafiovotacao.domain.topic.Topic;
-import com.emerson.desafiovotacao.domain.vote.Vote;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.TopicResult;
+import com.emerson.desafiovotacao.exception.http.NotFoundException;
+import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByIdException;
+import com.emerson.desafiovotacao.repository.topic.TopicRepository;
 import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
 import com.emerson.desafiovotacao.repository.vote.VoteRepository;
 import com.emerson.desafiovotacao.service.topic.TopicService;
 import com.emerson.desafiovotacao.service.vote.dto.Result;
+import com.emerson.desafiovotacao.service.vote.dto.TopicResultsStateDto;
 import com.emerson.desafiovotacao.service.vote.dto.TopicVoteResultsDto;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVoteResultsVersionDto;
 import com.emerson.desafiovotacao.service.vote.dto.TopicVotingSessionStatus;
 import com.emerson.desafiovotacao.service.vote.dto.TopicVotingSessionVotesDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteCountDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteCursorDto;
 import com.emerson.desafiovotacao.service.vote.dto.VoteDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteKeysetPageDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteRowDto;
+import com.emerson.desafiovotacao.service.vote.snapshot.VoteResultSnapshotService;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Serviço responsável por calcular e fornecer os resultados de votos das sessões de votação de uma pauta.
  * Inclui métodos para retornar os resultados de uma pauta específica, considerando todas as sessões de votação associadas.
+ * As consultas são feitas em transações somente leitura, atendidas pela réplica de leitura quando configurada.
  * 
  * @author Emerson Oliveira
  */
@@ -30,6 +49,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class VoteResultsService {
 	
+	@Autowired
+	private TopicRepository topicRepository;
+	
 	@Autowired
 	private TopicVotingSessionRepository votingSessionRepository;
 	
@@ -39,34 +61,87 @@ public class VoteResultsService {
 	@Autowired
 	private TopicService topicService;
 	
+	@Autowired
+	private VoteTallyService voteTallyService;
+	
+	@Autowired
+	private VoteResultSnapshotService voteResultSnapshotService;
+	
+	/**
+	 * Obtém os resultados de votos de uma pauta específica identificada pelo UUID, incluindo os votos de cada sessão.
+	 * 
+	 * @param topicUuid O identificador único da pauta para a qual os resultados de votação serão retornados.
+	 * @return Um DTO contendo os resultados de votação da pauta.
+	 * @see #getResultsByTopicUuid(UUID, boolean)
+	 */
+	@Transactional(readOnly = true)
+	public TopicVoteResultsDto getResultsByTopicUuid(UUID topicUuid) {
+		return this.getResultsByTopicUuid(topicUuid, false);
+	}
+	
 	/**
 	 * Obtém os resultados de votos de uma pauta específica identificada pelo UUID.
 	 * 
-	 * Este método calcula o total de votos favoráveis e contrários em todas as sessões de votação associadas à pauta.
+	 * Este método soma o total de votos favoráveis e contrários de todas as sessões de votação associadas à pauta
+	 * a partir das contagens consolidadas de cada sessão, sem precisar contar os votos um a um.
 	 * Ele também gera o texto do resultado atual e final, levando em consideração se há sessões de votação em andamento.
+	 * Pautas com todas as sessões encerradas são respondidas a partir dos resultados imutáveis gravados após o término
+	 * da sessão mais recente ({@link VoteResultSnapshotService}), sem recalcular as contagens.
+	 * 
+	 * No modo resumido, os votos individuais não são lidos do banco nem incluídos na resposta, que passa a ter
+	 * tamanho constante independente da quantidade de votos. Para consultar os votos de uma sessão nesse caso, 
+	 * utilize {@link #listVotesByVotingSessionUuid(UUID, VoteCursorDto, int)}.
 	 * 
 	 * @param topicUuid O identificador único da pauta para a qual os resultados de votação serão retornados.
+	 * @param summary Se verdadeiro, retorna apenas as contagens, situações das sessões e textos dos resultados.
 	 * @return Um DTO contendo os resultados de votação da pauta.
 	 */
-	public TopicVoteResultsDto getResultsByTopicUuid(UUID topicUuid) {
-		Topic topic = this.topicService.get(topicUuid);
+	@Transactional(readOnly = true)
+	public TopicVoteResultsDto getResultsByTopicUuid(UUID topicUuid, boolean summary) {
+		Topic topic = this.topicService.getCached(topicUuid);
 		
-		log.info(String.format("Obtendo votos da pauta \"%s\"...", topic.getTitle()));
-		List<Vote> votesDb = this.voteRepository.findByTopicVotingSessionTopicUuid(topicUuid);
-		log.info(String.format("%s votos obtidos da pauta \"%s\".", votesDb.size(), topic.getTitle()));
+		// votos agrupados por sessão em uma única passada, apenas quando não for o modo resumido
+		Map<UUID, List<VoteDto>> votesBySession = Map.of();
+		if (!summary) {
+			log.info(String.format("Obtendo votos da pauta \"%s\"...", topic.getTitle()));
+			List<VoteRowDto> votesDb = this.voteRepository.findRowsByTopicUuid(topicUuid);
+			log.info(String.format("%s votos obtidos da pauta \"%s\".", votesDb.size(), topic.getTitle()));
+			
+			votesBySession = votesDb.stream()
+									.collect(Collectors.groupingBy(
+											VoteRowDto::topicVotingSessionUuid, 
+											Collectors.mapping(VoteRowDto::toVoteDto, Collectors.toList())
+									));
+		}
+		Map<UUID, List<VoteDto>> votes = votesBySession;
 		
 		Instant now = Instant.now();
-		List<TopicVotingSessionVotesDto> votingSessionsVotes = this.votingSessionRepository.findByTopicUuid(topicUuid)
+		Optional<TopicResult> topicResult = this.voteResultSnapshotService.getTopicResult(topic, now);
+		if (topicResult.isPresent()) {
+			List<TopicVotingSessionVotesDto> votingSessionsVotes = this.voteResultSnapshotService
+					.getVotingSessionResults(topicUuid)
+					.stream()
+					.map(r -> new TopicVotingSessionVotesDto(
+						r.getTopicVotingSession().getUuid(),
+						r.getTopicVotingSession().getStartTime(),
+						r.getTopicVotingSession().getEndTime(),
+						TopicVotingSessionStatus.FINISHED,
+						r.getFavorableVotes(),
+						r.getAgainstVotes(),
+						summary ? null : votes.getOrDefault(r.getTopicVotingSession().getUuid(), List.of())
+					))
+					.toList();
+			
+			return this.toResults(topic, votingSessionsVotes, topicResult.get().getFavorableVotes(), topicResult.get().getAgainstVotes());
+		}
+		
+		List<TopicVotingSession> votingSessions = this.votingSessionRepository.findByTopicUuid(topicUuid);
+		Map<UUID, VoteCountDto> votingSessionsCounts = this.voteTallyService.getCountsByTopic(topicUuid, votingSessions);
+		List<TopicVotingSessionVotesDto> votingSessionsVotes = votingSessions
 				.stream()
 				.map(s -> {
-					List<VoteDto> votingSessionVotes = votesDb.stream()
-														.filter(v -> v.getTopicVotingSession().getUuid().equals(s.getUuid()))
-														.map(v -> new VoteDto(
-																v.getCpf(), 
-																v.getVote(), 
-																v.getVotedAt()
-														))
-														.toList();
+					List<VoteDto> votingSessionVotes = summary ? null : votes.getOrDefault(s.getUuid(), List.of());
+					VoteCountDto count = votingSessionsCounts.getOrDefault(s.getUuid(), VoteCountDto.EMPTY);
 					
 					return new TopicVotingSessionVotesDto(
 						s.getUuid(),
@@ -75,6 +150,8 @@ public class VoteResultsService {
 						now.compareTo(s.getEndTime()) > 0 
 							? TopicVotingSessionStatus.FINISHED 
 							: TopicVotingSessionStatus.OPEN,
+						count.favorableVotes(),
+						count.againstVotes(),
 						votingSessionVotes
 					);
 				})
@@ -82,15 +159,44 @@ public class VoteResultsService {
 		
 		long favorableVotes = 0;
 		long againstVotes = 0;
-		
-		List<VoteDto> allVotes = votingSessionsVotes.stream().flatMap(s -> s.votes().stream()).toList();
-		for (VoteDto v : allVotes) {
-			if (v.vote())
-				favorableVotes++;
-			else
-				againstVotes++;
+		for (TopicVotingSessionVotesDto s : votingSessionsVotes) {
+			favorableVotes += s.favorableVotes();
+			againstVotes += s.againstVotes();
 		}
 		
+		return this.toResults(topic, votingSessionsVotes, favorableVotes, againstVotes);
+	}
+	
+	/**
+	 * Calcula a versão (ETag) dos resultados de uma pauta sem calcular os resultados, para requisições condicionais.
+	 * 
+	 * A versão é obtida de uma única consulta agregada sobre a pauta: a sessão mais recente e o seu término,
+	 * a quantidade de sessões, o total de votos e o voto mais recente das contagens consolidadas e o resultado imutável,
+	 * caso já tenha sido gravado. No modo de contagem {@code MEMORY}, também são considerados os votos ainda não gravados.
+	 * Como a situação das sessões depende do horário da consulta, o encerramento da sessão mais recente também muda a versão.
+	 * 
+	 * @param topicUuid O identificador único da pauta.
+	 * @param summary Se verdadeiro, a versão se refere aos resultados no modo resumido.
+	 * @return A ETag (fraca) dos resultados e o momento em que o resultado imutável foi gravado, caso a pauta esteja encerrada.
+	 * @throws TopicVotingSessionNotFoundByIdException Caso a pauta não seja encontrada.
+	 */
+	@Transactional(readOnly = true)
+	public TopicVoteResultsVersionDto getResultsVersion(UUID topicUuid, boolean summary) {
+		TopicResultsStateDto state = this.topicRepository.findResultsStateByUuid(topicUuid)
+				.orElseThrow(() -> new TopicVotingSessionNotFoundByIdException());
+		VoteCountDto inMemory = this.voteTallyService.getCountInMemoryByTopic(topicUuid);
+		
+		boolean open = state.latestVotingSessionEndTime() != null && state.latestVotingSessionEndTime().isAfter(Instant.now());
+		String version = String.join(":", 
+				String.valueOf(summary), String.valueOf(state.latestVotingSessionUuid()), String.valueOf(open),
+				String.valueOf(state.votingSessions()), String.valueOf(state.totalVotes()), String.valueOf(state.lastVotedAt()),
+				String.valueOf(inMemory.totalVotes()), String.valueOf(inMemory.lastVotedAt()), String.valueOf(state.finalizedAt()));
+		String eTag = "W/\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+		
+		return new TopicVoteResultsVersionDto(eTag, state.finalizedAt());
+	}
+	
+	private TopicVoteResultsDto toResults(Topic topic, List<TopicVotingSessionVotesDto> votingSessionsVotes, long favorableVotes, long againstVotes) {
 		boolean hasOpenedSessions = votingSessionsVotes.isEmpty()
 				|| votingSessionsVotes.stream().anyMatch(s -> TopicVotingSessionStatus.OPEN.equals(s.status()));
 		
@@ -133,5 +239,40 @@ public class VoteResultsService {
 			finalResultText
 		);
 	}
+	
+	/**
+	 * Lista os votos de uma sessão de votação de forma paginada por cursor (keyset), ordenados por
+	 * data do voto e UUID.
+	 * 
+	 * Diferente da paginação por deslocamento, cada página é obtida diretamente a partir do último
+	 * voto da página anterior, com custo constante independente da profundidade da página.
+	 * 
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação.
+	 * @param after O cursor do último voto da página anterior, ou {@code null} para a primeira página.
+	 * @param size A quantidade máxima de votos da página.
+	 * @return A página de votos e o cursor para a próxima página, caso exista.
+	 * @throws NotFoundException Caso a sessão de votação não exista.
+	 */
+	@Transactional(readOnly = true)
+	public VoteKeysetPageDto listVotesByVotingSessionUuid(UUID topicVotingSessionUuid, VoteCursorDto after, int size) {
+		if (!this.votingSessionRepository.existsById(topicVotingSessionUuid))
+			throw new NotFoundException("sessão de votação", topicVotingSessionUuid.toString());
+		
+		// busca um registro a mais para saber se existe próxima página
+		Limit limit = Limit.of(size + 1);
+		List<VoteRowDto> rows = after == null
+				? this.voteRepository.findRowsByTopicVotingSessionUuid(topicVotingSessionUuid, limit)
+				: this.voteRepository.findRowsByTopicVotingSessionUuidAfter(topicVotingSessionUuid, after.votedAt(), after.uuid(), limit);
+		
+		boolean hasNext = rows.size() > size;
+		if (hasNext)
+			rows = rows.subList(0, size);
+		
+		VoteRowDto last = hasNext ? rows.get(rows.size() - 1) : null;
+		return new VoteKeysetPageDto(
+			rows.stream().map(VoteRowDto::toVoteDto).toList(),
+			last != null ? new VoteCursorDto(last.votedAt(), last.uuid()) : null
+		);
+	}
 
 }
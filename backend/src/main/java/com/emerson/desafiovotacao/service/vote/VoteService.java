@@ -1,22 +1,36 @@
 package com.emerson.desafiovotacao.service.vote;
 
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.Locale;
 import java.util.UUID;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
 import com.emerson.desafiovotacao.domain.vote.Vote;
 import com.emerson.desafiovotacao.exception.http.BadRequestException;
-import com.emerson.desafiovotacao.exception.http.ConflictException;
+import com.emerson.desafiovotacao.exception.http.DuplicatedVoteException;
 import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByIdException;
 import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByTopicException;
+import com.emerson.desafiovotacao.external.Cpf;
 import com.emerson.desafiovotacao.external.CpfValidationClient;
 import com.emerson.desafiovotacao.external.CpfValidationResponse;
 import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
-import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteBatchRepository;
 import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.vote.VoteMetrics.Outcome;
+import com.emerson.desafiovotacao.service.vote.VoteMetrics.Stage;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTicketDto;
+import com.emerson.desafiovotacao.service.vote.ingestion.VoteIngestionService;
+import com.emerson.desafiovotacao.service.vote.registry.VoterRegistry;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,14 +44,29 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class VoteService {
 	
+	/** SQLState de violação de restrição única (unique_violation). */
+	private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+	
 	@Autowired
 	private VoteRepository repository;
 	
 	@Autowired
-	private TopicVotingSessionRepository votingSessionRepository;
+	private TopicVotingSessionService votingSessionService;
 	
 	@Autowired
 	private CpfValidationClient cpfValidationClient;
+	
+	@Autowired
+	private VoteTallyService voteTallyService;
+	
+	@Autowired
+	private VoteIngestionService voteIngestionService;
+	
+	@Autowired
+	private VoterRegistry voterRegistry;
+	
+	@Autowired
+	private VoteMetrics metrics;
 
 	/**
 	 * Registra um voto para uma pauta identificada pelo UUID.
@@ -49,12 +78,13 @@ public class VoteService {
 	 * @param cpf O CPF do associado que está votando.
 	 * @param vote O valor do voto (true para sim, false para não).
 	 * @throws TopicVotingSessionNotFoundByTopicException Caso não exista uma sessão de votação em andamento para a pauta.
-	 * @throws ConflictException Caso o associado já tenha votado na pauta.
+	 * @throws DuplicatedVoteException Caso o associado já tenha votado na pauta.
 	 */
+	@Transactional
 	public void voteByTopicUuid(UUID topicUuid, String cpf, boolean vote) {
 		Instant now = Instant.now();
-		TopicVotingSession topicVotingSession = this.votingSessionRepository.findTopByTopicUuidAndEndTimeGreaterThanOrderByStartTimeDesc(topicUuid, now)
-																			.orElseThrow(TopicVotingSessionNotFoundByTopicException::new);
+		TopicVotingSession topicVotingSession = this.metrics.record(Stage.SESSION_LOOKUP, () -> this.votingSessionService.getOpenByTopicUuid(topicUuid, now))
+															.orElseThrow(() -> this.reject(Outcome.SESSION_CLOSED, new TopicVotingSessionNotFoundByTopicException()));
 		
 		this.vote(topicVotingSession, cpf, vote);
 	}
@@ -69,52 +99,188 @@ public class VoteService {
 	 * @param cpf O CPF do associado que está votando.
 	 * @param vote O valor do voto (true para sim, false para não).
 	 * @throws TopicVotingSessionNotFoundByIdException Caso não exista uma sessão de votação em andamento para o UUID informado.
-	 * @throws ConflictException Caso o associado já tenha votado na sessão de votação.
+	 * @throws DuplicatedVoteException Caso o associado já tenha votado na sessão de votação.
 	 */
+	@Transactional
 	public void voteByVotingSessionUuid(UUID topicVotingSessionUuid, String cpf, Boolean vote) {
 		Instant now = Instant.now();
-		TopicVotingSession topicVotingSession = this.votingSessionRepository.findByUuidAndEndTimeGreaterThan(topicVotingSessionUuid, now)
-																			.orElseThrow(TopicVotingSessionNotFoundByIdException::new);
+		TopicVotingSession topicVotingSession = this.metrics.record(Stage.SESSION_LOOKUP, () -> this.votingSessionService.getOpenByUuid(topicVotingSessionUuid, now))
+															.orElseThrow(() -> this.reject(Outcome.SESSION_CLOSED, new TopicVotingSessionNotFoundByIdException()));
 		
 		this.vote(topicVotingSession, cpf, vote);
 	}
 	
+	/**
+	 * Valida e enfileira um voto para uma pauta identificada pelo UUID, para gravação assíncrona em lote.
+	 * 
+	 * Realiza as mesmas validações de {@link #voteByTopicUuid(UUID, String, boolean)}, mas o voto é gravado
+	 * posteriormente; sua situação final deve ser consultada pelo ticket retornado.
+	 * 
+	 * @param topicUuid O identificador único da pauta para a qual o voto será registrado.
+	 * @param cpf O CPF do associado que está votando.
+	 * @param vote O valor do voto (true para sim, false para não).
+	 * @return O ticket do voto enfileirado.
+	 * @throws TopicVotingSessionNotFoundByTopicException Caso não exista uma sessão de votação em andamento para a pauta.
+	 * @throws DuplicatedVoteException Caso o associado já tenha votado na pauta.
+	 */
+	public VoteTicketDto enqueueByTopicUuid(UUID topicUuid, String cpf, boolean vote) {
+		Instant now = Instant.now();
+		TopicVotingSession topicVotingSession = this.metrics.record(Stage.SESSION_LOOKUP, () -> this.votingSessionService.getOpenByTopicUuid(topicUuid, now))
+															.orElseThrow(() -> this.reject(Outcome.SESSION_CLOSED, new TopicVotingSessionNotFoundByTopicException()));
+		
+		return this.enqueue(topicVotingSession, cpf, vote);
+	}
+	
+	/**
+	 * Valida e enfileira um voto para uma sessão de votação identificada pelo UUID da sessão, para gravação assíncrona em lote.
+	 * 
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação para a qual o voto será registrado.
+	 * @param cpf O CPF do associado que está votando.
+	 * @param vote O valor do voto (true para sim, false para não).
+	 * @return O ticket do voto enfileirado.
+	 * @throws TopicVotingSessionNotFoundByIdException Caso não exista uma sessão de votação em andamento para o UUID informado.
+	 * @throws DuplicatedVoteException Caso o associado já tenha votado na sessão de votação.
+	 * @see #enqueueByTopicUuid(UUID, String, boolean)
+	 */
+	public VoteTicketDto enqueueByVotingSessionUuid(UUID topicVotingSessionUuid, String cpf, boolean vote) {
+		Instant now = Instant.now();
+		TopicVotingSession topicVotingSession = this.metrics.record(Stage.SESSION_LOOKUP, () -> this.votingSessionService.getOpenByUuid(topicVotingSessionUuid, now))
+															.orElseThrow(() -> this.reject(Outcome.SESSION_CLOSED, new TopicVotingSessionNotFoundByIdException()));
+		
+		return this.enqueue(topicVotingSession, cpf, vote);
+	}
+	
+	/**
+	 * Valida e enfileira o voto de um associado em uma sessão de votação.
+	 * 
+	 * Como o voto só é gravado posteriormente, verifica antecipadamente se o associado já votou na pauta
+	 * para recusar o voto duplicado já na requisição: pelo registro de votantes, caso a sessão esteja nele,
+	 * ou pelo banco de dados, caso contrário.
+	 * 
+	 * @param topicVotingSession A sessão de votação na qual o voto será registrado.
+	 * @param cpf O CPF do associado que está votando.
+	 * @param vote O valor do voto (true para sim, false para não).
+	 * @return O ticket do voto enfileirado.
+	 * @throws DuplicatedVoteException Caso o associado já tenha votado nesta pauta.
+	 */
+	private VoteTicketDto enqueue(TopicVotingSession topicVotingSession, String cpf, boolean vote) {
+		String normalizedCpf = Cpf.normalize(cpf);
+		
+		boolean voted = this.metrics.record(Stage.DUPLICATE_CHECK, () -> this.voterRegistry.isTracking(topicVotingSession)
+				? this.voterRegistry.hasVoted(topicVotingSession, normalizedCpf)
+				: this.repository.existsByTopicUuidAndCpf(topicVotingSession.getTopic().getUuid(), normalizedCpf));
+		if (voted)
+			throw this.reject(Outcome.DUPLICATE, new DuplicatedVoteException());
+		
+		this.validate(normalizedCpf);
+		// o desfecho é contabilizado pelo gravador, que ainda pode recusar o voto
+		return this.voteIngestionService.enqueue(topicVotingSession, normalizedCpf, vote);
+	}
+	
 	/**
 	 * Registra o voto de um associado em uma sessão de votação.
 	 * 
-	 * Verifica se o associado já votou na pauta antes de permitir o registro do voto.
-	 * Caso o associado não tenha votado e o seu CPF estiver apto para votar, então 
-	 * o voto é registrado no banco de dados.
+	 * Votos repetidos de associados já presentes no registro de votantes são recusados sem consultar o banco de dados.
+	 * Caso contrário, se o CPF do associado estiver apto para votar, o voto é registrado no banco de dados e contabilizado 
+	 * na contagem consolidada da sessão. O voto único por pauta é garantido pela restrição única (pauta, CPF) 
+	 * da tabela de votos, no próprio INSERT, inclusive entre requisições concorrentes do mesmo associado.
 	 * 
 	 * @param topicVotingSession A sessão de votação na qual o voto será registrado.
 	 * @param cpf O CPF do associado que está votando.
 	 * @param vote O valor do voto (true para sim, false para não).
 	 * @return O voto registrado no banco de dados.
-	 * @throws ConflictException Caso o associado já tenha votado nesta pauta.
+	 * @throws DuplicatedVoteException Caso o associado já tenha votado nesta pauta.
 	 */
 	private Vote vote(TopicVotingSession topicVotingSession, String cpf, boolean vote) {
-		// remove caracteres deixando apenas números
-		cpf = cpf.replaceAll("[^0-9]", "");
+		this.voteIngestionService.track(topicVotingSession);
+		String normalizedCpf = Cpf.normalize(cpf);
+		if (this.metrics.record(Stage.DUPLICATE_CHECK, () -> this.voterRegistry.hasVoted(topicVotingSession, normalizedCpf)))
+			throw this.reject(Outcome.DUPLICATE, new DuplicatedVoteException());
 		
-		if (this.repository.existsByTopicVotingSessionTopicUuidAndCpf(topicVotingSession.getTopic().getUuid(), cpf))
-			throw new ConflictException("O associado já votou nesta pauta. Só é permitido votar uma vez por pauta.");
+		this.validate(normalizedCpf);
 		
-		CpfValidationResponse cpfValidationResponse = this.cpfValidationClient.validateCpf(cpf);
-		if (!cpfValidationResponse.getStatus().equals(VoteEligibilityStatus.ABLE_TO_VOTE))
-			throw new BadRequestException("O CPF informado não está apto para votar.");
-		
-		log.info(String.format("Computando voto do associado %s...", cpf));
+		log.info(String.format("Computando voto do associado %s...", normalizedCpf));
 		Instant now = Instant.now();
-		Vote savedVote = this.repository.save(Vote.builder()
-												.topicVotingSession(topicVotingSession)
-												.cpf(cpf)
-												.vote(vote)
-												.votedAt(now)
-												.build()
-		);
-		log.info(String.format("Voto do associado com CPF %s computado com sucesso!", cpf));
+		Vote savedVote;
+		try {
+			savedVote = this.metrics.record(Stage.INSERT, () -> this.repository.saveAndFlush(new Vote(topicVotingSession, normalizedCpf, vote, now)));
+		} catch (DataIntegrityViolationException e) {
+			if (!isDuplicatedVote(e))
+				throw e;
+			throw this.reject(Outcome.DUPLICATE, new DuplicatedVoteException());
+		}
+		this.metrics.record(Stage.TALLY, () -> this.voteTallyService.increment(topicVotingSession, vote, now));
+		this.voterRegistry.register(topicVotingSession, normalizedCpf);
+		this.metrics.recordCommit(Outcome.ACCEPTED);
+		log.info(String.format("Voto do associado com CPF %s computado com sucesso!", normalizedCpf));
 		
 		return savedVote;
 	}
+	
+	/**
+	 * Valida se o CPF do associado está apto para votar.
+	 * 
+	 * @param cpf O CPF (apenas números) do associado que está votando.
+	 * @throws BadRequestException Caso o CPF não esteja apto para votar.
+	 */
+	private void validate(String cpf) {
+		CpfValidationResponse cpfValidationResponse;
+		try {
+			cpfValidationResponse = this.metrics.record(Stage.ELIGIBILITY, () -> this.cpfValidationClient.validateCpf(cpf));
+		} catch (BadRequestException e) {
+			throw this.reject(Outcome.INVALID_CPF, e);
+		}
+		if (!cpfValidationResponse.getStatus().equals(VoteEligibilityStatus.ABLE_TO_VOTE))
+			throw this.reject(Outcome.INELIGIBLE, new BadRequestException("O CPF informado não está apto para votar."));
+	}
+	
+	/**
+	 * Contabiliza o desfecho de um voto recusado.
+	 * 
+	 * @param outcome O desfecho do voto.
+	 * @param e A exceção da recusa.
+	 * @return A própria exceção, para ser lançada.
+	 */
+	private <E extends RuntimeException> E reject(Outcome outcome, E e) {
+		this.metrics.count(outcome);
+		return e;
+	}
+	
+	/**
+	 * Verifica se a falha de integridade ao gravar um voto pelo JPA foi causada pela restrição de voto único por pauta,
+	 * pelo nome da restrição informado pelo Hibernate.
+	 * 
+	 * @param e A falha de integridade ocorrida ao gravar um voto.
+	 * @return {@code true} caso o associado já tenha votado na pauta.
+	 */
+	public static boolean isDuplicatedVote(DataIntegrityViolationException e) {
+		if (!(e.getCause() instanceof ConstraintViolationException cve) || cve.getConstraintName() == null)
+			return false;
+		
+		// sem o esquema; o H2 informa o nome do índice da restrição (ex.: uk_vote_topic_cpf_INDEX_3)
+		String name = cve.getConstraintName();
+		name = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+		return name.equals(Vote.TOPIC_CPF_CONSTRAINT) || name.startsWith(Vote.TOPIC_CPF_CONSTRAINT + "_index_");
+	}
+	
+	/**
+	 * Verifica se a falha ao gravar votos por JDBC (ver {@link VoteBatchRepository}) foi causada por chave duplicada.
+	 * 
+	 * O voto tem apenas a restrição única (pauta, CPF), além da chave primária gerada pela aplicação, então uma
+	 * chave duplicada indica que o associado já votou na pauta.
+	 * 
+	 * @param e A falha ocorrida ao gravar os votos.
+	 * @return {@code true} caso algum dos associados já tenha votado na pauta.
+	 */
+	public static boolean isDuplicatedKey(DataAccessException e) {
+		if (e instanceof DuplicateKeyException)
+			return true;
+		
+		for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState()))
+				return true;
+		}
+		return false;
+	}
 
 }
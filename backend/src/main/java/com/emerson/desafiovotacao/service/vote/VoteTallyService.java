@@ -0,0 +1,311 @@
+package com.emerson.desafiovotacao.service.vote;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.VoteTally;
+import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteSessionCount;
+import com.emerson.desafiovotacao.repository.vote.VoteTallyRepository;
+import com.emerson.desafiovotacao.service.vote.dto.VoteCountDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTallyDriftDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTallyVerificationDto;
+import com.emerson.desafiovotacao.service.vote.stream.TopicResultsChangedEvent;
+import com.emerson.desafiovotacao.service.vote.tally.VoteTallyCounters;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pela manutenção das contagens consolidadas de votos ({@link VoteTally}) de cada sessão de votação.
+ * Contém métodos para incrementar a contagem a cada voto, consultar as contagens de uma pauta e
+ * verificar/reconstruir as contagens a partir da tabela de votos.
+ *
+ * No modo de contagem {@code MEMORY}, os votos são contabilizados em {@link VoteTallyCounters} e as contagens
+ * gravadas periodicamente; as contagens de sessões com contadores em memória são lidas dos próprios contadores.
+ *
+ * @author Emerson Oliveira
+ */
+@Service
+@Slf4j
+public class VoteTallyService {
+
+	private static final int VERIFICATION_PAGE_SIZE = 500;
+
+	@Autowired
+	private VoteTallyRepository repository;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private TopicVotingSessionRepository votingSessionRepository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private VoteTallyCounters counters;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * No modo de contagem {@code MEMORY}, reconstrói as contagens de todas as sessões a partir da tabela de votos
+	 * na inicialização da aplicação, antes de qualquer voto ser recebido: votos contabilizados apenas em memória
+	 * antes de uma queda não chegaram às contagens gravadas.
+	 */
+	@PostConstruct
+	void recover() {
+		if (!this.counters.isEnabled())
+			return;
+
+		this.counters.clear();
+		VoteTallyVerificationDto report = new TransactionTemplate(this.transactionManager).execute(status -> this.check(true));
+		log.info(String.format("Contagens de votos reconstruídas para a contagem em memória: %s sessões, %s corrigidas.", 
+				report.checkedSessions(), report.drifts().size()));
+	}
+
+	/**
+	 * Contabiliza um voto na contagem consolidada da sessão de votação.
+	 *
+	 * @param topicVotingSession A sessão de votação na qual o voto foi registrado.
+	 * @param vote O valor do voto (true para sim, false para não).
+	 * @param votedAt O momento em que o voto foi registrado.
+	 * @see #increment(TopicVotingSession, long, long, Instant)
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void increment(TopicVotingSession topicVotingSession, boolean vote, Instant votedAt) {
+		this.increment(topicVotingSession, vote ? 1 : 0, vote ? 0 : 1, votedAt);
+	}
+
+	/**
+	 * Contabiliza um conjunto de votos na contagem consolidada da sessão de votação.
+	 *
+	 * Deve ser chamado na mesma transação em que os votos foram inseridos. Caso a sessão ainda não possua
+	 * contagem, ela é criada a partir da tabela de votos (o que já inclui os votos recém-inseridos), com a
+	 * sessão bloqueada para que inserções concorrentes não criem contagens duplicadas.
+	 * Publica um {@link TopicResultsChangedEvent} para a pauta da sessão.
+	 *
+	 * No modo de contagem {@code MEMORY}, os votos são somados aos contadores em memória da sessão após o commit,
+	 * sem alterar a contagem gravada.
+	 *
+	 * @param topicVotingSession A sessão de votação na qual os votos foram registrados.
+	 * @param favorableVotes A quantidade de votos favoráveis registrados.
+	 * @param againstVotes A quantidade de votos contrários registrados.
+	 * @param lastVotedAt O momento do voto mais recente registrado.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void increment(TopicVotingSession topicVotingSession, long favorableVotes, long againstVotes, Instant lastVotedAt) {
+		// registrado antes do evento, para que os contadores já estejam atualizados quando os resultados forem lidos
+		if (this.counters.isEnabled())
+			this.counters.add(topicVotingSession, favorableVotes, againstVotes, lastVotedAt);
+
+		this.eventPublisher.publishEvent(new TopicResultsChangedEvent(topicVotingSession.getTopic().getUuid()));
+		if (this.counters.isEnabled())
+			return;
+		
+		UUID sessionUuid = topicVotingSession.getUuid();
+		if (this.repository.increment(sessionUuid, favorableVotes, againstVotes, lastVotedAt) > 0)
+			return;
+
+		// primeira contagem da sessão: serializa a criação bloqueando a sessão
+		this.votingSessionRepository.findForUpdateByUuid(sessionUuid);
+		if (this.repository.increment(sessionUuid, favorableVotes, againstVotes, lastVotedAt) > 0)
+			return;
+
+		this.rebuild(topicVotingSession);
+	}
+
+	/**
+	 * Obtém as contagens de votos de cada sessão de votação informada.
+	 *
+	 * Sessões que ainda não possuem contagem consolidada (ex.: criadas antes da contagem existir)
+	 * são contadas diretamente a partir da tabela de votos, com uma única consulta agregada para toda a pauta.
+	 * Sessões com contadores em memória são lidas dos contadores, que incluem os votos ainda não gravados.
+	 *
+	 * @param topicUuid O identificador único da pauta das sessões.
+	 * @param topicVotingSessions As sessões de votação da pauta.
+	 * @return Um mapa com a contagem de votos de cada sessão, indexado pelo UUID da sessão.
+	 */
+	public Map<UUID, VoteCountDto> getCountsByTopic(UUID topicUuid, List<TopicVotingSession> topicVotingSessions) {
+		Map<UUID, VoteCountDto> counts = new HashMap<>();
+		if (this.counters.isEnabled()) {
+			for (TopicVotingSession s : topicVotingSessions) {
+				VoteCountDto count = this.counters.get(s.getUuid());
+				if (count != null)
+					counts.put(s.getUuid(), count);
+			}
+			if (counts.size() == topicVotingSessions.size())
+				return counts;
+		}
+
+		for (VoteTally tally : this.repository.findByTopicVotingSessionTopicUuid(topicUuid))
+			counts.putIfAbsent(tally.getTopicVotingSession().getUuid(), this.toCount(tally));
+
+		if (topicVotingSessions.stream().anyMatch(s -> !counts.containsKey(s.getUuid()))) {
+			Map<UUID, VoteCountDto> votesCounts = this.toCounts(this.voteRepository.countBySessionAndVoteByTopicUuid(topicUuid));
+			for (TopicVotingSession s : topicVotingSessions)
+				counts.computeIfAbsent(s.getUuid(), uuid -> votesCounts.getOrDefault(uuid, VoteCountDto.EMPTY));
+		}
+
+		return counts;
+	}
+
+	/**
+	 * Obtém a contagem de votos de uma sessão de votação, a partir dos contadores em memória ou, caso a sessão não
+	 * os possua, da contagem consolidada.
+	 *
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação.
+	 * @return A contagem de votos da sessão, ou vazio caso a sessão não possua contagem.
+	 */
+	public Optional<VoteCountDto> getCount(UUID topicVotingSessionUuid) {
+		if (this.counters.isEnabled()) {
+			VoteCountDto count = this.counters.get(topicVotingSessionUuid);
+			if (count != null)
+				return Optional.of(count);
+		}
+		return this.repository.findByTopicVotingSessionUuid(topicVotingSessionUuid).map(this::toCount);
+	}
+
+	/**
+	 * Obtém a soma das contagens em memória das sessões de votação de uma pauta.
+	 *
+	 * @param topicUuid O identificador único da pauta.
+	 * @return A soma das contagens em memória da pauta, ou {@link VoteCountDto#EMPTY} fora do modo de contagem {@code MEMORY}.
+	 * @see VoteTallyCounters#getByTopic(UUID)
+	 */
+	public VoteCountDto getCountInMemoryByTopic(UUID topicUuid) {
+		return this.counters.isEnabled() ? this.counters.getByTopic(topicUuid) : VoteCountDto.EMPTY;
+	}
+
+	/**
+	 * Recalcula a contagem de todas as sessões de votação a partir da tabela de votos e
+	 * retorna as divergências encontradas, sem alterar nenhuma contagem.
+	 * Os votos contabilizados em memória são gravados antes da verificação.
+	 *
+	 * Executado em uma transação de escrita, para que a comparação seja feita no banco de dados principal:
+	 * uma réplica de leitura atrasada apontaria divergências inexistentes.
+	 *
+	 * @return O relatório de divergências entre as contagens consolidadas e a tabela de votos.
+	 */
+	@Transactional
+	public VoteTallyVerificationDto verify() {
+		this.counters.flush();
+		return this.check(false);
+	}
+
+	/**
+	 * Recalcula a contagem de todas as sessões de votação a partir da tabela de votos,
+	 * corrigindo as contagens divergentes ou inexistentes.
+	 *
+	 * Os votos contabilizados em memória são gravados antes da verificação e os contadores são descartados após o commit
+	 * da correção, voltando a partir das contagens corrigidas. Os votos recebidos durante a reconstrução aguardam o seu
+	 * término para serem contabilizados (ver {@link VoteTallyCounters#clearAfterCommit()}).
+	 *
+	 * @return O relatório das divergências encontradas (e corrigidas).
+	 */
+	@Transactional
+	public VoteTallyVerificationDto rebuild() {
+		this.counters.clearAfterCommit();
+		this.counters.flush();
+		return this.check(true);
+	}
+
+	private VoteTallyVerificationDto check(boolean fix) {
+		List<VoteTallyDriftDto> drifts = new ArrayList<>();
+		long checkedSessions = 0;
+
+		Page<TopicVotingSession> page = this.votingSessionRepository.findAll(PageRequest.of(0, VERIFICATION_PAGE_SIZE, Sort.by("uuid")));
+		while (true) {
+			List<UUID> sessionsUuids = page.map(TopicVotingSession::getUuid).toList();
+			Map<UUID, VoteCountDto> votesCounts = this.toCounts(this.voteRepository.countBySessionAndVoteByTopicVotingSessionUuidIn(sessionsUuids));
+			Map<UUID, VoteTally> tallies = new HashMap<>();
+			for (VoteTally tally : this.repository.findByTopicVotingSessionUuidIn(sessionsUuids))
+				tallies.put(tally.getTopicVotingSession().getUuid(), tally);
+
+			for (TopicVotingSession s : page) {
+				checkedSessions++;
+
+				VoteTally tally = tallies.get(s.getUuid());
+				VoteCountDto expected = votesCounts.getOrDefault(s.getUuid(), VoteCountDto.EMPTY);
+				VoteCountDto actual = tally != null ? this.toCount(tally) : VoteCountDto.EMPTY;
+
+				if (tally != null && expected.favorableVotes() == actual.favorableVotes() && expected.againstVotes() == actual.againstVotes())
+					continue;
+
+				drifts.add(new VoteTallyDriftDto(
+						s.getUuid(),
+						tally == null,
+						expected.favorableVotes(),
+						expected.againstVotes(),
+						actual.favorableVotes(),
+						actual.againstVotes()
+				));
+				if (fix)
+					this.save(s, tally, expected);
+			}
+
+			if (!page.hasNext())
+				break;
+			page = this.votingSessionRepository.findAll(page.nextPageable());
+		}
+
+		log.info(String.format("%s contagens de votos verificadas, %s divergências encontradas.", checkedSessions, drifts.size()));
+		return new VoteTallyVerificationDto(checkedSessions, fix, drifts);
+	}
+
+	private void rebuild(TopicVotingSession topicVotingSession) {
+		VoteTally tally = this.repository.findByTopicVotingSessionUuid(topicVotingSession.getUuid()).orElse(null);
+		this.save(topicVotingSession, tally, this.voteRepository.countByTopicVotingSessionUuid(topicVotingSession.getUuid()));
+	}
+
+	private void save(TopicVotingSession topicVotingSession, VoteTally tally, VoteCountDto count) {
+		if (tally == null)
+			tally = VoteTally.builder().topicVotingSession(topicVotingSession).build();
+
+		tally.setFavorableVotes(count.favorableVotes());
+		tally.setAgainstVotes(count.againstVotes());
+		tally.setTotalVotes(count.totalVotes());
+		tally.setLastVotedAt(count.lastVotedAt());
+
+		this.repository.save(tally);
+	}
+
+	private Map<UUID, VoteCountDto> toCounts(List<VoteSessionCount> votesCounts) {
+		Map<UUID, VoteCountDto> counts = new HashMap<>();
+		for (VoteSessionCount c : votesCounts) {
+			VoteCountDto count = counts.getOrDefault(c.getTopicVotingSessionUuid(), VoteCountDto.EMPTY);
+			Instant lastVotedAt = count.lastVotedAt() == null || count.lastVotedAt().isBefore(c.getLastVotedAt()) 
+					? c.getLastVotedAt() 
+					: count.lastVotedAt();
+			counts.put(c.getTopicVotingSessionUuid(), Boolean.TRUE.equals(c.getVote())
+					? new VoteCountDto(count.favorableVotes() + c.getVotes(), count.againstVotes(), lastVotedAt)
+					: new VoteCountDto(count.favorableVotes(), count.againstVotes() + c.getVotes(), lastVotedAt));
+		}
+		return counts;
+	}
+
+	private VoteCountDto toCount(VoteTally tally) {
+		return new VoteCountDto(tally.getFavorableVotes(), tally.getAgainstVotes(), tally.getLastVotedAt());
+	}
+
+}
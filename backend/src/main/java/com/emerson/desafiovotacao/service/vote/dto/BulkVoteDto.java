@@ -0,0 +1,18 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record BulkVoteDto(
+		@NotEmpty(message = "Informe ao menos um voto.") 
+		@Size(max = BulkVoteDto.MAX_VOTES, message = "Informe no máximo " + BulkVoteDto.MAX_VOTES + " votos.") 
+		List<@Valid @NotNull(message = "O voto é obrigatório.") BulkVoteItemDto> votes
+) {
+	
+	public static final int MAX_VOTES = 1_000;
+
+}
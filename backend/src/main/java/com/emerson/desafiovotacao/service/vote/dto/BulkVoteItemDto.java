@@ -0,0 +1,11 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record BulkVoteItemDto(
+		@NotBlank(message = "O CPF é obrigatório.") String cpf,
+		@NotNull(message = "O voto é obrigatório.") Boolean vote
+) {
+
+}
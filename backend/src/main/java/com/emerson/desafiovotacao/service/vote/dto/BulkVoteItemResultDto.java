@@ -0,0 +1,10 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+public record BulkVoteItemResultDto(
+		int index,
+		String cpf,
+		BulkVoteItemStatus status,
+		String message
+) {
+
+}
@@ -0,0 +1,8 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+public enum BulkVoteItemStatus {
+	ACCEPTED,
+	DUPLICATED,
+	INVALID_CPF,
+	UNABLE_TO_VOTE
+}
@@ -0,0 +1,11 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.util.List;
+
+public record BulkVoteResultDto(
+		int accepted,
+		int rejected,
+		List<BulkVoteItemResultDto> results
+) {
+
+}
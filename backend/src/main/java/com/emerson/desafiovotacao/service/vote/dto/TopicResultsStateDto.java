@@ -0,0 +1,15 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record TopicResultsStateDto(
+		UUID latestVotingSessionUuid,
+		Instant latestVotingSessionEndTime,
+		long votingSessions,
+		long totalVotes,
+		Instant lastVotedAt,
+		Instant finalizedAt
+) {
+
+}
@@ -0,0 +1,17 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.time.Instant;
+
+public record TopicVoteResultsVersionDto(
+		String eTag,
+		Instant finalizedAt
+) {
+
+	/**
+	 * @return Se verdadeiro, o resultado da pauta já foi gravado como imutável e não muda enquanto nenhuma nova sessão for aberta.
+	 */
+	public boolean finished() {
+		return this.finalizedAt != null;
+	}
+
+}
@@ -4,12 +4,16 @@ import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public record TopicVotingSessionVotesDto(
 		UUID uuid, 
 		Instant startTime, 
 		Instant endTime, 
 		TopicVotingSessionStatus status,
-		List<VoteDto> votes
+		long favorableVotes,
+		long againstVotes,
+		@JsonInclude(JsonInclude.Include.NON_NULL) List<VoteDto> votes
 ) {
 
 }
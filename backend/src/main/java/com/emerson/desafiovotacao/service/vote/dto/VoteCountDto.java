@@ -0,0 +1,17 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.time.Instant;
+
+public record VoteCountDto(
+		long favorableVotes,
+		long againstVotes,
+		Instant lastVotedAt
+) {
+
+	public static final VoteCountDto EMPTY = new VoteCountDto(0, 0, null);
+
+	public long totalVotes() {
+		return this.favorableVotes + this.againstVotes;
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record VoteCursorDto(
+		Instant votedAt,
+		UUID uuid
+) {
+
+}
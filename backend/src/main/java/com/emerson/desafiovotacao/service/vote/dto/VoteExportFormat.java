@@ -0,0 +1,25 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+public enum VoteExportFormat {
+	
+	NDJSON("application/x-ndjson", "ndjson"), 
+	CSV("text/csv", "csv");
+	
+	private final String contentType;
+	
+	private final String extension;
+	
+	VoteExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+	
+	public String getContentType() {
+		return contentType;
+	}
+	
+	public String getExtension() {
+		return extension;
+	}
+
+}
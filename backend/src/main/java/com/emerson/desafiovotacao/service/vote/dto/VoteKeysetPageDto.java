@@ -0,0 +1,10 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.util.List;
+
+public record VoteKeysetPageDto(
+		List<VoteDto> votes,
+		VoteCursorDto next
+) {
+
+}
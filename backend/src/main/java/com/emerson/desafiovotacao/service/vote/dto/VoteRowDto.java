@@ -0,0 +1,18 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record VoteRowDto(
+		UUID uuid,
+		UUID topicVotingSessionUuid,
+		String cpf,
+		boolean vote,
+		Instant votedAt
+) {
+
+	public VoteDto toVoteDto() {
+		return new VoteDto(this.cpf, this.vote, this.votedAt);
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.util.UUID;
+
+public record VoteTallyDriftDto(
+		UUID topicVotingSessionUuid,
+		boolean missing,
+		long expectedFavorableVotes,
+		long expectedAgainstVotes,
+		long actualFavorableVotes,
+		long actualAgainstVotes
+) {
+
+}
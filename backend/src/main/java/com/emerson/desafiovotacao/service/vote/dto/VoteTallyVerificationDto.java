@@ -0,0 +1,11 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.util.List;
+
+public record VoteTallyVerificationDto(
+		long checkedSessions,
+		boolean rebuilt,
+		List<VoteTallyDriftDto> drifts
+) {
+
+}
@@ -0,0 +1,11 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+import java.util.UUID;
+
+public record VoteTicketDto(
+		UUID ticket,
+		VoteTicketStatus status,
+		String message
+) {
+
+}
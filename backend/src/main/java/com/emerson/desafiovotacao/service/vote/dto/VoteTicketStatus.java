@@ -0,0 +1,7 @@
+package com.emerson.desafiovotacao.service.vote.dto;
+
+public enum VoteTicketStatus {
+	
+	PENDING, ACCEPTED, REJECTED
+
+}
@@ -0,0 +1,7 @@
+package com.emerson.desafiovotacao.service.vote.ingestion;
+
+public enum VoteIngestionMode {
+	
+	SYNC, ASYNC
+
+}
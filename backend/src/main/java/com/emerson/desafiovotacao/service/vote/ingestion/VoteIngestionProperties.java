@@ -0,0 +1,26 @@
+package com.emerson.desafiovotacao.service.vote.ingestion;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações da recepção de votos.
+ * 
+ * @param mode Modo de recepção: {@code SYNC} grava cada voto na própria requisição; {@code ASYNC} enfileira o voto e o grava em lotes.
+ * @param batchSize Quantidade máxima de votos gravados em um mesmo lote (e em um mesmo commit).
+ * @param maxLinger Tempo máximo que o primeiro voto de um lote aguarda por outros votos antes do lote ser gravado.
+ * @param queueCapacity Quantidade máxima de votos aguardando gravação. Acima disso, novos votos são recusados.
+ * @param ticketRetention Tempo pelo qual a situação de um voto enfileirado permanece disponível para consulta após ser gravado.
+ */
+@ConfigurationProperties(prefix = "votacao.vote.ingestion")
+public record VoteIngestionProperties(
+		@DefaultValue("SYNC") VoteIngestionMode mode,
+		@DefaultValue("500") int batchSize,
+		@DefaultValue("50ms") Duration maxLinger,
+		@DefaultValue("10000") int queueCapacity,
+		@DefaultValue("10m") Duration ticketRetention
+) {
+
+}
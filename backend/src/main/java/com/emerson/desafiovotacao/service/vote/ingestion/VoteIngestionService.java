@@ -0,0 +1,346 @@
+package com.emerson.desafiovotacao.service.vote.ingestion;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.Vote;
+import com.emerson.desafiovotacao.exception.http.DuplicatedVoteException;
+import com.emerson.desafiovotacao.exception.http.NotFoundException;
+import com.emerson.desafiovotacao.exception.http.TooManyRequestsException;
+import com.emerson.desafiovotacao.repository.vote.VoteBatchRepository;
+import com.emerson.desafiovotacao.service.vote.VoteMetrics;
+import com.emerson.desafiovotacao.service.vote.VoteMetrics.Outcome;
+import com.emerson.desafiovotacao.service.vote.VoteService;
+import com.emerson.desafiovotacao.service.vote.VoteTallyService;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTicketDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTicketStatus;
+import com.emerson.desafiovotacao.service.vote.registry.VoterRegistry;
+import com.emerson.desafiovotacao.transaction.TransactionCallbacks;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pela recepção assíncrona de votos.
+ *
+ * Quando o modo {@link VoteIngestionMode#ASYNC} está ativo, os votos já validados são colocados em uma fila limitada
+ * e um único gravador os retira em lotes, inserindo cada lote em um único batch JDBC e em um único commit (group commit).
+ * Cada voto enfileirado recebe um ticket, cuja situação pode ser consultada até ser gravado ou recusado.
+ *
+ * Também mantém, por sessão de votação, a quantidade de votos recebidos e ainda não confirmados (enfileirados ou em
+ * transações de voto em andamento), consultada antes de gravar o resultado imutável de uma sessão encerrada.
+ *
+ * @author Emerson Oliveira
+ */
+@Service
+@Slf4j
+public class VoteIngestionService {
+
+	private static final String FAILED_VOTE_MESSAGE = "Não foi possível registrar o voto. Tente novamente.";
+
+	private record PendingVote(UUID ticket, String key, Vote vote) {
+	}
+
+	private record Ticket(VoteTicketStatus status, String message, Instant expiresAt) {
+	}
+
+	@Autowired
+	private VoteIngestionProperties properties;
+
+	@Autowired
+	private VoteBatchRepository voteBatchRepository;
+
+	@Autowired
+	private VoteTallyService voteTallyService;
+
+	@Autowired
+	private VoterRegistry voterRegistry;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private VoteMetrics metrics;
+
+	private BlockingQueue<PendingVote> queue;
+
+	/** Votos enfileirados e ainda não gravados, por pauta e CPF, para recusar votos duplicados ainda em trânsito. */
+	private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final Map<UUID, Ticket> tickets = new ConcurrentHashMap<>();
+
+	/** Votos recebidos e ainda não confirmados (enfileirados ou em transações em andamento), por sessão de votação. */
+	private final Map<UUID, Integer> pendingBySession = new ConcurrentHashMap<>();
+
+	private TransactionTemplate transaction;
+
+	private DistributionSummary batchSizeSummary;
+
+	private Timer batchTimer;
+
+	private Thread writer;
+
+	private volatile boolean running;
+
+	@PostConstruct
+	void start() {
+		if (!this.isAsync())
+			return;
+
+		this.queue = new ArrayBlockingQueue<>(this.properties.queueCapacity());
+		this.transaction = new TransactionTemplate(this.transactionManager);
+
+		Gauge.builder("votacao.vote.ingestion.queue.size", this.queue, BlockingQueue::size)
+			 .description("Votos aguardando gravação")
+			 .register(this.meterRegistry);
+		this.batchSizeSummary = DistributionSummary.builder("votacao.vote.ingestion.batch.size")
+												   .description("Quantidade de votos gravados por lote")
+												   .register(this.meterRegistry);
+		this.batchTimer = Timer.builder("votacao.vote.ingestion.batch.duration")
+							   .description("Tempo de gravação de cada lote de votos")
+							   .register(this.meterRegistry);
+
+		this.running = true;
+		this.writer = Thread.ofPlatform().name("vote-ingestion-writer").daemon().start(this::drain);
+		log.info(String.format("Recepção assíncrona de votos iniciada (lote: %s, espera máxima: %s, capacidade da fila: %s).",
+				this.properties.batchSize(), this.properties.maxLinger(), this.properties.queueCapacity()));
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		if (this.writer == null)
+			return;
+
+		// o gravador termina de gravar os votos já enfileirados antes de parar
+		this.running = false;
+		this.writer.join(TimeUnit.SECONDS.toMillis(30));
+	}
+
+	/**
+	 * Indica se a recepção assíncrona de votos está ativa.
+	 *
+	 * @return {@code true} caso os votos devam ser enfileirados em vez de gravados na própria requisição.
+	 */
+	public boolean isAsync() {
+		return VoteIngestionMode.ASYNC.equals(this.properties.mode());
+	}
+
+	/**
+	 * Indica se há votos recebidos para a sessão de votação e ainda não confirmados: votos enfileirados ou em
+	 * transações de voto em andamento.
+	 *
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação.
+	 * @return {@code true} caso algum voto da sessão ainda possa ser gravado.
+	 */
+	public boolean hasPendingVotes(UUID topicVotingSessionUuid) {
+		return this.pendingBySession.containsKey(topicVotingSessionUuid);
+	}
+
+	/**
+	 * Registra uma transação de voto em andamento na sessão de votação, até a sua conclusão (commit ou rollback).
+	 *
+	 * @param topicVotingSession A sessão de votação na qual o voto será registrado.
+	 * @see #hasPendingVotes(UUID)
+	 */
+	public void track(TopicVotingSession topicVotingSession) {
+		UUID sessionUuid = topicVotingSession.getUuid();
+		TransactionCallbacks.afterCompletion(() -> this.end(sessionUuid));
+		this.begin(sessionUuid);
+	}
+
+	/**
+	 * Registra o início do recebimento de votos na sessão de votação, fora de uma transação (ex.: um lote de votos,
+	 * gravado em transação própria). Deve ser seguido de {@link #end(UUID)} após a gravação.
+	 *
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação.
+	 * @see #hasPendingVotes(UUID)
+	 */
+	public void begin(UUID topicVotingSessionUuid) {
+		this.pendingBySession.merge(topicVotingSessionUuid, 1, Integer::sum);
+	}
+
+	/**
+	 * Registra a conclusão do recebimento de votos iniciado por {@link #begin(UUID)}.
+	 *
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação.
+	 */
+	public void end(UUID topicVotingSessionUuid) {
+		this.pendingBySession.merge(topicVotingSessionUuid, -1, (a, b) -> a + b == 0 ? null : a + b);
+	}
+
+	/**
+	 * Enfileira um voto já validado para gravação.
+	 *
+	 * @param topicVotingSession A sessão de votação na qual o voto será registrado.
+	 * @param cpf O CPF (apenas números) do associado que está votando.
+	 * @param vote O valor do voto (true para sim, false para não).
+	 * @return O ticket do voto, inicialmente pendente.
+	 * @throws DuplicatedVoteException Caso já exista um voto do associado na pauta aguardando gravação.
+	 * @throws TooManyRequestsException Caso a fila de votos esteja cheia.
+	 */
+	public VoteTicketDto enqueue(TopicVotingSession topicVotingSession, String cpf, boolean vote) {
+		String key = topicVotingSession.getTopic().getUuid() + ":" + cpf;
+		if (!this.inFlight.add(key))
+			throw new DuplicatedVoteException();
+
+		UUID ticket = UUID.randomUUID();
+		Vote pendingVote = new Vote(topicVotingSession, cpf, vote, Instant.now());
+
+		this.tickets.put(ticket, new Ticket(VoteTicketStatus.PENDING, null, null));
+		this.begin(topicVotingSession.getUuid());
+		if (!this.queue.offer(new PendingVote(ticket, key, pendingVote))) {
+			this.end(topicVotingSession.getUuid());
+			this.tickets.remove(ticket);
+			this.inFlight.remove(key);
+			throw new TooManyRequestsException("Muitos votos aguardando gravação. Tente novamente em instantes.");
+		}
+
+		return new VoteTicketDto(ticket, VoteTicketStatus.PENDING, null);
+	}
+
+	/**
+	 * Obtém a situação de um voto enfileirado.
+	 *
+	 * @param ticket O ticket recebido ao enfileirar o voto.
+	 * @return A situação do voto.
+	 * @throws NotFoundException Caso o ticket não exista ou já tenha expirado.
+	 */
+	public VoteTicketDto getTicket(UUID ticket) {
+		Ticket t = this.tickets.get(ticket);
+		if (t == null)
+			throw new NotFoundException("ticket de voto", ticket.toString());
+
+		return new VoteTicketDto(ticket, t.status(), t.message());
+	}
+
+	private void drain() {
+		List<PendingVote> batch = new ArrayList<>(this.properties.batchSize());
+		long lastCleanup = System.nanoTime();
+
+		while (this.running || !this.queue.isEmpty()) {
+			try {
+				PendingVote first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first != null) {
+					batch.add(first);
+
+					// aguarda outros votos até completar o lote ou esgotar o tempo de espera
+					long deadline = System.nanoTime() + this.properties.maxLinger().toNanos();
+					while (batch.size() < this.properties.batchSize()) {
+						long remaining = deadline - System.nanoTime();
+						if (remaining <= 0 || this.queue.drainTo(batch, this.properties.batchSize() - batch.size()) == 0) {
+							PendingVote next = remaining > 0 ? this.queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+							if (next == null)
+								break;
+							batch.add(next);
+						}
+					}
+
+					this.write(batch);
+					batch.clear();
+				}
+
+				if (System.nanoTime() - lastCleanup > TimeUnit.SECONDS.toNanos(10)) {
+					Instant now = Instant.now();
+					this.tickets.values().removeIf(t -> t.expiresAt() != null && t.expiresAt().isBefore(now));
+					lastCleanup = System.nanoTime();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("Erro inesperado na gravação de lote de votos", e);
+				this.complete(batch, VoteTicketStatus.REJECTED, FAILED_VOTE_MESSAGE);
+				batch.clear();
+			}
+		}
+	}
+
+	private void write(List<PendingVote> batch) {
+		try {
+			this.batchTimer.record(() -> this.transaction.executeWithoutResult(status -> this.insert(batch)));
+			this.batchSizeSummary.record(batch.size());
+			this.complete(batch, VoteTicketStatus.ACCEPTED, null);
+		} catch (DataAccessException e) {
+			// grava voto a voto para recusar apenas os votos inválidos do lote
+			log.warn(String.format("Falha ao gravar lote de %s votos, gravando individualmente: %s", batch.size(), e.getMessage()));
+			for (PendingVote pending : batch) {
+				try {
+					this.transaction.executeWithoutResult(status -> this.insert(List.of(pending)));
+					this.batchSizeSummary.record(1);
+					this.complete(List.of(pending), VoteTicketStatus.ACCEPTED, null);
+				} catch (DataAccessException ex) {
+					if (VoteService.isDuplicatedKey(ex)) {
+						this.metrics.count(Outcome.DUPLICATE);
+						this.complete(List.of(pending), VoteTicketStatus.REJECTED, DuplicatedVoteException.MESSAGE);
+						continue;
+					}
+					log.error("Erro ao gravar voto enfileirado", ex);
+					this.complete(List.of(pending), VoteTicketStatus.REJECTED, FAILED_VOTE_MESSAGE);
+				}
+			}
+		}
+	}
+
+	private void insert(List<PendingVote> batch) {
+		this.voteBatchRepository.insertAll(batch.stream().map(PendingVote::vote).toList());
+
+		// uma única atualização de contagem por sessão do lote
+		Map<UUID, long[]> countsBySession = new LinkedHashMap<>();
+		Map<UUID, TopicVotingSession> sessions = new LinkedHashMap<>();
+		Map<UUID, Instant> lastVotedAtBySession = new LinkedHashMap<>();
+		for (PendingVote pending : batch) {
+			Vote v = pending.vote();
+			UUID sessionUuid = v.getTopicVotingSession().getUuid();
+			sessions.putIfAbsent(sessionUuid, v.getTopicVotingSession());
+			countsBySession.computeIfAbsent(sessionUuid, uuid -> new long[2])[v.getVote() ? 0 : 1]++;
+			lastVotedAtBySession.merge(sessionUuid, v.getVotedAt(), (a, b) -> a.isAfter(b) ? a : b);
+		}
+
+		for (Map.Entry<UUID, long[]> entry : countsBySession.entrySet()) {
+			this.voteTallyService.increment(
+					sessions.get(entry.getKey()),
+					entry.getValue()[0],
+					entry.getValue()[1],
+					lastVotedAtBySession.get(entry.getKey())
+			);
+		}
+	}
+
+	private void complete(List<PendingVote> batch, VoteTicketStatus status, String message) {
+		Instant expiresAt = Instant.now().plus(this.properties.ticketRetention());
+		for (PendingVote pending : batch) {
+			if (VoteTicketStatus.ACCEPTED.equals(status)) {
+				this.voterRegistry.register(pending.vote().getTopicVotingSession(), pending.vote().getCpf());
+				this.metrics.count(Outcome.ACCEPTED);
+			}
+			this.tickets.put(pending.ticket(), new Ticket(status, message, expiresAt));
+			this.inFlight.remove(pending.key());
+			this.end(pending.vote().getTopicVotingSession().getUuid());
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+package com.emerson.desafiovotacao.service.vote.registry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Conjunto de valores {@code long} não negativos armazenado fora do heap, em um {@link ByteBuffer} direto,
+ * com endereçamento aberto e sondagem linear.
+ * 
+ * Cada posição ocupa 8 bytes e guarda o valor somado de 1, de modo que a posição zerada indique posição livre.
+ * As consultas usam leitura otimista do {@link StampedLock} e não alocam memória; as inserções são exclusivas e
+ * dobram a capacidade quando a ocupação passa de 50%.
+ * 
+ * O buffer não é liberado explicitamente, pois uma consulta otimista concorrente ainda pode lê-lo: a memória de um
+ * buffer substituído no crescimento, ou de um conjunto descartado, só é devolvida quando o buffer é coletado pelo GC
+ * (limitada por {@code -XX:MaxDirectMemorySize}).
+ * 
+ * @author Emerson Oliveira
+ */
+public final class OffHeapLongHashSet {
+	
+	private static final int SLOT_BYTES = Long.BYTES;
+	
+	private static final int MIN_CAPACITY = 1 << 10;
+	
+	private static final int MAX_CAPACITY = 1 << 27;
+	
+	private final StampedLock lock = new StampedLock();
+	
+	private final int maxCapacity;
+	
+	private volatile ByteBuffer slots;
+	
+	private int size;
+	
+	/**
+	 * @param expectedSize Quantidade de valores esperada, usada para dimensionar a capacidade inicial.
+	 */
+	public OffHeapLongHashSet(int expectedSize) {
+		this(expectedSize, MAX_CAPACITY);
+	}
+	
+	/**
+	 * @param expectedSize Quantidade de valores esperada, usada para dimensionar a capacidade inicial.
+	 * @param maxCapacity Capacidade máxima (potência de 2), em posições.
+	 */
+	OffHeapLongHashSet(int expectedSize, int maxCapacity) {
+		this.maxCapacity = maxCapacity;
+		this.allocate(capacityFor(expectedSize, maxCapacity));
+	}
+	
+	/**
+	 * Adiciona um valor ao conjunto.
+	 * 
+	 * @param value O valor a ser adicionado (não negativo).
+	 * @return {@code true} caso o valor ainda não estivesse no conjunto.
+	 * @throws IllegalArgumentException Caso o valor seja negativo.
+	 * @throws IllegalStateException Caso o conjunto esteja na capacidade máxima; o valor não é adicionado.
+	 */
+	public boolean add(long value) {
+		if (value < 0 || value == Long.MAX_VALUE)
+			throw new IllegalArgumentException("Valor fora do intervalo suportado: " + value);
+		
+		long stamp = this.lock.writeLock();
+		try {
+			// cresce antes da inserção, para que um conjunto na capacidade máxima recuse o valor sem passar de 50% de ocupação
+			if ((this.size + 1L) * 2 > capacity(this.slots) && !find(this.slots, value + 1))
+				this.grow();
+			
+			if (!insert(this.slots, value + 1))
+				return false;
+			
+			this.size++;
+			return true;
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Verifica se um valor está no conjunto.
+	 * 
+	 * @param value O valor a ser consultado.
+	 * @return {@code true} caso o valor esteja no conjunto.
+	 */
+	public boolean contains(long value) {
+		if (value < 0 || value == Long.MAX_VALUE)
+			return false;
+		
+		long stamp = this.lock.tryOptimisticRead();
+		boolean found = find(this.slots, value + 1);
+		if (this.lock.validate(stamp))
+			return found;
+		
+		// houve inserção concorrente: repete a consulta com leitura bloqueante
+		stamp = this.lock.readLock();
+		try {
+			return find(this.slots, value + 1);
+		} finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * @return A quantidade de valores no conjunto.
+	 */
+	public int size() {
+		long stamp = this.lock.readLock();
+		try {
+			return this.size;
+		} finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * @return A memória fora do heap ocupada pelo conjunto, em bytes.
+	 */
+	public long memoryFootprint() {
+		long stamp = this.lock.readLock();
+		try {
+			return (long) this.slots.capacity();
+		} finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+	
+	private void grow() {
+		ByteBuffer previous = this.slots;
+		int previousCapacity = capacity(previous);
+		if (previousCapacity >= this.maxCapacity)
+			throw new IllegalStateException("Capacidade máxima do conjunto atingida.");
+		
+		// o novo buffer só é publicado depois de preenchido
+		ByteBuffer grown = ByteBuffer.allocateDirect(previousCapacity * 2 * SLOT_BYTES).order(ByteOrder.nativeOrder());
+		for (int i = 0; i < previousCapacity; i++) {
+			long stored = previous.getLong(i * SLOT_BYTES);
+			if (stored != 0)
+				insert(grown, stored);
+		}
+		this.slots = grown;
+	}
+	
+	private void allocate(int capacity) {
+		this.slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+	}
+	
+	private static int capacity(ByteBuffer slots) {
+		return slots.capacity() / SLOT_BYTES;
+	}
+	
+	private static boolean insert(ByteBuffer slots, long stored) {
+		int mask = capacity(slots) - 1;
+		int i = index(stored, mask);
+		while (true) {
+			long current = slots.getLong(i * SLOT_BYTES);
+			if (current == stored)
+				return false;
+			if (current == 0) {
+				slots.putLong(i * SLOT_BYTES, stored);
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+	
+	private static boolean find(ByteBuffer slots, long stored) {
+		// a máscara é derivada do próprio buffer, que pode ter sido trocado por uma inserção concorrente
+		int mask = capacity(slots) - 1;
+		int i = index(stored, mask);
+		// a ocupação máxima de 50% garante uma posição livre, mas limita a sondagem caso a leitura otimista veja um estado inconsistente
+		for (int probes = 0; probes <= mask; probes++) {
+			long current = slots.getLong(i * SLOT_BYTES);
+			if (current == stored)
+				return true;
+			if (current == 0)
+				return false;
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+	
+	private static int index(long value, int mask) {
+		// finalizador do MurmurHash3, para espalhar CPFs próximos por todo o conjunto
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return (int) value & mask;
+	}
+	
+	private static int capacityFor(int expectedSize, int maxCapacity) {
+		int capacity = Math.min(MIN_CAPACITY, maxCapacity);
+		while (capacity < maxCapacity && capacity < (long) expectedSize * 2)
+			capacity <<= 1;
+		return capacity;
+	}
+
+}
@@ -0,0 +1,218 @@
+package com.emerson.desafiovotacao.service.vote.registry;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.external.Cpf;
+import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.transaction.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registro em memória dos associados que já votaram em cada sessão de votação aberta.
+ * 
+ * Para cada sessão aberta é mantido um {@link OffHeapLongHashSet} com os CPFs (como {@code long}) que já votaram na pauta,
+ * carregado da tabela de votos na inicialização da aplicação e na abertura da sessão e removido do registro quando a
+ * sessão termina. Permite recusar votos repetidos sem consultar o banco de dados; votos não encontrados no registro
+ * continuam protegidos pela restrição única (pauta, CPF) da tabela de votos.
+ * 
+ * A memória fora do heap de uma sessão removida só é devolvida quando o seu buffer é coletado pelo GC (ver
+ * {@link OffHeapLongHashSet}); a métrica {@code votacao.vote.registry.memory} considera apenas as sessões no registro.
+ * Uma sessão cujo conjunto atinge a capacidade máxima deixa de ser acompanhada, e os votos repetidos nela passam a ser
+ * recusados apenas pela restrição única.
+ * 
+ * @author Emerson Oliveira
+ */
+@Service
+@Slf4j
+public class VoterRegistry {
+	
+	private static final String SELECT_TOPIC_CPFS = "SELECT cpf FROM vote WHERE topic_uuid = ?";
+	
+	private static final String COUNT_TOPIC_VOTES = "SELECT COUNT(*) FROM vote WHERE topic_uuid = ?";
+	
+	private record Session(UUID topicUuid, Instant endTime, OffHeapLongHashSet voters) {
+	}
+	
+	@Autowired
+	private VoterRegistryProperties properties;
+	
+	@Autowired
+	private TopicVotingSessionRepository votingSessionRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+	
+	@PostConstruct
+	void registerMeters() {
+		Gauge.builder("votacao.vote.registry.sessions", this.sessions, Map::size)
+			 .description("Sessões de votação abertas no registro de votantes")
+			 .register(this.meterRegistry);
+		Gauge.builder("votacao.vote.registry.voters", this, VoterRegistry::getVotersCount)
+			 .description("Associados no registro de votantes")
+			 .register(this.meterRegistry);
+		Gauge.builder("votacao.vote.registry.memory", this, VoterRegistry::getMemoryFootprint)
+			 .description("Memória fora do heap ocupada pelas sessões no registro de votantes, sem os buffers removidos ainda não coletados pelo GC")
+			 .baseUnit("bytes")
+			 .register(this.meterRegistry);
+	}
+	
+	/**
+	 * Carrega no registro todas as sessões de votação abertas na inicialização da aplicação.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		if (!this.properties.enabled())
+			return;
+		
+		for (TopicVotingSession s : this.votingSessionRepository.findByEndTimeGreaterThan(Instant.now()))
+			this.load(s);
+		
+		log.info(String.format("Registro de votantes carregado: %s sessões, %s associados, %s bytes.", 
+				this.sessions.size(), this.getVotersCount(), this.getMemoryFootprint()));
+	}
+	
+	/**
+	 * Carrega no registro uma sessão de votação recém-aberta, com os associados que já votaram na pauta.
+	 * 
+	 * Caso haja uma transação em andamento, a sessão só é carregada após o commit.
+	 * 
+	 * @param topicVotingSession A sessão de votação aberta.
+	 */
+	public void open(TopicVotingSession topicVotingSession) {
+		if (!this.properties.enabled())
+			return;
+		
+		TransactionCallbacks.afterCommit(() -> this.load(topicVotingSession));
+	}
+	
+	/**
+	 * Indica se a sessão de votação está carregada no registro.
+	 * 
+	 * @param topicVotingSession A sessão de votação.
+	 * @return {@code true} caso a sessão esteja no registro.
+	 */
+	public boolean isTracking(TopicVotingSession topicVotingSession) {
+		return this.sessions.containsKey(topicVotingSession.getUuid());
+	}
+	
+	/**
+	 * Verifica, sem consultar o banco de dados, se o associado já votou na pauta da sessão de votação.
+	 * 
+	 * @param topicVotingSession A sessão de votação.
+	 * @param cpf O CPF (apenas números) do associado.
+	 * @return {@code true} caso o associado esteja no registro da sessão; {@code false} caso não esteja
+	 * ou a sessão não esteja carregada no registro.
+	 */
+	public boolean hasVoted(TopicVotingSession topicVotingSession, String cpf) {
+		Session s = this.sessions.get(topicVotingSession.getUuid());
+		if (s == null)
+			return false;
+		
+		long key = Cpf.toLong(cpf);
+		return key >= 0 && s.voters().contains(key);
+	}
+	
+	/**
+	 * Registra o voto de um associado na sessão de votação.
+	 * 
+	 * Caso haja uma transação em andamento, o associado só é registrado após o commit.
+	 * 
+	 * @param topicVotingSession A sessão de votação.
+	 * @param cpf O CPF (apenas números) do associado.
+	 */
+	public void register(TopicVotingSession topicVotingSession, String cpf) {
+		long key = Cpf.toLong(cpf);
+		if (key < 0 || !this.isTracking(topicVotingSession))
+			return;
+		
+		TransactionCallbacks.afterCommit(() -> {
+			Session s = this.sessions.get(topicVotingSession.getUuid());
+			if (s == null)
+				return;
+			
+			// o voto já foi confirmado: uma falha aqui não pode chegar à requisição
+			try {
+				s.voters().add(key);
+			} catch (IllegalStateException e) {
+				this.untrack(topicVotingSession.getUuid(), s, e);
+			}
+		});
+	}
+	
+	/**
+	 * Remove do registro as sessões de votação já encerradas. A memória fora do heap de cada uma é devolvida
+	 * quando o seu buffer for coletado pelo GC.
+	 */
+	@Scheduled(fixedDelay = 10_000)
+	public void releaseExpired() {
+		Instant now = Instant.now();
+		this.sessions.entrySet().removeIf(e -> {
+			if (e.getValue().endTime().isAfter(now))
+				return false;
+			
+			log.info(String.format("Sessão %s encerrada: removida do registro de votantes (%s bytes fora do heap, devolvidos na coleta do buffer pelo GC).", 
+					e.getKey(), e.getValue().voters().memoryFootprint()));
+			return true;
+		});
+	}
+	
+	/**
+	 * @return A quantidade de associados registrados em todas as sessões abertas.
+	 */
+	public long getVotersCount() {
+		return this.sessions.values().stream().mapToLong(s -> s.voters().size()).sum();
+	}
+	
+	/**
+	 * @return A memória fora do heap ocupada pelo registro, em bytes.
+	 */
+	public long getMemoryFootprint() {
+		return this.sessions.values().stream().mapToLong(s -> s.voters().memoryFootprint()).sum();
+	}
+	
+	private void load(TopicVotingSession topicVotingSession) {
+		if (!topicVotingSession.getEndTime().isAfter(Instant.now()))
+			return;
+		
+		UUID topicUuid = topicVotingSession.getTopic().getUuid();
+		Long votes = this.jdbcTemplate.queryForObject(COUNT_TOPIC_VOTES, Long.class, topicUuid);
+		OffHeapLongHashSet voters = new OffHeapLongHashSet((int) Math.min(votes != null ? votes : 0, Integer.MAX_VALUE));
+		
+		// registra a sessão antes de ler os votos, para que votos confirmados durante a carga também sejam registrados
+		Session session = new Session(topicUuid, topicVotingSession.getEndTime(), voters);
+		this.sessions.put(topicVotingSession.getUuid(), session);
+		try {
+			this.jdbcTemplate.query(SELECT_TOPIC_CPFS, rs -> {
+				voters.add(rs.getLong(1));
+			}, topicUuid);
+		} catch (IllegalStateException e) {
+			this.untrack(topicVotingSession.getUuid(), session, e);
+		}
+	}
+	
+	private void untrack(UUID topicVotingSessionUuid, Session session, IllegalStateException cause) {
+		if (this.sessions.remove(topicVotingSessionUuid, session))
+			log.warn(String.format("Sessão %s removida do registro de votantes: %s", topicVotingSessionUuid, cause.getMessage()));
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.emerson.desafiovotacao.service.vote.registry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações do registro em memória dos associados que já votaram em cada sessão aberta.
+ * 
+ * @param enabled Indica se o registro está ativo. Quando inativo, votos duplicados são recusados apenas pelo banco de dados.
+ */
+@ConfigurationProperties(prefix = "votacao.vote.registry")
+public record VoterRegistryProperties(
+		@DefaultValue("true") boolean enabled
+) {
+
+}
@@ -0,0 +1,19 @@
+package com.emerson.desafiovotacao.service.vote.snapshot;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações dos resultados imutáveis das sessões de votação encerradas.
+ * 
+ * @param delay Tempo, após o término de uma sessão, antes do seu resultado ser gravado, e intervalo entre as novas
+ * tentativas enquanto a sessão ainda possuir votos não confirmados.
+ */
+@ConfigurationProperties(prefix = "votacao.vote.results.snapshot")
+public record VoteResultSnapshotProperties(
+		@DefaultValue("10s") Duration delay
+) {
+
+}
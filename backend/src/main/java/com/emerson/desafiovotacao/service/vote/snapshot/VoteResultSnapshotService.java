@@ -0,0 +1,257 @@
+package com.emerson.desafiovotacao.service.vote.snapshot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.TopicResult;
+import com.emerson.desafiovotacao.domain.vote.VotingSessionResult;
+import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.repository.vote.TopicResultRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.repository.vote.VotingSessionResultRepository;
+import com.emerson.desafiovotacao.service.vote.VoteTallyService;
+import com.emerson.desafiovotacao.service.vote.dto.VoteCountDto;
+import com.emerson.desafiovotacao.service.vote.ingestion.VoteIngestionService;
+import com.emerson.desafiovotacao.transaction.TransactionCallbacks;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pelos resultados imutáveis das sessões de votação encerradas ({@link VotingSessionResult})
+ * e das pautas cujas sessões estão todas encerradas ({@link TopicResult}).
+ *
+ * O resultado de cada sessão é contado uma única vez a partir da tabela de votos, pouco após o término da sessão
+ * (agendado na abertura da sessão). Quando a sessão encerrada é a mais recente da pauta, também é gravado o resultado
+ * da pauta. Na inicialização da aplicação, são gravados os resultados das sessões encerradas enquanto ela estava parada.
+ *
+ * Um voto aceito antes do término pode ser confirmado depois dele (transações longas e, na recepção assíncrona, votos
+ * enfileirados). Por isso, o resultado só é gravado quando não há votos da sessão ainda não confirmados
+ * ({@link VoteIngestionService#hasPendingVotes(UUID)}) e a contagem consolidada da sessão confere com a tabela de votos;
+ * caso contrário, a gravação é adiada.
+ *
+ * @author Emerson Oliveira
+ */
+@Service
+@Slf4j
+public class VoteResultSnapshotService {
+
+	private static final int CATCH_UP_PAGE_SIZE = 500;
+
+	private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+	private enum Snapshot {
+		WRITTEN, SKIPPED, NOT_SETTLED
+	}
+
+	@Autowired
+	private VoteResultSnapshotProperties properties;
+
+	@Autowired
+	private TopicVotingSessionRepository votingSessionRepository;
+
+	@Autowired
+	private VotingSessionResultRepository votingSessionResultRepository;
+
+	@Autowired
+	private TopicResultRepository topicResultRepository;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private VoteTallyService voteTallyService;
+
+	@Autowired
+	private VoteIngestionService voteIngestionService;
+
+	@Autowired
+	private TaskScheduler taskScheduler;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transaction;
+
+	@PostConstruct
+	void init() {
+		this.transaction = new TransactionTemplate(this.transactionManager);
+		this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Grava os resultados das sessões encerradas que ainda não possuem resultado (ex.: encerradas com a aplicação parada)
+	 * e agenda a gravação dos resultados das sessões ainda abertas.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void catchUp() {
+		Instant now = Instant.now();
+		Instant finishedBefore = now.minus(this.properties.delay());
+
+		long finalized = 0;
+		while (true) {
+			List<UUID> sessionsUuids = this.votingSessionRepository.findUuidsWithoutResultByEndTimeLessThanEqual(finishedBefore, Limit.of(CATCH_UP_PAGE_SIZE));
+			long pageFinalized = sessionsUuids.stream().filter(this::finalizeSession).count();
+			finalized += pageFinalized;
+
+			// sessões que falharam continuam sem resultado e são tentadas novamente pelo agendamento
+			if (sessionsUuids.size() < CATCH_UP_PAGE_SIZE || pageFinalized == 0)
+				break;
+		}
+
+		List<TopicVotingSession> pending = this.votingSessionRepository.findByEndTimeGreaterThan(finishedBefore);
+		pending.forEach(this::schedule);
+
+		log.info(String.format("%s resultados de sessões encerradas gravados na inicialização, %s sessões agendadas.", finalized, pending.size()));
+	}
+
+	/**
+	 * Agenda a gravação do resultado de uma sessão de votação para logo após o seu término.
+	 *
+	 * Caso haja uma transação em andamento, a gravação só é agendada após o commit.
+	 *
+	 * @param topicVotingSession A sessão de votação.
+	 */
+	public void schedule(TopicVotingSession topicVotingSession) {
+		UUID sessionUuid = topicVotingSession.getUuid();
+		Instant at = topicVotingSession.getEndTime().plus(this.properties.delay());
+		TransactionCallbacks.afterCommit(() -> this.taskScheduler.schedule(() -> this.finalizeSession(sessionUuid), at));
+	}
+
+	/**
+	 * Obtém o resultado imutável de uma pauta, caso todas as suas sessões de votação estejam encerradas e o resultado
+	 * já tenha sido gravado.
+	 *
+	 * @param topic A pauta.
+	 * @param now O momento da consulta.
+	 * @return O resultado da pauta, ou vazio caso a pauta possua sessão aberta (ou nenhuma sessão) ou o resultado ainda não tenha sido gravado.
+	 */
+	public Optional<TopicResult> getTopicResult(Topic topic, Instant now) {
+		if (topic.getLatestVotingSession() == null || topic.getLatestVotingSessionEndTime().isAfter(now))
+			return Optional.empty();
+
+		return this.topicResultRepository.findByLatestVotingSessionUuid(topic.getLatestVotingSession().getUuid());
+	}
+
+	/**
+	 * Obtém os resultados imutáveis das sessões de votação de uma pauta, ordenados pelo início da sessão.
+	 *
+	 * @param topicUuid O identificador único da pauta.
+	 * @return Os resultados das sessões encerradas da pauta que já possuem resultado, com as respectivas sessões.
+	 */
+	public List<VotingSessionResult> getVotingSessionResults(UUID topicUuid) {
+		return this.votingSessionResultRepository.findByTopicUuid(topicUuid);
+	}
+
+	/**
+	 * Grava o resultado de uma sessão de votação encerrada e, caso ela seja a sessão mais recente da pauta,
+	 * o resultado da pauta. Em caso de falha, a gravação é tentada novamente após {@link #RETRY_DELAY}.
+	 *
+	 * Caso a sessão ainda possua votos não confirmados, ou a sua contagem consolidada ainda não confira com a tabela
+	 * de votos, a gravação é adiada pelo tempo de espera configurado ({@link VoteResultSnapshotProperties#delay()}).
+	 *
+	 * @param topicVotingSessionUuid O identificador único da sessão de votação.
+	 * @return {@code true} caso o resultado tenha sido gravado; {@code false} caso a sessão não exista, ainda não
+	 * tenha terminado, já possua resultado ou a gravação tenha sido adiada.
+	 */
+	public boolean finalizeSession(UUID topicVotingSessionUuid) {
+		try {
+			Snapshot snapshot = this.voteIngestionService.hasPendingVotes(topicVotingSessionUuid)
+					? Snapshot.NOT_SETTLED
+					: this.transaction.execute(status -> this.snapshot(topicVotingSessionUuid));
+			if (Snapshot.NOT_SETTLED.equals(snapshot)) {
+				log.info(String.format("Sessão %s ainda possui votos não confirmados; resultado adiado por %s.", topicVotingSessionUuid, this.properties.delay()));
+				this.taskScheduler.schedule(() -> this.finalizeSession(topicVotingSessionUuid), Instant.now().plus(this.properties.delay()));
+			}
+			return Snapshot.WRITTEN.equals(snapshot);
+		} catch (DataIntegrityViolationException e) {
+			// resultado gravado ao mesmo tempo por outra execução (ou outra instância da aplicação)
+			return false;
+		} catch (RuntimeException e) {
+			log.error(String.format("Falha ao gravar o resultado da sessão %s; nova tentativa em %s.", topicVotingSessionUuid, RETRY_DELAY), e);
+			this.taskScheduler.schedule(() -> this.finalizeSession(topicVotingSessionUuid), Instant.now().plus(RETRY_DELAY));
+			return false;
+		}
+	}
+
+	private Snapshot snapshot(UUID topicVotingSessionUuid) {
+		Instant now = Instant.now();
+		TopicVotingSession topicVotingSession = this.votingSessionRepository.findById(topicVotingSessionUuid).orElse(null);
+		if (topicVotingSession == null || topicVotingSession.getEndTime().isAfter(now)
+				|| this.votingSessionResultRepository.existsByTopicVotingSessionUuid(topicVotingSessionUuid))
+			return Snapshot.SKIPPED;
+
+		// contagem consolidada divergente: votos confirmados ainda não contabilizados (ou uma divergência a corrigir)
+		VoteCountDto count = this.voteRepository.countByTopicVotingSessionUuid(topicVotingSessionUuid);
+		VoteCountDto tally = this.voteTallyService.getCount(topicVotingSessionUuid).orElse(null);
+		if (tally != null && (tally.favorableVotes() != count.favorableVotes() || tally.againstVotes() != count.againstVotes()))
+			return Snapshot.NOT_SETTLED;
+
+		this.save(topicVotingSession, count, now);
+
+		Topic topic = topicVotingSession.getTopic();
+		if (topic.getLatestVotingSession() != null && topicVotingSessionUuid.equals(topic.getLatestVotingSession().getUuid()))
+			this.snapshot(topic, topicVotingSession, now);
+
+		return Snapshot.WRITTEN;
+	}
+
+	private void snapshot(Topic topic, TopicVotingSession latestVotingSession, Instant now) {
+		Map<UUID, VotingSessionResult> results = new HashMap<>();
+		for (VotingSessionResult r : this.votingSessionResultRepository.findByTopicUuid(topic.getUuid()))
+			results.put(r.getTopicVotingSession().getUuid(), r);
+
+		long favorableVotes = 0;
+		long againstVotes = 0;
+		for (TopicVotingSession s : this.votingSessionRepository.findByTopicUuid(topic.getUuid())) {
+			if (s.getEndTime().isAfter(now))
+				return;
+
+			// sessões anteriores ainda sem resultado (ex.: encerradas antes dos resultados existirem)
+			VotingSessionResult result = results.get(s.getUuid());
+			if (result == null)
+				result = this.save(s, this.voteRepository.countByTopicVotingSessionUuid(s.getUuid()), now);
+
+			favorableVotes += result.getFavorableVotes();
+			againstVotes += result.getAgainstVotes();
+		}
+
+		this.topicResultRepository.save(TopicResult.builder()
+												   .topic(topic)
+												   .latestVotingSession(latestVotingSession)
+												   .favorableVotes(favorableVotes)
+												   .againstVotes(againstVotes)
+												   .finalizedAt(now)
+												   .build());
+		log.info(String.format("Resultado final da pauta \"%s\" gravado: %s votos favoráveis, %s contrários.", topic.getTitle(), favorableVotes, againstVotes));
+	}
+
+	private VotingSessionResult save(TopicVotingSession topicVotingSession, VoteCountDto count, Instant now) {
+		return this.votingSessionResultRepository.save(VotingSessionResult.builder()
+																		  .topicVotingSession(topicVotingSession)
+																		  .favorableVotes(count.favorableVotes())
+																		  .againstVotes(count.againstVotes())
+																		  .lastVotedAt(count.lastVotedAt())
+																		  .finalizedAt(now)
+																		  .build());
+	}
+
+}
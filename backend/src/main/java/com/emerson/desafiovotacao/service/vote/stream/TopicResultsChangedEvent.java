@@ -0,0 +1,12 @@
+package com.emerson.desafiovotacao.service.vote.stream;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado quando o resultado de uma pauta pode ter mudado (novos votos ou abertura de sessão).
+ * 
+ * @param topicUuid O identificador único da pauta.
+ */
+public record TopicResultsChangedEvent(UUID topicUuid) {
+
+}
@@ -0,0 +1,22 @@
+package com.emerson.desafiovotacao.service.vote.stream;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações da transmissão (Server-Sent Events) dos resultados das pautas.
+ * 
+ * @param interval Intervalo entre as transmissões; votos recebidos nesse intervalo geram no máximo um evento por pauta.
+ * @param timeout Tempo máximo de cada conexão; após esse tempo o cliente deve se reconectar.
+ * @param heartbeat Tempo sem eventos após o qual um comentário é enviado, para manter a conexão e detectar clientes desconectados.
+ */
+@ConfigurationProperties(prefix = "votacao.vote.results.stream")
+public record VoteResultsStreamProperties(
+		@DefaultValue("1s") Duration interval,
+		@DefaultValue("30m") Duration timeout,
+		@DefaultValue("15s") Duration heartbeat
+) {
+
+}
@@ -0,0 +1,278 @@
+package com.emerson.desafiovotacao.service.vote.stream;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.emerson.desafiovotacao.exception.http.NotFoundException;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.vote.VoteResultsService;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVoteResultsDto;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVotingSessionStatus;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVotingSessionVotesDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pela transmissão dos resultados das pautas em tempo real, via Server-Sent Events.
+ *
+ * Os votos apenas marcam a pauta como alterada; a cada intervalo configurado, o resultado resumido de cada pauta
+ * alterada e com assinantes é calculado e serializado uma única vez e enviado a todos os assinantes da pauta.
+ * Assim, rajadas de votos geram no máximo um evento por intervalo e o custo do cálculo não depende da quantidade
+ * de assinantes. As conexões usam o processamento assíncrono do servlet e não ocupam uma thread cada.
+ *
+ * A transmissão apenas calcula e serializa os resultados: a escrita de cada assinante é feita em uma thread virtual
+ * própria, de modo que um cliente lento não atrasa os demais. Enquanto um envio está em andamento, apenas o evento
+ * mais recente do assinante aguarda a sua vez; os intermediários são descartados.
+ *
+ * @author Emerson Oliveira
+ */
+@Service
+@Slf4j
+public class VoteResultsStreamService {
+
+	public static final String RESULTS_EVENT = "results";
+
+	/** Evento pendente de um assinante que não possui resultado a receber, apenas um comentário de manutenção da conexão. */
+	private static final String HEARTBEAT = new String();
+
+	private static final class Subscriber {
+
+		private final SseEmitter emitter;
+
+		/** Próximo evento a enviar (resultado serializado ou {@link #HEARTBEAT}), ou {@code null} caso não haja envio em andamento. */
+		private final AtomicReference<String> pending = new AtomicReference<>();
+
+		private Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+	}
+
+	private static final class Channel {
+
+		private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+		/** Indica que o resultado da pauta pode ter mudado desde o último evento. */
+		private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+		/** Último resultado enviado, já serializado, entregue imediatamente a novos assinantes. */
+		private volatile String lastPayload;
+
+		/** Término da próxima sessão aberta da pauta, quando a situação da sessão muda para encerrada. */
+		private volatile Instant nextStatusChange;
+
+		private volatile long lastSentAt = System.nanoTime();
+
+	}
+
+	@Autowired
+	private VoteResultsStreamProperties properties;
+
+	@Autowired
+	private VoteResultsService voteResultsService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService broadcaster;
+
+	private ExecutorService senders;
+
+	@PostConstruct
+	void start() {
+		Gauge.builder("votacao.vote.results.stream.topics", this.channels, Map::size)
+			 .description("Pautas com assinantes dos resultados em tempo real")
+			 .register(this.meterRegistry);
+		Gauge.builder("votacao.vote.results.stream.subscribers", this, VoteResultsStreamService::getSubscribersCount)
+			 .description("Assinantes dos resultados em tempo real")
+			 .register(this.meterRegistry);
+
+		// thread própria para o cálculo dos resultados; os envios, que bloqueiam no socket, usam threads virtuais
+		long interval = this.properties.interval().toMillis();
+		this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("vote-results-stream-send-", 0).factory());
+		this.broadcaster = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("vote-results-stream").daemon().factory());
+		this.broadcaster.scheduleWithFixedDelay(this::broadcast, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() {
+		this.broadcaster.shutdownNow();
+		this.senders.shutdownNow();
+		this.channels.values().forEach(c -> c.subscribers.forEach(s -> s.emitter.complete()));
+		this.channels.clear();
+	}
+
+	/**
+	 * Inscreve um novo assinante nos resultados de uma pauta.
+	 *
+	 * O assinante recebe imediatamente o último resultado transmitido da pauta (ou, caso a pauta ainda não tenha
+	 * assinantes, o resultado calculado na próxima transmissão) e, depois, um evento a cada mudança no resultado.
+	 *
+	 * @param topicUuid O identificador único da pauta.
+	 * @return O emissor dos eventos do assinante.
+	 * @throws NotFoundException Caso a pauta não seja encontrada.
+	 */
+	public SseEmitter subscribe(UUID topicUuid) {
+		this.topicService.getCached(topicUuid);
+
+		SseEmitter emitter = new SseEmitter(this.properties.timeout().toMillis());
+		Subscriber subscriber = new Subscriber(emitter);
+		Channel channel = this.channels.compute(topicUuid, (uuid, c) -> {
+			c = c != null ? c : new Channel();
+			c.subscribers.add(subscriber);
+			return c;
+		});
+
+		emitter.onCompletion(() -> this.unsubscribe(topicUuid, subscriber));
+		emitter.onTimeout(() -> this.unsubscribe(topicUuid, subscriber));
+		emitter.onError(e -> this.unsubscribe(topicUuid, subscriber));
+
+		String payload = channel.lastPayload;
+		if (payload != null)
+			this.send(topicUuid, subscriber, payload);
+		else
+			channel.dirty.set(true);
+
+		return emitter;
+	}
+
+	/**
+	 * Marca o resultado de uma pauta como alterado após o commit da transação que o alterou.
+	 *
+	 * @param event O evento de alteração do resultado da pauta.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTopicResultsChanged(TopicResultsChangedEvent event) {
+		Channel channel = this.channels.get(event.topicUuid());
+		if (channel != null)
+			channel.dirty.set(true);
+	}
+
+	/**
+	 * Envia o resultado atualizado de cada pauta alterada (ou cuja sessão foi encerrada) a todos os seus assinantes.
+	 *
+	 * Pautas sem alteração recebem apenas um comentário quando ficam sem eventos por mais tempo que o configurado.
+	 */
+	void broadcast() {
+		for (Map.Entry<UUID, Channel> entry : this.channels.entrySet()) {
+			try {
+				this.broadcast(entry.getKey(), entry.getValue());
+			} catch (RuntimeException e) {
+				log.error(String.format("Erro ao transmitir os resultados da pauta %s", entry.getKey()), e);
+			}
+		}
+	}
+
+	private void broadcast(UUID topicUuid, Channel channel) {
+		Instant nextStatusChange = channel.nextStatusChange;
+		boolean statusChanged = nextStatusChange != null && !Instant.now().isBefore(nextStatusChange);
+
+		if (channel.dirty.getAndSet(false) || statusChanged) {
+			TopicVoteResultsDto results = this.voteResultsService.getResultsByTopicUuid(topicUuid, true);
+			channel.nextStatusChange = results.votingSessionsVotes()
+											  .stream()
+											  .filter(s -> TopicVotingSessionStatus.OPEN.equals(s.status()))
+											  .map(TopicVotingSessionVotesDto::endTime)
+											  .min(Instant::compareTo)
+											  .orElse(null);
+
+			String payload = this.serialize(results);
+			if (!payload.equals(channel.lastPayload)) {
+				channel.lastPayload = payload;
+				channel.lastSentAt = System.nanoTime();
+				for (Subscriber subscriber : channel.subscribers)
+					this.send(topicUuid, subscriber, payload);
+				return;
+			}
+		}
+
+		if (System.nanoTime() - channel.lastSentAt >= this.properties.heartbeat().toNanos()) {
+			channel.lastSentAt = System.nanoTime();
+			for (Subscriber subscriber : channel.subscribers) {
+				// um assinante com envio em andamento já mantém a conexão ativa
+				if (subscriber.pending.compareAndSet(null, HEARTBEAT))
+					this.senders.execute(() -> this.drain(topicUuid, subscriber));
+			}
+		}
+	}
+
+	/**
+	 * Agenda o envio de um resultado ao assinante, substituindo o evento que ainda aguarda envio, caso exista.
+	 */
+	private void send(UUID topicUuid, Subscriber subscriber, String payload) {
+		if (subscriber.pending.getAndSet(payload) == null)
+			this.senders.execute(() -> this.drain(topicUuid, subscriber));
+	}
+
+	/**
+	 * Envia os eventos pendentes do assinante, um por vez, até que nenhum novo evento seja agendado durante o envio.
+	 */
+	private void drain(UUID topicUuid, Subscriber subscriber) {
+		String event = subscriber.pending.get();
+		while (true) {
+			try {
+				if (event == HEARTBEAT)
+					subscriber.emitter.send(SseEmitter.event().comment(""));
+				else
+					subscriber.emitter.send(SseEmitter.event().name(RESULTS_EVENT).data(event, MediaType.APPLICATION_JSON));
+			} catch (IOException | IllegalStateException e) {
+				this.unsubscribe(topicUuid, subscriber);
+				return;
+			}
+
+			if (subscriber.pending.compareAndSet(event, null))
+				return;
+			event = subscriber.pending.get();
+		}
+	}
+
+	private void unsubscribe(UUID topicUuid, Subscriber subscriber) {
+		this.channels.computeIfPresent(topicUuid, (uuid, channel) -> {
+			channel.subscribers.remove(subscriber);
+			return channel.subscribers.isEmpty() ? null : channel;
+		});
+	}
+
+	private String serialize(TopicVoteResultsDto results) {
+		try {
+			return this.objectMapper.writeValueAsString(results);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Não foi possível serializar o resultado da pauta", e);
+		}
+	}
+
+	private int getSubscribersCount() {
+		return this.channels.values().stream().mapToInt(c -> c.subscribers.size()).sum();
+	}
+
+}
@@ -0,0 +1,426 @@
+package com.emerson.desafiovotacao.service.vote.tally;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.VoteTally;
+import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteTallyRepository;
+import com.emerson.desafiovotacao.service.vote.dto.VoteCountDto;
+import com.emerson.desafiovotacao.transaction.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Contadores em memória das contagens de votos de cada sessão de votação, usados no modo de contagem {@code MEMORY}.
+ *
+ * Cada sessão possui um par de {@link LongAdder} (votos favoráveis e contrários), que distribuem os incrementos
+ * concorrentes entre células independentes, evitando que a linha da contagem no banco de dados (ou um único contador)
+ * se torne um ponto de disputa entre os votos. Os contadores partem da contagem gravada no banco de dados, lida na
+ * transação do primeiro voto da sessão, e são incrementados somente após o commit de cada voto; um gravador em segundo
+ * plano grava periodicamente, em uma única transação, a diferença entre os contadores e o que já foi gravado de cada sessão.
+ *
+ * Os contadores de uma sessão encerrada só são liberados quando não há votos pendentes de gravação nem transações de
+ * voto em andamento que ainda possam somar a eles: um novo contador da mesma sessão parte, portanto, de uma contagem
+ * gravada que já inclui todos os votos do anterior.
+ *
+ * A gravação e a reconstrução das contagens usam travas explícitas ({@link ReentrantLock}), e não {@code synchronized}:
+ * ambas executam transações no banco de dados e podem ser chamadas a partir de threads virtuais.
+ *
+ * Votos contabilizados em memória e ainda não gravados se perdem em uma queda da aplicação, mas continuam na tabela
+ * de votos: na inicialização, as contagens são reconstruídas a partir dela (ver {@code VoteTallyService}).
+ *
+ * @author Emerson Oliveira
+ */
+@Component
+@Slf4j
+public class VoteTallyCounters {
+
+	private static final String SELECT_TALLY = """
+		SELECT favorable_votes, against_votes, last_voted_at
+		FROM vote_tally
+		WHERE topic_voting_session_uuid = ?
+	""";
+
+	/** Tempo, após o fim da sessão, pelo qual os contadores são mantidos, cobrindo votos confirmados após o encerramento. */
+	private static final Duration RETENTION = Duration.ofMinutes(1);
+
+	private static final long NO_VOTE = Long.MIN_VALUE;
+
+	/** Valor de {@code Counter#transactions} de um contador liberado, que não aceita mais votos. */
+	private static final int RELEASED = -1;
+
+	private static final class Counter {
+
+		private final UUID topicUuid;
+
+		private final Instant endTime;
+
+		private final long baseFavorableVotes;
+
+		private final long baseAgainstVotes;
+
+		private final LongAdder favorableVotes = new LongAdder();
+
+		private final LongAdder againstVotes = new LongAdder();
+
+		/** Momento do voto mais recente, em nanossegundos desde a época. */
+		private final LongAccumulator lastVotedAt;
+
+		/** Transações de voto em andamento que somarão a este contador após o commit, ou {@link #RELEASED}. */
+		private final AtomicInteger transactions = new AtomicInteger();
+
+		// alterados apenas pela gravação, sob a trava de gravação de VoteTallyCounters
+		private volatile long flushedFavorableVotes;
+
+		private volatile long flushedAgainstVotes;
+
+		private Counter(UUID topicUuid, Instant endTime, VoteCountDto base) {
+			this.topicUuid = topicUuid;
+			this.endTime = endTime;
+			this.baseFavorableVotes = base.favorableVotes();
+			this.baseAgainstVotes = base.againstVotes();
+			this.lastVotedAt = new LongAccumulator(Math::max, toNanos(base.lastVotedAt()));
+		}
+
+		private boolean acquire() {
+			int current;
+			do {
+				current = this.transactions.get();
+				if (current == RELEASED)
+					return false;
+			} while (!this.transactions.compareAndSet(current, current + 1));
+			return true;
+		}
+
+		/**
+		 * Libera o contador caso nenhuma transação de voto em andamento possa somar a ele e todos os seus votos
+		 * já tenham sido gravados.
+		 */
+		private boolean tryRelease() {
+			if (this.pendingVotes() != 0 || !this.transactions.compareAndSet(0, RELEASED))
+				return false;
+
+			// um voto pode ter sido somado entre a verificação e a liberação; somente a gravação libera contadores
+			if (this.pendingVotes() == 0)
+				return true;
+
+			this.transactions.set(0);
+			return false;
+		}
+
+		private long pendingVotes() {
+			return this.favorableVotes.sum() - this.flushedFavorableVotes + this.againstVotes.sum() - this.flushedAgainstVotes;
+		}
+
+		private VoteCountDto toCount() {
+			return new VoteCountDto(
+					this.baseFavorableVotes + this.favorableVotes.sum(),
+					this.baseAgainstVotes + this.againstVotes.sum(),
+					toInstant(this.lastVotedAt.get())
+			);
+		}
+
+	}
+
+	@Autowired
+	private VoteTallyProperties properties;
+
+	@Autowired
+	private VoteTallyRepository repository;
+
+	@Autowired
+	private TopicVotingSessionRepository votingSessionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+	private final ReentrantLock flushing = new ReentrantLock();
+
+	/** Mantida para leitura pelas transações de voto e para escrita pela transação que reconstrói as contagens. */
+	private final ReadWriteLock resetting = new ReentrantReadWriteLock();
+
+	private TransactionTemplate transaction;
+
+	private ScheduledExecutorService flusher;
+
+	@PostConstruct
+	void start() {
+		if (!this.isEnabled())
+			return;
+
+		// a gravação não pode participar da transação de quem a solicitou: os contadores só avançam após o próprio commit
+		this.transaction = new TransactionTemplate(this.transactionManager);
+		this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		Gauge.builder("votacao.vote.tally.sessions", this.counters, Map::size)
+			 .description("Sessões de votação com contagem em memória")
+			 .register(this.meterRegistry);
+		Gauge.builder("votacao.vote.tally.pending", this, VoteTallyCounters::getPendingVotes)
+			 .description("Votos contabilizados em memória e ainda não gravados na contagem consolidada")
+			 .register(this.meterRegistry);
+
+		long interval = this.properties.flushInterval().toMillis();
+		this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("vote-tally-flusher").daemon().factory());
+		this.flusher.scheduleWithFixedDelay(() -> {
+			try {
+				this.flush();
+			} catch (RuntimeException e) {
+				// as diferenças não gravadas permanecem nos contadores e são gravadas na próxima execução
+				log.error("Falha ao gravar as contagens de votos em memória.", e);
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+		log.info(String.format("Contagem de votos em memória iniciada (gravação a cada %s).", this.properties.flushInterval()));
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		if (this.flusher == null)
+			return;
+
+		this.flusher.shutdown();
+		this.flusher.awaitTermination(30, TimeUnit.SECONDS);
+		this.flush();
+	}
+
+	/**
+	 * Indica se a contagem de votos em memória está ativa.
+	 *
+	 * @return {@code true} caso os votos devam ser contabilizados nos contadores em memória.
+	 */
+	public boolean isEnabled() {
+		return VoteTallyMode.MEMORY.equals(this.properties.mode());
+	}
+
+	/**
+	 * Contabiliza um conjunto de votos nos contadores da sessão de votação, após o commit da transação atual.
+	 *
+	 * Deve ser chamado na transação em que os votos foram inseridos. Os contadores da sessão são obtidos (ou criados a
+	 * partir da contagem gravada) nessa mesma transação, de modo que uma falha ao ler a contagem desfaz os votos, em vez de
+	 * ocorrer após o commit.
+	 *
+	 * Aguarda caso as contagens estejam sendo reconstruídas (ver {@link #clearAfterCommit()}).
+	 *
+	 * @param topicVotingSession A sessão de votação na qual os votos foram registrados.
+	 * @param favorableVotes A quantidade de votos favoráveis registrados.
+	 * @param againstVotes A quantidade de votos contrários registrados.
+	 * @param lastVotedAt O momento do voto mais recente registrado.
+	 */
+	public void add(TopicVotingSession topicVotingSession, long favorableVotes, long againstVotes, Instant lastVotedAt) {
+		// registrada antes da trava, que é liberada mesmo que a leitura da contagem falhe
+		TransactionCallbacks.afterCompletion(this.resetting.readLock()::unlock);
+		this.resetting.readLock().lock();
+
+		Counter counter = this.acquire(topicVotingSession);
+		TransactionCallbacks.afterCommit(() -> {
+			if (favorableVotes != 0)
+				counter.favorableVotes.add(favorableVotes);
+			if (againstVotes != 0)
+				counter.againstVotes.add(againstVotes);
+			counter.lastVotedAt.accumulate(toNanos(lastVotedAt));
+		});
+		TransactionCallbacks.afterCompletion(counter.transactions::decrementAndGet);
+	}
+
+	/**
+	 * Obtém a contagem de votos da sessão de votação a partir dos contadores em memória.
+	 *
+	 * @param sessionUuid O identificador único da sessão de votação.
+	 * @return A contagem de votos da sessão, ou {@code null} caso a sessão não possua contadores em memória
+	 * (nesse caso, a contagem gravada no banco de dados já inclui todos os seus votos).
+	 */
+	public VoteCountDto get(UUID sessionUuid) {
+		Counter counter = this.counters.get(sessionUuid);
+		return counter != null ? counter.toCount() : null;
+	}
+
+	/**
+	 * Soma as contagens em memória das sessões de votação de uma pauta.
+	 *
+	 * @param topicUuid O identificador único da pauta.
+	 * @return A soma das contagens das sessões da pauta com contadores em memória, com o voto mais recente entre elas.
+	 */
+	public VoteCountDto getByTopic(UUID topicUuid) {
+		long favorableVotes = 0;
+		long againstVotes = 0;
+		long lastVotedAt = NO_VOTE;
+		for (Counter counter : this.counters.values()) {
+			if (!counter.topicUuid.equals(topicUuid))
+				continue;
+
+			VoteCountDto count = counter.toCount();
+			favorableVotes += count.favorableVotes();
+			againstVotes += count.againstVotes();
+			lastVotedAt = Math.max(lastVotedAt, toNanos(count.lastVotedAt()));
+		}
+		return new VoteCountDto(favorableVotes, againstVotes, toInstant(lastVotedAt));
+	}
+
+	/**
+	 * Grava no banco de dados, em uma única transação, os votos contabilizados em memória desde a última gravação
+	 * e libera os contadores das sessões encerradas há mais de {@link #RETENTION}.
+	 *
+	 * @return A quantidade de sessões cujas contagens foram atualizadas.
+	 */
+	public int flush() {
+		if (!this.isEnabled())
+			return 0;
+
+		this.flushing.lock();
+		try {
+			return this.flushDeltas();
+		} finally {
+			this.flushing.unlock();
+		}
+	}
+
+	/**
+	 * Impede que novos votos sejam contabilizados até o término da transação atual e descarta todos os contadores em
+	 * memória, sem gravá-los, após o seu commit: as próximas contagens partem do que foi gravado por ela.
+	 *
+	 * Deve ser chamado no início da transação que corrige as contagens gravadas. Aguarda o término das transações de voto
+	 * em andamento, de modo que nenhum contador seja criado a partir de uma contagem que ainda será corrigida.
+	 */
+	public void clearAfterCommit() {
+		if (!this.isEnabled())
+			return;
+
+		TransactionCallbacks.afterCompletion(this.resetting.writeLock()::unlock);
+		this.resetting.writeLock().lock();
+		TransactionCallbacks.afterCommit(this.counters::clear);
+	}
+
+	private int flushDeltas() {
+
+		record Delta(UUID sessionUuid, Counter counter, long favorableVotes, long againstVotes) {
+		}
+
+		List<Delta> deltas = new ArrayList<>();
+		for (Map.Entry<UUID, Counter> e : this.counters.entrySet()) {
+			Counter counter = e.getValue();
+			long favorableVotes = counter.favorableVotes.sum() - counter.flushedFavorableVotes;
+			long againstVotes = counter.againstVotes.sum() - counter.flushedAgainstVotes;
+			if (favorableVotes != 0 || againstVotes != 0)
+				deltas.add(new Delta(e.getKey(), counter, favorableVotes, againstVotes));
+		}
+
+		if (!deltas.isEmpty()) {
+			this.transaction.executeWithoutResult(status -> {
+				for (Delta d : deltas) {
+					Instant lastVotedAt = toInstant(d.counter().lastVotedAt.get());
+					if (this.repository.increment(d.sessionUuid(), d.favorableVotes(), d.againstVotes(), lastVotedAt) > 0)
+						continue;
+
+					// sessão sem contagem gravada: os contadores partiram de zero e tudo o que já foi somado é a contagem
+					this.repository.save(VoteTally.builder()
+												  .topicVotingSession(this.votingSessionRepository.getReferenceById(d.sessionUuid()))
+												  .favorableVotes(d.favorableVotes())
+												  .againstVotes(d.againstVotes())
+												  .totalVotes(d.favorableVotes() + d.againstVotes())
+												  .lastVotedAt(lastVotedAt)
+												  .build());
+				}
+			});
+
+			for (Delta d : deltas) {
+				d.counter().flushedFavorableVotes += d.favorableVotes();
+				d.counter().flushedAgainstVotes += d.againstVotes();
+			}
+		}
+
+		Instant now = Instant.now();
+		this.counters.values().removeIf(counter -> counter.endTime.plus(RETENTION).isBefore(now) && counter.tryRelease());
+
+		return deltas.size();
+	}
+
+	/**
+	 * Descarta todos os contadores em memória, sem gravá-los. As próximas contagens partem do que está gravado no banco de dados.
+	 */
+	public void clear() {
+		this.flushing.lock();
+		try {
+			this.counters.clear();
+		} finally {
+			this.flushing.unlock();
+		}
+	}
+
+	/**
+	 * @return A quantidade de votos contabilizados em memória e ainda não gravados.
+	 */
+	public long getPendingVotes() {
+		return this.counters.values().stream().mapToLong(Counter::pendingVotes).sum();
+	}
+
+	private Counter acquire(TopicVotingSession topicVotingSession) {
+		UUID sessionUuid = topicVotingSession.getUuid();
+		while (true) {
+			Counter counter = this.counters.get(sessionUuid);
+			if (counter == null) {
+				// a contagem é lida fora do mapa: uma consulta dentro de computeIfAbsent bloquearia outras sessões
+				Counter created = new Counter(topicVotingSession.getTopic().getUuid(), topicVotingSession.getEndTime(), this.load(sessionUuid));
+				counter = this.counters.putIfAbsent(sessionUuid, created);
+				if (counter == null)
+					counter = created;
+			}
+			if (counter.acquire())
+				return counter;
+
+			// contador liberado pela gravação, que o remove em seguida: o próximo parte da contagem já gravada
+			Thread.onSpinWait();
+		}
+	}
+
+	private VoteCountDto load(UUID sessionUuid) {
+		List<VoteCountDto> tallies = this.jdbcTemplate.query(SELECT_TALLY, (rs, i) -> {
+			Timestamp lastVotedAt = rs.getTimestamp(3);
+			return new VoteCountDto(rs.getLong(1), rs.getLong(2), lastVotedAt != null ? lastVotedAt.toInstant() : null);
+		}, sessionUuid);
+		return tallies.isEmpty() ? VoteCountDto.EMPTY : tallies.get(0);
+	}
+
+	private static long toNanos(Instant instant) {
+		return instant != null ? instant.getEpochSecond() * 1_000_000_000L + instant.getNano() : NO_VOTE;
+	}
+
+	private static Instant toInstant(long nanos) {
+		return nanos != NO_VOTE ? Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L)) : null;
+	}
+
+}
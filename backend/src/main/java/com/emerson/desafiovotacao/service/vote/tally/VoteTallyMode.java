@@ -0,0 +1,7 @@
+package com.emerson.desafiovotacao.service.vote.tally;
+
+public enum VoteTallyMode {
+	
+	DATABASE, MEMORY
+
+}
@@ -0,0 +1,22 @@
+package com.emerson.desafiovotacao.service.vote.tally;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações da contagem consolidada de votos.
+ * 
+ * @param mode Modo de contagem: {@code DATABASE} atualiza a contagem da sessão na transação de cada voto; {@code MEMORY}
+ * contabiliza os votos em contadores em memória e grava as diferenças periodicamente. O modo {@code MEMORY} pressupõe
+ * uma única instância da aplicação recebendo votos.
+ * @param flushInterval Intervalo entre as gravações das contagens em memória no banco de dados.
+ */
+@ConfigurationProperties(prefix = "votacao.vote.tally")
+public record VoteTallyProperties(
+		@DefaultValue("DATABASE") VoteTallyMode mode,
+		@DefaultValue("1s") Duration flushInterval
+) {
+
+}
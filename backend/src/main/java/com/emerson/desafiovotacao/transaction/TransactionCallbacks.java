@@ -0,0 +1,89 @@
+package com.emerson.desafiovotacao.transaction;
+
+import java.util.function.LongConsumer;
+
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilitários para executar ações ao término da transação em andamento.
+ * 
+ * Usados para que estruturas em memória compartilhadas entre as requisições (caches, registros e contadores)
+ * só reflitam dados já confirmados no banco de dados. As ações registradas em uma mesma transação são executadas
+ * na ordem do registro (exceto a medição do commit, executada antes das demais), e todas as ações após o commit
+ * são executadas antes das ações após a conclusão.
+ * 
+ * @author Emerson Oliveira
+ */
+public final class TransactionCallbacks {
+	
+	private TransactionCallbacks() {
+	}
+	
+	/**
+	 * Executa a ação após o commit da transação em andamento, ou imediatamente, caso não haja transação.
+	 * A ação não é executada caso a transação seja desfeita.
+	 * 
+	 * @param action A ação.
+	 */
+	public static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+	
+	/**
+	 * Executa a ação após a conclusão da transação em andamento, tanto no commit quanto no rollback.
+	 * 
+	 * @param action A ação.
+	 * @throws IllegalStateException Caso não haja transação em andamento.
+	 */
+	public static void afterCompletion(Runnable action) {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				action.run();
+			}
+		});
+	}
+	
+	/**
+	 * Mede a duração do commit da transação em andamento e a informa à ação, somente caso o commit ocorra.
+	 * 
+	 * A medição termina antes das demais ações executadas após o commit, que não fazem parte dele.
+	 * 
+	 * @param action A ação que recebe a duração do commit, em nanossegundos.
+	 * @throws IllegalStateException Caso não haja transação em andamento.
+	 */
+	public static void timeCommit(LongConsumer action) {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			private long start;
+			
+			@Override
+			public int getOrder() {
+				return Ordered.HIGHEST_PRECEDENCE;
+			}
+			
+			@Override
+			public void beforeCommit(boolean readOnly) {
+				this.start = System.nanoTime();
+			}
+			
+			@Override
+			public void afterCommit() {
+				action.accept(System.nanoTime() - this.start);
+			}
+		});
+	}
+
+}
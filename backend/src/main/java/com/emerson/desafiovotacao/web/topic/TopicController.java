@@ -1,9 +1,11 @@
 package com.emerson.desafiovotacao.web.topic;
 
+import java.time.Instant;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -14,13 +16,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.emerson.desafiovotacao.domain.topic.Topic;
 import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
 import com.emerson.desafiovotacao.exception.ValidationHandler;
 import com.emerson.desafiovotacao.service.topic.TopicService;
 import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicCursorDto;
 import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.topic.dto.TopicKeysetPageDto;
 import com.emerson.desafiovotacao.service.topic.dto.TopicWithOpenSessionDto;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,6 +36,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 
 @RestController
@@ -46,14 +52,58 @@ public class TopicController {
 	private TopicVotingSessionService topicVotingSessionService;
 	
 	@GetMapping("/list")
-	@Operation(summary = "Lista as pautas existentes")
-	public Page<TopicWithOpenSessionDto> list(
+	@Operation(
+		summary = "Lista as pautas existentes",
+		description = "Suporta requisições condicionais: a resposta inclui uma ETag e, caso o cabeçalho If-None-Match "
+				+ "corresponda à versão atual da página, a página não é consultada e a resposta é 304."
+	)
+	public ResponseEntity<Page<TopicWithOpenSessionDto>> list(
 									@RequestParam(required = false, defaultValue = "1") @Min(value = 1, message = "Informe um valor maior ou igual a 1") Integer page,
 									@RequestParam(required = false, defaultValue = "10") @Min(value = 1, message = "Informe um valor maior ou igual a 1") Integer size,
 									@RequestParam(required = false, defaultValue = "createdAt") String orderBy,
-									@RequestParam(required = false, defaultValue = "desc") String order) 
+									@RequestParam(required = false, defaultValue = "desc") String order,
+									WebRequest request) 
 	{
-		return this.service.list(page, size, order, orderBy);
+		String eTag = this.service.getListVersion(page, size, order, orderBy);
+		if (request.checkNotModified(eTag))
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+		
+		return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(this.service.list(page, size, order, orderBy));
+	}
+	
+	@GetMapping("/list/keyset")
+	@Operation(summary = "Lista as pautas existentes, paginadas por cursor (data de criação ou título, e ID)")
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200", 
+			description = "Página de pautas retornada com sucesso",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = TopicKeysetPageDto.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "400", 
+			description = "Ordenação não permitida ou cursor incompleto",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
+		)
+	})
+	public ResponseEntity<TopicKeysetPageDto> listByCursor(
+			@RequestParam(required = false, defaultValue = "createdAt") @Parameter(description = "Campo da ordenação (createdAt ou title)") String orderBy,
+			@RequestParam(required = false, defaultValue = "desc") @Parameter(description = "Direção da ordenação (asc ou desc)") String order,
+			@RequestParam(required = false) @Parameter(description = "Data de criação da última pauta da página anterior (cursor, ao ordenar por createdAt)") Instant afterCreatedAt,
+			@RequestParam(required = false) @Parameter(description = "Título da última pauta da página anterior (cursor, ao ordenar por title)") String afterTitle,
+			@RequestParam(required = false) @Parameter(description = "ID da última pauta da página anterior (cursor)") UUID afterUuid,
+			@RequestParam(required = false, defaultValue = "10") @Min(value = 1, message = "Informe um valor maior ou igual a 1") @Max(value = 100, message = "Informe um valor menor ou igual a 100") Integer size,
+			@RequestParam(required = false, defaultValue = "false") @Parameter(description = "Se verdadeiro, inclui a descrição de cada pauta") Boolean includeDescription) 
+	{
+		TopicCursorDto after = afterUuid != null || afterCreatedAt != null || afterTitle != null 
+				? new TopicCursorDto(afterCreatedAt, afterTitle, afterUuid) 
+				: null;
+		return ResponseEntity.ok(this.service.listByCursor(orderBy, order, after, size, includeDescription));
 	}
 	
 	@PostMapping
@@ -1,21 +1,48 @@
 package com.emerson.desafiovotacao.web.vote;
 
+import java.time.Instant;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.emerson.desafiovotacao.exception.ValidationHandler;
+import com.emerson.desafiovotacao.exception.http.BadRequestException;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.vote.VoteBulkService;
+import com.emerson.desafiovotacao.service.vote.VoteExportService;
 import com.emerson.desafiovotacao.service.vote.VoteResultsService;
 import com.emerson.desafiovotacao.service.vote.VoteService;
+import com.emerson.desafiovotacao.service.vote.VoteTallyService;
+import com.emerson.desafiovotacao.service.vote.dto.BulkVoteDto;
+import com.emerson.desafiovotacao.service.vote.dto.BulkVoteResultDto;
 import com.emerson.desafiovotacao.service.vote.dto.TopicVoteResultsDto;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVoteResultsVersionDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteCursorDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteExportFormat;
+import com.emerson.desafiovotacao.service.vote.dto.VoteKeysetPageDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTicketDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTallyVerificationDto;
+import com.emerson.desafiovotacao.service.vote.ingestion.VoteIngestionService;
+import com.emerson.desafiovotacao.service.vote.stream.VoteResultsStreamService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -24,6 +51,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 
 @RestController
 @RequestMapping("/api/v1/vote")
@@ -37,10 +67,39 @@ public class VoteController {
 	@Autowired
 	private VoteResultsService voteResultsService;
 	
+	@Autowired
+	private VoteTallyService voteTallyService;
+	
+	@Autowired
+	private VoteExportService voteExportService;
+	
+	@Autowired
+	private TopicService topicService;
+	
+	@Autowired
+	private VoteIngestionService voteIngestionService;
+	
+	@Autowired
+	private VoteBulkService voteBulkService;
+	
+	@Autowired
+	private VoteResultsStreamService voteResultsStreamService;
+	
+	@Autowired
+	private VoteResultsCacheProperties resultsCacheProperties;
+	
 	@PostMapping("/topic/{topicUuid}")
 	@Operation(summary = "Vota em uma pauta usando o ID da pauta")
 	@ApiResponses(value = {
 		@ApiResponse(responseCode = "204", description = "Voto registrado com sucesso", content = @Content),
+		@ApiResponse(
+			responseCode = "202", 
+			description = "Voto aceito para gravação assíncrona (modo de recepção assíncrona)",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = VoteTicketDto.class)
+			)
+		),
 		@ApiResponse(
 			responseCode = "404", 
 			description = "Sessão de votação não encontrada",
@@ -64,6 +123,14 @@ public class VoteController {
 				mediaType = "application/json",
 				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
 			)
+		),
+		@ApiResponse(
+			responseCode = "429", 
+			description = "Fila de votos cheia (modo de recepção assíncrona)",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
 		)
 	})
 	public ResponseEntity<Object> voteByTopic(
@@ -71,6 +138,9 @@ public class VoteController {
 			@RequestParam @Parameter(description = "CPF do associado") String cpf, 
 			@RequestParam @Parameter(description = "Voto (true para favorável, false para contra)") Boolean vote) 
 	{
+		if (this.voteIngestionService.isAsync())
+			return ResponseEntity.accepted().body(this.service.enqueueByTopicUuid(topicUuid, cpf, vote));
+		
 		this.service.voteByTopicUuid(topicUuid, cpf, vote);
 		return ResponseEntity.noContent().build();
 	}
@@ -79,6 +149,14 @@ public class VoteController {
 	@Operation(summary = "Vota em uma pauta usando o ID da sessão de votação")
 	@ApiResponses(value = {
 		@ApiResponse(responseCode = "204", description = "Voto registrado com sucesso", content = @Content),
+		@ApiResponse(
+			responseCode = "202", 
+			description = "Voto aceito para gravação assíncrona (modo de recepção assíncrona)",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = VoteTicketDto.class)
+			)
+		),
 		@ApiResponse(
 			responseCode = "404", 
 			description = "Sessão de votação não encontrada",
@@ -102,6 +180,14 @@ public class VoteController {
 				mediaType = "application/json",
 				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
 			)
+		),
+		@ApiResponse(
+			responseCode = "429", 
+			description = "Fila de votos cheia (modo de recepção assíncrona)",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
 		)
 	})
 	public ResponseEntity<Object> voteByVotingSession(
@@ -109,12 +195,114 @@ public class VoteController {
 			@RequestParam @Parameter(description = "CPF do associado") String cpf, 
 			@RequestParam @Parameter(description = "Voto (true para favorável, false para contra)") Boolean vote) 
 	{
+		if (this.voteIngestionService.isAsync())
+			return ResponseEntity.accepted().body(this.service.enqueueByVotingSessionUuid(topicVotingSessionUuid, cpf, vote));
+		
 		this.service.voteByVotingSessionUuid(topicVotingSessionUuid, cpf, vote);
 		return ResponseEntity.noContent().build();
 	}
 	
+	@PostMapping("/topic/{topicUuid}/bulk")
+	@Operation(summary = "Vota em lote em uma pauta usando o ID da pauta")
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200", 
+			description = "Lote processado; a situação de cada voto é informada individualmente",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = BulkVoteResultDto.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "400", 
+			description = "Lote vazio, com mais de " + BulkVoteDto.MAX_VOTES + " votos ou com votos incompletos",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ValidationErrorResponse.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "404", 
+			description = "Pauta não encontrada ou sem sessão de votação aberta",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
+		)
+	})
+	public ResponseEntity<BulkVoteResultDto> voteInBulkByTopic(
+			@PathVariable @Parameter(description = "ID da pauta") UUID topicUuid, 
+			@RequestBody @Valid @Parameter(description = "Votos (CPF e voto) a serem registrados") BulkVoteDto votes) 
+	{
+		return ResponseEntity.ok(this.voteBulkService.voteByTopicUuid(topicUuid, votes.votes()));
+	}
+	
+	@PostMapping("/votingSession/{topicVotingSessionUuid}/bulk")
+	@Operation(summary = "Vota em lote em uma pauta usando o ID da sessão de votação")
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200", 
+			description = "Lote processado; a situação de cada voto é informada individualmente",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = BulkVoteResultDto.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "400", 
+			description = "Lote vazio, com mais de " + BulkVoteDto.MAX_VOTES + " votos ou com votos incompletos",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ValidationErrorResponse.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "404", 
+			description = "Sessão de votação não encontrada",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
+		)
+	})
+	public ResponseEntity<BulkVoteResultDto> voteInBulkByVotingSession(
+			@PathVariable @Parameter(description = "ID da sessão de votação") UUID topicVotingSessionUuid, 
+			@RequestBody @Valid @Parameter(description = "Votos (CPF e voto) a serem registrados") BulkVoteDto votes) 
+	{
+		return ResponseEntity.ok(this.voteBulkService.voteByVotingSessionUuid(topicVotingSessionUuid, votes.votes()));
+	}
+	
+	@GetMapping("/ticket/{ticket}")
+	@Operation(summary = "Consulta a situação de um voto aceito para gravação assíncrona")
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200", 
+			description = "Situação do voto retornada com sucesso",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = VoteTicketDto.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "404",
+			description = "Ticket não encontrado ou expirado",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
+		)
+	})
+	public ResponseEntity<VoteTicketDto> getTicket(@PathVariable @Parameter(description = "Ticket do voto") UUID ticket) {
+		return ResponseEntity.ok(this.voteIngestionService.getTicket(ticket));
+	}
+	
 	@GetMapping("/topic/{topicUuid}/results")
-	@Operation(summary = "Consulta o resultado da votação de uma pauta")
+	@Operation(
+		summary = "Consulta o resultado da votação de uma pauta",
+		description = "Suporta requisições condicionais: a resposta inclui uma ETag e, caso o cabeçalho If-None-Match "
+				+ "corresponda à versão atual, o resultado não é calculado e a resposta é 304. Resultados de pautas encerradas "
+				+ "são enviados com Last-Modified e podem ser reutilizados pelo tempo configurado em Cache-Control."
+	)
 	@ApiResponses(value = {
 		@ApiResponse(
 			responseCode = "200", 
@@ -124,6 +312,10 @@ public class VoteController {
 				schema = @Schema(implementation = TopicVoteResultsDto.class)
 			)
 		),
+		@ApiResponse(
+			responseCode = "304", 
+			description = "Resultado da pauta não modificado desde a versão informada em If-None-Match"
+		),
 		@ApiResponse(
 			responseCode = "404",
 			description = "Pauta não encontrada",
@@ -133,8 +325,218 @@ public class VoteController {
 			)
 		)
 	})
-	public ResponseEntity<TopicVoteResultsDto> getResultsByTopic(@PathVariable @Parameter(description = "ID da pauta") UUID topicUuid) {
-		return ResponseEntity.ok(this.voteResultsService.getResultsByTopicUuid(topicUuid));
+	public ResponseEntity<TopicVoteResultsDto> getResultsByTopic(
+			@PathVariable @Parameter(description = "ID da pauta") UUID topicUuid,
+			@RequestParam(required = false, defaultValue = "false") @Parameter(description = "Se verdadeiro, retorna apenas as contagens e resultados, sem os votos individuais") Boolean summary,
+			WebRequest request) 
+	{
+		TopicVoteResultsVersionDto version = this.voteResultsService.getResultsVersion(topicUuid, summary);
+		CacheControl cacheControl = version.finished() 
+				? CacheControl.maxAge(this.resultsCacheProperties.finishedMaxAge()).cachePublic() 
+				: CacheControl.noCache();
+		if (request.checkNotModified(version.eTag()))
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version.eTag()).cacheControl(cacheControl).build();
+		
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(version.eTag()).cacheControl(cacheControl);
+		if (version.finished())
+			response.lastModified(version.finalizedAt());
+		return response.body(this.voteResultsService.getResultsByTopicUuid(topicUuid, summary));
 	}
 	
+	@GetMapping(value = "/topic/{topicUuid}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@Operation(
+		summary = "Acompanha o resultado da votação de uma pauta em tempo real",
+		description = "Transmite via Server-Sent Events um evento \"results\" com o resultado resumido da pauta a cada mudança "
+				+ "(novos votos, abertura ou encerramento de sessão), no máximo um evento por intervalo configurado."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200", 
+			description = "Transmissão iniciada com sucesso",
+			content = @Content(
+				mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+				schema = @Schema(implementation = TopicVoteResultsDto.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "404",
+			description = "Pauta não encontrada",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
+		)
+	})
+	public SseEmitter streamResultsByTopic(@PathVariable @Parameter(description = "ID da pauta") UUID topicUuid) {
+		return this.voteResultsStreamService.subscribe(topicUuid);
+	}
+	
+	@GetMapping("/votingSession/{topicVotingSessionUuid}/votes")
+	@Operation(summary = "Lista os votos de uma sessão de votação, paginados por cursor (data do voto e ID)")
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200", 
+			description = "Página de votos retornada com sucesso",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = VoteKeysetPageDto.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "400", 
+			description = "Cursor incompleto",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "404",
+			description = "Sessão de votação não encontrada",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
+		)
+	})
+	public ResponseEntity<VoteKeysetPageDto> listVotesByVotingSession(
+			@PathVariable @Parameter(description = "ID da sessão de votação") UUID topicVotingSessionUuid,
+			@RequestParam(required = false) @Parameter(description = "Data do último voto da página anterior (cursor)") Instant afterVotedAt,
+			@RequestParam(required = false) @Parameter(description = "ID do último voto da página anterior (cursor)") UUID afterUuid,
+			@RequestParam(required = false, defaultValue = "100") @Min(value = 1, message = "Informe um valor maior ou igual a 1") @Max(value = 1000, message = "Informe um valor menor ou igual a 1000") Integer size) 
+	{
+		if ((afterVotedAt == null) != (afterUuid == null))
+			throw new BadRequestException("Informe a data e o ID do último voto para obter a próxima página.");
+		
+		VoteCursorDto after = afterVotedAt != null ? new VoteCursorDto(afterVotedAt, afterUuid) : null;
+		return ResponseEntity.ok(this.voteResultsService.listVotesByVotingSessionUuid(topicVotingSessionUuid, after, size));
+	}
+	
+	@GetMapping("/topic/{topicUuid}/export")
+	@Operation(summary = "Exporta todos os votos de uma pauta em NDJSON ou CSV, ordenados por data do voto e ID")
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "Votos exportados com sucesso (compactados em gzip caso o cliente aceite)"),
+		@ApiResponse(
+			responseCode = "400", 
+			description = "Cursor incompleto",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
+		),
+		@ApiResponse(
+			responseCode = "404",
+			description = "Pauta não encontrada",
+			content = @Content(
+				mediaType = "application/json",
+				schema = @Schema(implementation = ValidationHandler.ErrorResponse.class)
+			)
+		)
+	})
+	public ResponseEntity<StreamingResponseBody> exportByTopic(
+			@PathVariable @Parameter(description = "ID da pauta") UUID topicUuid,
+			@RequestParam(required = false, defaultValue = "NDJSON") @Parameter(description = "Formato da exportação") VoteExportFormat format,
+			@RequestParam(required = false) @Parameter(description = "Data do último voto já exportado, para retomar a exportação (cursor)") Instant afterVotedAt,
+			@RequestParam(required = false) @Parameter(description = "ID do último voto já exportado, para retomar a exportação (cursor)") UUID afterUuid,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) @Parameter(hidden = true) String acceptEncoding) 
+	{
+		if ((afterVotedAt == null) != (afterUuid == null))
+			throw new BadRequestException("Informe a data e o ID do último voto exportado para retomar a exportação.");
+		
+		// garante que a pauta existe antes de começar a escrever a resposta
+		this.topicService.getCached(topicUuid);
+		
+		VoteCursorDto after = afterVotedAt != null ? new VoteCursorDto(afterVotedAt, afterUuid) : null;
+		boolean gzip = acceptsGzip(acceptEncoding);
+		
+		StreamingResponseBody body = out -> {
+			if (gzip) {
+				GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+				this.voteExportService.export(topicUuid, format, after, gzipOut);
+				gzipOut.finish();
+			} else {
+				this.voteExportService.export(topicUuid, format, after, out);
+			}
+		};
+		
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(format.getContentType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment; filename=\"votes-%s.%s\"", topicUuid, format.getExtension()))
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip)
+			response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		
+		return response.body(body);
+	}
+	
+	@GetMapping("/tally/verify")
+	@Operation(summary = "Verifica as contagens consolidadas de votos de todas as sessões, comparando-as com os votos registrados")
+	@ApiResponse(
+		responseCode = "200", 
+		description = "Relatório de divergências retornado com sucesso",
+		content = @Content(
+			mediaType = "application/json",
+			schema = @Schema(implementation = VoteTallyVerificationDto.class)
+		)
+	)
+	public ResponseEntity<VoteTallyVerificationDto> verifyTallies() {
+		return ResponseEntity.ok(this.voteTallyService.verify());
+	}
+	
+	@PostMapping("/tally/rebuild")
+	@Operation(summary = "Reconstrói as contagens consolidadas de votos divergentes a partir dos votos registrados")
+	@ApiResponse(
+		responseCode = "200", 
+		description = "Contagens reconstruídas com sucesso",
+		content = @Content(
+			mediaType = "application/json",
+			schema = @Schema(implementation = VoteTallyVerificationDto.class)
+		)
+	)
+	public ResponseEntity<VoteTallyVerificationDto> rebuildTallies() {
+		return ResponseEntity.ok(this.voteTallyService.rebuild());
+	}
+	
+	/**
+	 * Verifica se o cliente aceita a resposta compactada em gzip, conforme os valores de qualidade ({@code q})
+	 * do cabeçalho {@code Accept-Encoding}. A codificação {@code gzip} (ou {@code x-gzip}) informada explicitamente
+	 * prevalece sobre {@code *}; {@code q=0} recusa a codificação.
+	 * 
+	 * @param acceptEncoding O valor do cabeçalho {@code Accept-Encoding}, ou {@code null} caso não tenha sido informado.
+	 * @return {@code true} caso o gzip seja aceito com qualidade maior que zero.
+	 */
+	private static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null)
+			return false;
+		
+		Double gzip = null;
+		Double wildcard = null;
+		for (String element : acceptEncoding.split(",")) {
+			String[] parts = element.split(";");
+			String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+			if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("*"))
+				continue;
+			
+			double quality = 1;
+			for (int i = 1; i < parts.length; i++) {
+				String[] param = parts[i].split("=", 2);
+				if (param.length == 2 && param[0].trim().equalsIgnoreCase("q")) {
+					try {
+						quality = Double.parseDouble(param[1].trim());
+					} catch (NumberFormatException e) {
+						quality = 0;
+					}
+				}
+			}
+			
+			if (coding.equals("*"))
+				wildcard = quality;
+			else
+				gzip = gzip == null ? quality : Math.max(gzip, quality);
+		}
+		
+		Double quality = gzip != null ? gzip : wildcard;
+		return quality != null && quality > 0;
+	}
+
 }
@@ -0,0 +1,19 @@
+package com.emerson.desafiovotacao.web.vote;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configurações de cache HTTP dos resultados das pautas.
+ * 
+ * @param finishedMaxAge Tempo por que clientes e proxies podem reutilizar, sem revalidar, o resultado de uma pauta encerrada
+ * (com o resultado imutável já gravado). Uma nova sessão aberta na pauta só é vista por eles após esse tempo.
+ */
+@ConfigurationProperties(prefix = "votacao.vote.results.cache")
+public record VoteResultsCacheProperties(
+		@DefaultValue("1h") Duration finishedMaxAge
+) {
+
+}
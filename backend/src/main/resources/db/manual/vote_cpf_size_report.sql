@@ -0,0 +1,54 @@
+-- Compara o tamanho da tabela de votos e dos seus índices com o CPF como varchar(11) e como bigint (PostgreSQL).
+--
+-- Gera a mesma massa de votos (5 milhões, em 500 pautas) em duas tabelas de teste com a mesma estrutura da
+-- tabela vote, diferindo apenas no tipo do CPF, e lista o tamanho de cada tabela e índice. Não altera a tabela vote.
+-- Uso: psql -d desafiovotacao -f vote_cpf_size_report.sql
+
+\set votes 5000000
+
+DROP TABLE IF EXISTS vote_size_varchar, vote_size_bigint;
+
+CREATE TABLE vote_size_varchar (
+	uuid uuid PRIMARY KEY,
+	topic_voting_session_uuid uuid NOT NULL,
+	topic_uuid uuid NOT NULL,
+	cpf varchar(11) NOT NULL,
+	vote boolean NOT NULL,
+	voted_at timestamp(6) with time zone NOT NULL,
+	CONSTRAINT uk_vote_size_varchar_topic_cpf UNIQUE (topic_uuid, cpf)
+);
+
+CREATE TABLE vote_size_bigint (
+	uuid uuid PRIMARY KEY,
+	topic_voting_session_uuid uuid NOT NULL,
+	topic_uuid uuid NOT NULL,
+	cpf bigint NOT NULL,
+	vote boolean NOT NULL,
+	voted_at timestamp(6) with time zone NOT NULL,
+	CONSTRAINT uk_vote_size_bigint_topic_cpf UNIQUE (topic_uuid, cpf)
+);
+
+CREATE TEMPORARY TABLE topics AS
+	SELECT n, gen_random_uuid() AS topic_uuid, gen_random_uuid() AS session_uuid
+	FROM generate_series(0, 499) n;
+
+INSERT INTO vote_size_varchar
+	SELECT gen_random_uuid(), t.session_uuid, t.topic_uuid, lpad((10000000000 + i)::text, 11, '0'), i % 2 = 0, now() - (i || ' ms')::interval
+	FROM generate_series(1, :votes) i
+	JOIN topics t ON t.n = i % 500;
+
+INSERT INTO vote_size_bigint
+	SELECT uuid, topic_voting_session_uuid, topic_uuid, cpf::bigint, vote, voted_at
+	FROM vote_size_varchar;
+
+VACUUM ANALYZE vote_size_varchar;
+VACUUM ANALYZE vote_size_bigint;
+
+SELECT c.relname AS relation,
+	   pg_size_pretty(pg_relation_size(c.oid)) AS size,
+	   pg_relation_size(c.oid) AS bytes
+FROM pg_class c
+WHERE c.relname LIKE 'vote_size_%' OR c.relname LIKE 'uk_vote_size_%'
+ORDER BY c.relname;
+
+DROP TABLE vote_size_varchar, vote_size_bigint;
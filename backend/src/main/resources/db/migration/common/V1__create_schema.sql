@@ -0,0 +1,50 @@
+-- Esquema inicial, equivalente ao gerado pelo Hibernate (ddl-auto=update) até a adoção das migrações.
+--
+-- Bancos de dados já existentes, criados pelo Hibernate, são registrados nesta versão sem executá-la
+-- (spring.flyway.baseline-on-migrate) e recebem apenas as migrações seguintes.
+
+CREATE TABLE topic (
+	uuid uuid NOT NULL,
+	title varchar(50) NOT NULL,
+	description text NOT NULL,
+	created_at timestamp(6) with time zone NOT NULL,
+	latest_voting_session_uuid uuid,
+	latest_voting_session_end_time timestamp(6) with time zone,
+	CONSTRAINT topic_pkey PRIMARY KEY (uuid)
+);
+
+CREATE TABLE voting_session (
+	uuid uuid NOT NULL,
+	topic_uuid uuid NOT NULL,
+	start_time timestamp(6) with time zone NOT NULL,
+	end_time timestamp(6) with time zone NOT NULL,
+	CONSTRAINT voting_session_pkey PRIMARY KEY (uuid),
+	CONSTRAINT fk_voting_session_topic FOREIGN KEY (topic_uuid) REFERENCES topic (uuid)
+);
+
+ALTER TABLE topic
+	ADD CONSTRAINT fk_topic_latest_voting_session FOREIGN KEY (latest_voting_session_uuid) REFERENCES voting_session (uuid);
+
+CREATE TABLE vote (
+	uuid uuid NOT NULL,
+	topic_voting_session_uuid uuid NOT NULL,
+	topic_uuid uuid NOT NULL,
+	cpf bigint NOT NULL,
+	vote boolean NOT NULL,
+	voted_at timestamp(6) with time zone NOT NULL,
+	CONSTRAINT vote_pkey PRIMARY KEY (uuid),
+	CONSTRAINT fk_vote_voting_session FOREIGN KEY (topic_voting_session_uuid) REFERENCES voting_session (uuid),
+	CONSTRAINT uk_vote_topic_cpf UNIQUE (topic_uuid, cpf)
+);
+
+CREATE TABLE vote_tally (
+	uuid uuid NOT NULL,
+	topic_voting_session_uuid uuid NOT NULL,
+	favorable_votes bigint NOT NULL,
+	against_votes bigint NOT NULL,
+	total_votes bigint NOT NULL,
+	last_voted_at timestamp(6) with time zone,
+	CONSTRAINT vote_tally_pkey PRIMARY KEY (uuid),
+	CONSTRAINT vote_tally_topic_voting_session_uuid_key UNIQUE (topic_voting_session_uuid),
+	CONSTRAINT fk_vote_tally_voting_session FOREIGN KEY (topic_voting_session_uuid) REFERENCES voting_session (uuid)
+);
@@ -0,0 +1,24 @@
+-- Índices das consultas dos repositórios. As chaves primárias e as restrições únicas
+-- (vote (topic_uuid, cpf) e vote_tally (topic_voting_session_uuid)) já são indexadas.
+
+-- TopicRepository: existsByTitle e listagem por cursor ordenada por título
+CREATE INDEX IF NOT EXISTS idx_topic_title ON topic (title, uuid);
+
+-- TopicRepository: listagens ordenadas pela data de criação
+CREATE INDEX IF NOT EXISTS idx_topic_created_at ON topic (created_at, uuid);
+
+-- TopicVotingSessionRepository: findByTopicUuid e sessão mais recente da pauta
+CREATE INDEX IF NOT EXISTS idx_voting_session_topic_start_time ON voting_session (topic_uuid, start_time);
+
+-- TopicVotingSessionRepository: sessão aberta da pauta (existsByTopicUuidAndEndTimeGreaterThan,
+-- findTopByTopicUuidAndEndTimeGreaterThanOrderByStartTimeDesc)
+CREATE INDEX IF NOT EXISTS idx_voting_session_topic_end_time ON voting_session (topic_uuid, end_time);
+
+-- TopicVotingSessionRepository: findByEndTimeGreaterThan (sessões abertas na inicialização)
+CREATE INDEX IF NOT EXISTS idx_voting_session_end_time ON voting_session (end_time);
+
+-- VoteRepository: contagens e listagem por cursor dos votos de uma sessão, ordenados por data e UUID
+CREATE INDEX IF NOT EXISTS idx_vote_session_voted_at ON vote (topic_voting_session_uuid, voted_at, uuid);
+
+-- VoteRepository e VoteExportService: votos da pauta ordenados por data e UUID
+CREATE INDEX IF NOT EXISTS idx_vote_topic_voted_at ON vote (topic_uuid, voted_at, uuid);
@@ -0,0 +1,28 @@
+-- Resultados imutáveis das sessões de votação encerradas e das pautas cujas sessões estão todas encerradas,
+-- gravados uma única vez após o término de cada sessão (VoteResultSnapshotService).
+
+CREATE TABLE voting_session_result (
+	uuid uuid NOT NULL,
+	topic_voting_session_uuid uuid NOT NULL,
+	favorable_votes bigint NOT NULL,
+	against_votes bigint NOT NULL,
+	last_voted_at timestamp(6) with time zone,
+	finalized_at timestamp(6) with time zone NOT NULL,
+	CONSTRAINT voting_session_result_pkey PRIMARY KEY (uuid),
+	CONSTRAINT voting_session_result_topic_voting_session_uuid_key UNIQUE (topic_voting_session_uuid),
+	CONSTRAINT fk_voting_session_result_voting_session FOREIGN KEY (topic_voting_session_uuid) REFERENCES voting_session (uuid)
+);
+
+-- uma linha por sessão mais recente: uma nova sessão da pauta gera um novo resultado quando terminar
+CREATE TABLE topic_result (
+	uuid uuid NOT NULL,
+	topic_uuid uuid NOT NULL,
+	latest_voting_session_uuid uuid NOT NULL,
+	favorable_votes bigint NOT NULL,
+	against_votes bigint NOT NULL,
+	finalized_at timestamp(6) with time zone NOT NULL,
+	CONSTRAINT topic_result_pkey PRIMARY KEY (uuid),
+	CONSTRAINT topic_result_latest_voting_session_uuid_key UNIQUE (latest_voting_session_uuid),
+	CONSTRAINT fk_topic_result_topic FOREIGN KEY (topic_uuid) REFERENCES topic (uuid),
+	CONSTRAINT fk_topic_result_latest_voting_session FOREIGN KEY (latest_voting_session_uuid) REFERENCES voting_session (uuid)
+);
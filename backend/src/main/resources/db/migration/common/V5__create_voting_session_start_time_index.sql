@@ -0,0 +1,2 @@
+-- TopicVotingSessionRepository: início da sessão mais recente, usado na versão (ETag) da lista de pautas
+CREATE INDEX IF NOT EXISTS idx_voting_session_start_time ON voting_session (start_time);
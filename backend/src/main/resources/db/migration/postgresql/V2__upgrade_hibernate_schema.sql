@@ -0,0 +1,59 @@
+-- Ajustes que o ddl-auto=update do Hibernate não aplicava em bancos de dados já existentes
+-- (antes em db/manual). Todos os comandos são idempotentes e não têm efeito em bancos criados pela V1.
+
+-- pauta de cada voto, para a restrição de voto único por pauta
+ALTER TABLE vote ADD COLUMN IF NOT EXISTS topic_uuid uuid;
+
+UPDATE vote v
+SET topic_uuid = (SELECT s.topic_uuid FROM voting_session s WHERE s.uuid = v.topic_voting_session_uuid)
+WHERE v.topic_uuid IS NULL;
+
+ALTER TABLE vote ALTER COLUMN topic_uuid SET NOT NULL;
+
+-- votos duplicados na mesma pauta, gravados pela verificação seguida de inserção antes da restrição única:
+-- mantém apenas o primeiro voto de cada CPF (o de menor voted_at e, no empate, o de menor UUID)
+DELETE FROM vote v
+USING vote o
+WHERE o.topic_uuid = v.topic_uuid
+AND o.cpf = v.cpf
+AND (o.voted_at < v.voted_at OR (o.voted_at = v.voted_at AND o.uuid < v.uuid));
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_vote_topic_cpf ON vote (topic_uuid, cpf);
+
+-- CPF gravado como número (varchar(11) -> bigint)
+ALTER TABLE vote ALTER COLUMN cpf TYPE bigint USING cpf::bigint;
+
+-- sessão de votação mais recente de cada pauta
+ALTER TABLE topic ADD COLUMN IF NOT EXISTS latest_voting_session_uuid uuid REFERENCES voting_session (uuid);
+ALTER TABLE topic ADD COLUMN IF NOT EXISTS latest_voting_session_end_time timestamp(6) with time zone;
+
+UPDATE topic t
+SET (latest_voting_session_uuid, latest_voting_session_end_time) = (
+	SELECT s.uuid, s.end_time
+	FROM voting_session s
+	WHERE s.topic_uuid = t.uuid
+	ORDER BY s.start_time DESC, s.uuid DESC
+	LIMIT 1
+)
+WHERE t.latest_voting_session_uuid IS NULL
+AND EXISTS (SELECT 1 FROM voting_session s WHERE s.topic_uuid = t.uuid);
+
+-- contagem consolidada dos votos de cada sessão, calculada a partir dos votos já registrados
+CREATE TABLE IF NOT EXISTS vote_tally (
+	uuid uuid NOT NULL,
+	topic_voting_session_uuid uuid NOT NULL,
+	favorable_votes bigint NOT NULL,
+	against_votes bigint NOT NULL,
+	total_votes bigint NOT NULL,
+	last_voted_at timestamp(6) with time zone,
+	CONSTRAINT vote_tally_pkey PRIMARY KEY (uuid),
+	CONSTRAINT vote_tally_topic_voting_session_uuid_key UNIQUE (topic_voting_session_uuid),
+	CONSTRAINT fk_vote_tally_voting_session FOREIGN KEY (topic_voting_session_uuid) REFERENCES voting_session (uuid)
+);
+
+INSERT INTO vote_tally (uuid, topic_voting_session_uuid, favorable_votes, against_votes, total_votes, last_voted_at)
+SELECT gen_random_uuid(), v.topic_voting_session_uuid,
+	count(*) FILTER (WHERE v.vote), count(*) FILTER (WHERE NOT v.vote), count(*), max(v.voted_at)
+FROM vote v
+WHERE NOT EXISTS (SELECT 1 FROM vote_tally t WHERE t.topic_voting_session_uuid = v.topic_voting_session_uuid)
+GROUP BY v.topic_voting_session_uuid;
@@ -0,0 +1,256 @@
+package com.emerson.desafiovotacao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.repository.topic.TopicRepository;
+import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.repository.vote.TopicResultRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteTallyRepository;
+import com.emerson.desafiovotacao.repository.vote.VotingSessionResultRepository;
+
+/**
+ * Confere, pelo plano de execução, que as consultas dos repositórios usam os índices criados pelas migrações.
+ *
+ * Cada método de repositório é executado e o SQL gerado pelo Hibernate, com os parâmetros vinculados, é capturado
+ * por um {@link DataSource} intermediário e executado novamente com {@code EXPLAIN}.
+ *
+ * O H2 cria índices para as chaves estrangeiras automaticamente (o PostgreSQL não) e, entre índices com o mesmo
+ * prefixo, escolhe o primeiro criado sem considerar o {@code ORDER BY}. Nas consultas de votos ele usa o índice da
+ * chave estrangeira ou da restrição única, então a ordenação das listagens é conferida pelas colunas dos índices
+ * criados para elas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(Lifecycle.PER_CLASS)
+class SchemaIndexesTest {
+
+	private record CapturedStatement(String sql, List<Map.Entry<Method, Object[]>> parameters) {
+	}
+
+	/** Instruções preparadas na thread atual, enquanto a captura está ativa. */
+	private static final ThreadLocal<List<CapturedStatement>> CAPTURED = new ThreadLocal<>();
+
+	private static final UUID ANY_UUID = UUID.randomUUID();
+
+	private static final Instant ANY_INSTANT = Instant.parse("2020-01-01T00:00:00Z");
+
+	@TestConfiguration
+	static class CapturingDataSourceConfig {
+
+		@Bean
+		static BeanPostProcessor capturingDataSource() {
+			return new BeanPostProcessor() {
+
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource dataSource))
+						return bean;
+
+					return new DelegatingDataSource(dataSource) {
+
+						@Override
+						public Connection getConnection() throws SQLException {
+							return capture(super.getConnection());
+						}
+					};
+				}
+			};
+		}
+	}
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private TopicRepository topicRepository;
+
+	@Autowired
+	private TopicVotingSessionRepository votingSessionRepository;
+
+	@Autowired
+	private VotingSessionResultRepository votingSessionResultRepository;
+
+	@Autowired
+	private TopicResultRepository topicResultRepository;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private VoteTallyRepository voteTallyRepository;
+
+	Stream<Arguments> queries() {
+		return Stream.of(
+			Arguments.of("TopicRepository.existsByTitle",
+					(Runnable) () -> this.topicRepository.existsByTitle("Pauta"), "idx_topic_title"),
+			Arguments.of("TopicRepository.findRowsByCreatedAtBefore",
+					(Runnable) () -> this.topicRepository.findRowsByCreatedAtBefore(ANY_INSTANT, ANY_UUID, Limit.of(10)), "idx_topic_created_at"),
+			Arguments.of("TopicRepository.findRowsByCreatedAtAfter",
+					(Runnable) () -> this.topicRepository.findRowsByCreatedAtAfter(ANY_INSTANT, ANY_UUID, Limit.of(10)), "idx_topic_created_at"),
+			Arguments.of("TopicRepository.findRowsByTitleAfter",
+					(Runnable) () -> this.topicRepository.findRowsByTitleAfter("Pauta", ANY_UUID, Limit.of(10)), "idx_topic_title"),
+			Arguments.of("TopicRepository.findRowsByTitleBefore",
+					(Runnable) () -> this.topicRepository.findRowsByTitleBefore("Pauta", ANY_UUID, Limit.of(10)), "idx_topic_title"),
+			Arguments.of("TopicRepository.findLastCreatedAt",
+					(Runnable) () -> this.topicRepository.findLastCreatedAt(), "idx_topic_created_at"),
+			Arguments.of("TopicVotingSessionRepository.findByTopicUuid",
+					(Runnable) () -> this.votingSessionRepository.findByTopicUuid(ANY_UUID), "(idx|fk)_voting_session_topic"),
+			Arguments.of("TopicVotingSessionRepository.existsByTopicUuidAndEndTimeGreaterThan",
+					(Runnable) () -> this.votingSessionRepository.existsByTopicUuidAndEndTimeGreaterThan(ANY_UUID, ANY_INSTANT), "idx_voting_session_topic"),
+			Arguments.of("TopicVotingSessionRepository.findTopByTopicUuidAndEndTimeGreaterThanOrderByStartTimeDesc",
+					(Runnable) () -> this.votingSessionRepository.findTopByTopicUuidAndEndTimeGreaterThanOrderByStartTimeDesc(ANY_UUID, ANY_INSTANT), "idx_voting_session_topic"),
+			Arguments.of("TopicVotingSessionRepository.findByEndTimeGreaterThan",
+					(Runnable) () -> this.votingSessionRepository.findByEndTimeGreaterThan(ANY_INSTANT), "idx_voting_session_end_time"),
+			Arguments.of("TopicVotingSessionRepository.findUuidsWithoutResultByEndTimeLessThanEqual",
+					(Runnable) () -> this.votingSessionRepository.findUuidsWithoutResultByEndTimeLessThanEqual(ANY_INSTANT, Limit.of(500)), "idx_voting_session_end_time"),
+			Arguments.of("TopicVotingSessionRepository.findLastStartTime",
+					(Runnable) () -> this.votingSessionRepository.findLastStartTime(), "idx_voting_session_start_time"),
+			Arguments.of("VotingSessionResultRepository.findByTopicUuid",
+					(Runnable) () -> this.votingSessionResultRepository.findByTopicUuid(ANY_UUID), "voting_session_result_topic_voting_session_uuid_key"),
+			Arguments.of("VotingSessionResultRepository.existsByTopicVotingSessionUuid",
+					(Runnable) () -> this.votingSessionResultRepository.existsByTopicVotingSessionUuid(ANY_UUID), "voting_session_result_topic_voting_session_uuid_key"),
+			Arguments.of("TopicResultRepository.findByLatestVotingSessionUuid",
+					(Runnable) () -> this.topicResultRepository.findByLatestVotingSessionUuid(ANY_UUID), "topic_result_latest_voting_session_uuid_key"),
+			Arguments.of("VoteRepository.existsByTopicUuidAndCpf",
+					(Runnable) () -> this.voteRepository.existsByTopicUuidAndCpf(ANY_UUID, "16643151015"), "uk_vote_topic_cpf"),
+			Arguments.of("VoteRepository.findCpfsByTopicUuidAndCpfIn",
+					(Runnable) () -> this.voteRepository.findCpfsByTopicUuidAndCpfIn(ANY_UUID, Set.of("16643151015", "96889461096")), "uk_vote_topic_cpf"),
+			Arguments.of("VoteRepository.countByTopicVotingSessionUuid",
+					(Runnable) () -> this.voteRepository.countByTopicVotingSessionUuid(ANY_UUID), "(idx_vote_session_voted_at|fk_vote_voting_session)"),
+			Arguments.of("VoteRepository.countBySessionAndVoteByTopicUuid",
+					(Runnable) () -> this.voteRepository.countBySessionAndVoteByTopicUuid(ANY_UUID), "(idx_vote_topic|uk_vote_topic_cpf)"),
+			Arguments.of("VoteRepository.findRowsByTopicVotingSessionUuidAfter",
+					(Runnable) () -> this.voteRepository.findRowsByTopicVotingSessionUuidAfter(ANY_UUID, ANY_INSTANT, ANY_UUID, Limit.of(100)), "(idx_vote_session_voted_at|fk_vote_voting_session)"),
+			Arguments.of("VoteRepository.findRowsByTopicUuid",
+					(Runnable) () -> this.voteRepository.findRowsByTopicUuid(ANY_UUID), "(idx_vote_topic|uk_vote_topic_cpf)"),
+			Arguments.of("VoteTallyRepository.findByTopicVotingSessionUuid",
+					(Runnable) () -> this.voteTallyRepository.findByTopicVotingSessionUuid(ANY_UUID), "vote_tally_topic_voting_session_uuid_key")
+		);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("queries")
+	@DisplayName("Deve usar o índice esperado em cada consulta dos repositórios")
+	void shouldUseIndexes(String query, Runnable invocation, String index) throws Exception {
+		List<CapturedStatement> captured = new ArrayList<>();
+		CAPTURED.set(captured);
+		try {
+			invocation.run();
+		} finally {
+			CAPTURED.remove();
+		}
+		assertFalse(captured.isEmpty(), "Nenhuma instrução executada por " + query);
+
+		// a primeira instrução é a própria consulta; as demais, se houver, carregam associações
+		String plan = this.explain(captured.get(0));
+		assertFalse(plan.contains("tablescan"), plan);
+		assertTrue(Pattern.compile(index).matcher(plan).find(), plan);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@CsvSource({
+		"idx_vote_session_voted_at, 'topic_voting_session_uuid,voted_at,uuid'",
+		"idx_vote_topic_voted_at, 'topic_uuid,voted_at,uuid'"
+	})
+	@DisplayName("Deve ter índices com o filtro e a ordenação das listagens de votos")
+	void shouldHaveIndexesMatchingVoteListingOrder(String index, String columns) throws Exception {
+		try (Connection connection = this.dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement("""
+					SELECT column_name
+					FROM information_schema.index_columns
+					WHERE index_name = ?
+					ORDER BY ordinal_position
+				""")) {
+			statement.setString(1, index);
+
+			List<String> indexColumns = new ArrayList<>();
+			try (ResultSet rs = statement.executeQuery()) {
+				while (rs.next())
+					indexColumns.add(rs.getString(1));
+			}
+			assertEquals(List.of(columns.split(",")), indexColumns);
+		}
+	}
+
+	private String explain(CapturedStatement statement) throws Exception {
+		try (Connection connection = this.dataSource.getConnection();
+				PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+			for (Map.Entry<Method, Object[]> parameter : statement.parameters())
+				parameter.getKey().invoke(explain, parameter.getValue());
+
+			List<String> plan = new ArrayList<>();
+			try (ResultSet rs = explain.executeQuery()) {
+				while (rs.next())
+					plan.add(rs.getString(1));
+			}
+			return statement.sql() + "\n" + String.join("\n", plan).toLowerCase();
+		}
+	}
+
+	/**
+	 * Registra o SQL de cada instrução preparada na conexão e os parâmetros vinculados a ela, enquanto a captura está ativa.
+	 */
+	private static Connection capture(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(SchemaIndexesTest.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+			Object result = invoke(connection, method, args);
+			List<CapturedStatement> captured = CAPTURED.get();
+			if (captured == null || !method.getName().equals("prepareStatement"))
+				return result;
+
+			CapturedStatement statement = new CapturedStatement((String) args[0], new ArrayList<>());
+			captured.add(statement);
+			PreparedStatement preparedStatement = (PreparedStatement) result;
+			return Proxy.newProxyInstance(SchemaIndexesTest.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, (p, m, a) -> {
+				if (m.getName().startsWith("set") && a != null && a.length >= 2 && a[0] instanceof Integer)
+					statement.parameters().add(Map.entry(m, a));
+				return invoke(preparedStatement, m, a);
+			});
+		});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+}
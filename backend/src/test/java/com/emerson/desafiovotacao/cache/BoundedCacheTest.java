@@ -0,0 +1,98 @@
+package com.emerson.desafiovotacao.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedCacheTest {
+
+	private final Counter evictions = new SimpleMeterRegistry().counter("evictions");
+
+	@Test
+	@DisplayName("Deve remover as entradas consultadas há mais tempo, mantendo a folga abaixo do tamanho máximo")
+	void shouldEvictLeastRecentlyUsedEntries() {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(32, this.evictions);
+		for (int i = 0; i < 32; i++)
+			cache.put(i, i);
+		// as 16 primeiras passam a ser as consultadas mais recentemente
+		for (int i = 0; i < 16; i++)
+			assertEquals(i, cache.get(i));
+
+		cache.put(32, 32);
+
+		// excedente de 1 mais a folga de 32/16 = 2
+		assertEquals(30, cache.size());
+		assertEquals(3, this.evictions.count());
+		for (int i = 0; i < 16; i++)
+			assertEquals(i, cache.get(i));
+		assertEquals(32, cache.get(32));
+		assertNull(cache.get(16));
+		assertNull(cache.get(17));
+		assertNull(cache.get(18));
+	}
+
+	@Test
+	@DisplayName("Deve expirar as entradas após o tempo informado")
+	void shouldExpireEntries() throws Exception {
+		BoundedCache<String, String> cache = new BoundedCache<>(10, this.evictions);
+		cache.put("expira", "valor", 1_000_000);
+		cache.put("permanece", "valor");
+
+		Thread.sleep(5);
+
+		assertNull(cache.get("expira"));
+		assertEquals("valor", cache.get("permanece"));
+		assertEquals(1, this.evictions.count());
+	}
+
+	@Test
+	@DisplayName("Não deve armazenar o valor quando a condição da inclusão é falsa")
+	void shouldPutOnlyWhenConditionHolds() {
+		BoundedCache<String, String> cache = new BoundedCache<>(10, this.evictions);
+
+		assertFalse(cache.put("chave", "valor", 0, () -> false));
+		assertNull(cache.get("chave"));
+		assertTrue(cache.put("chave", "valor", 0, () -> true));
+		assertEquals("valor", cache.get("chave"));
+	}
+
+	@Test
+	@DisplayName("Deve manter o tamanho limitado com inclusões concorrentes")
+	void shouldStayBoundedUnderConcurrentPuts() throws Exception {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(1_000, this.evictions);
+
+		List<Future<?>> tasks = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int t = 0; t < 8; t++) {
+				int offset = t * 10_000;
+				tasks.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						cache.put(offset + i, i);
+						cache.get(offset + i / 2);
+					}
+				}));
+			}
+		}
+		for (Future<?> task : tasks)
+			task.get();
+
+		// a última limpeza pode ter sido ignorada por outra thread ainda em andamento
+		cache.put(-1, -1);
+		assertTrue(cache.size() <= 1_000, "Tamanho acima do máximo: " + cache.size());
+		assertEquals(80_001 - cache.size(), this.evictions.count());
+	}
+
+}
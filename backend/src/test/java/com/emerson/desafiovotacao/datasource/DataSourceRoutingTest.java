@@ -0,0 +1,130 @@
+package com.emerson.desafiovotacao.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.exception.http.ConflictException;
+import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByIdException;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteResultsService;
+import com.emerson.desafiovotacao.service.vote.VoteService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Testes do roteamento com dois bancos H2 em memória: o banco principal dos testes e uma "réplica" vazia,
+ * que não recebe as alterações do banco principal. Assim, o banco de cada consulta é identificado pelos dados que ela vê.
+ */
+@SpringBootTest(properties = {
+	"votacao.datasource.routing.mode=REPLICA",
+	"votacao.datasource.routing.replica-url=" + DataSourceRoutingTest.REPLICA_URL,
+	"votacao.datasource.routing.replica-retry-interval=1h"
+})
+@ActiveProfiles("test")
+class DataSourceRoutingTest {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:desafiovotacao_replica_testdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private VoteResultsService voteResultsService;
+
+	@Autowired
+	private HikariDataSource replicaDataSource;
+
+	private JdbcTemplate replica;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			return mock;
+		}
+	}
+
+	@BeforeEach
+	void migrateReplica() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "1234");
+		Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/common").load().migrate();
+		this.replica = new JdbcTemplate(dataSource);
+	}
+
+	@Test
+	@DisplayName("Deve ler resultados e listagens da réplica e gravar votos, com a verificação de duplicidade, no banco principal")
+	void shouldRouteReadOnlyTransactionsToReplica() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta réplica " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", true);
+		assertThrows(ConflictException.class, () -> this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", false));
+
+		// a pauta ainda não chegou à réplica
+		assertTrue(this.listTitles().noneMatch(topic.getTitle()::equals));
+		assertThrows(TopicVotingSessionNotFoundByIdException.class, () -> this.voteResultsService.getResultsByTopicUuid(topic.getUuid(), true));
+
+		// "replicação" da pauta, sem a sessão nem os votos
+		this.replica.update("INSERT INTO topic (uuid, title, description, created_at) VALUES (?, ?, ?, ?)",
+				topic.getUuid(), topic.getTitle(), topic.getDescription(), Timestamp.from(topic.getCreatedAt()));
+
+		assertTrue(this.listTitles().anyMatch(topic.getTitle()::equals));
+		assertEquals(0, this.voteResultsService.getResultsByTopicUuid(topic.getUuid(), true).favorableVotes());
+	}
+
+	@Test
+	@DirtiesContext
+	@DisplayName("Deve usar o banco principal nas leituras enquanto a réplica estiver indisponível")
+	void shouldFallBackToPrimaryWhenReplicaIsUnavailable() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta réplica " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "96889461096", false);
+
+		this.replicaDataSource.close();
+
+		assertTrue(this.listTitles().anyMatch(topic.getTitle()::equals));
+		assertEquals(1, this.voteResultsService.getResultsByTopicUuid(topic.getUuid(), true).againstVotes());
+	}
+
+	private Stream<String> listTitles() {
+		return this.topicService.list(1, 10, "desc", "createdAt").stream().map(t -> t.title());
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.emerson.desafiovotacao.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedUuidTest {
+
+	@Test
+	@DisplayName("Deve gerar UUIDs da versão 7 com o momento da geração e no formato padrão")
+	void shouldGenerateVersion7Uuids() {
+		long before = Instant.now().toEpochMilli();
+		UUID uuid = TimeOrderedUuid.next();
+		long after = Instant.now().toEpochMilli();
+
+		assertEquals(7, uuid.version());
+		assertEquals(2, uuid.variant());
+		assertEquals(uuid, UUID.fromString(uuid.toString()));
+
+		// a sequência avança o milissegundo quando muitos UUIDs são gerados ao mesmo tempo (ex.: nos demais testes)
+		long millis = uuid.getMostSignificantBits() >>> 16;
+		assertTrue(millis >= before && millis <= after + 1_000, String.format("%s fora de [%s, %s]", millis, before, after));
+	}
+
+	@Test
+	@DisplayName("Deve gerar UUIDs únicos e crescentes em cada thread, mesmo com gerações concorrentes")
+	void shouldGenerateUniqueIncreasingUuidsConcurrently() throws Exception {
+		int threads = 8;
+		int perThread = 20_000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<List<UUID>>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					List<UUID> uuids = new ArrayList<>(perThread);
+					for (int i = 0; i < perThread; i++)
+						uuids.add(TimeOrderedUuid.next());
+					return uuids;
+				}));
+			}
+
+			Set<UUID> all = new HashSet<>();
+			for (Future<List<UUID>> f : futures) {
+				List<UUID> uuids = f.get();
+				List<UUID> sorted = new ArrayList<>(uuids);
+				Collections.sort(sorted);
+				assertEquals(sorted, uuids);
+				all.addAll(uuids);
+			}
+			assertEquals(threads * perThread, all.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
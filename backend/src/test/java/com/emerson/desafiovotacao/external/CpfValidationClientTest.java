@@ -0,0 +1,86 @@
+package com.emerson.desafiovotacao.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.exception.http.BadRequestException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = "votacao.cpf.eligibility-cache.max-size=2")
+@ActiveProfiles("test")
+class CpfValidationClientTest {
+
+	@Autowired
+	private CpfValidationClient cpfValidationClient;
+
+	@Autowired
+	private CpfEligibilityCache eligibilityCache;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Deve normalizar e validar CPFs com e sem pontuação")
+	void shouldNormalizeAndValidateCpf() {
+		String cpf = "16643151015";
+		assertSame(cpf, Cpf.normalize(cpf));
+		assertEquals(cpf, Cpf.normalize("166.431.510-15"));
+
+		assertTrue(Cpf.isValid(cpf));
+		assertFalse(Cpf.isValid("16643151016"));
+		assertFalse(Cpf.isValid("11111111111"));
+		assertFalse(Cpf.isValid("1664315101"));
+		assertEquals(16643151015L, Cpf.toLong(cpf));
+	}
+
+	@Test
+	@DisplayName("Deve lançar exceção se o CPF for inválido")
+	void shouldThrowIfCpfIsInvalid() {
+		BadRequestException exception = assertThrows(BadRequestException.class, () -> this.cpfValidationClient.validateCpf("12345678900"));
+		assertEquals("Informe um CPF válido.", exception.getMessage());
+	}
+
+	@Test
+	@DisplayName("Deve responder pelo cache a elegibilidade de um CPF já consultado")
+	void shouldAnswerRepeatedLookupsFromCache() {
+		double hits = this.counter("votacao.cpf.eligibility.cache.hits");
+
+		VoteEligibilityStatus status = this.cpfValidationClient.validateCpf("96889461096").getStatus();
+		for (int i = 0; i < 5; i++)
+			assertEquals(status, this.cpfValidationClient.validateCpf("96889461096").getStatus());
+
+		assertEquals(hits + 5, this.counter("votacao.cpf.eligibility.cache.hits"));
+	}
+
+	@Test
+	@DisplayName("Deve remover do cache o CPF consultado há mais tempo ao atingir o tamanho máximo")
+	void shouldEvictLeastRecentlyUsedCpf() {
+		double evictions = this.counter("votacao.cpf.eligibility.cache.evictions");
+
+		this.eligibilityCache.put(28682801027L, VoteEligibilityStatus.ABLE_TO_VOTE);
+		this.eligibilityCache.put(55252488088L, VoteEligibilityStatus.UNABLE_TO_VOTE);
+		this.eligibilityCache.get(28682801027L);
+		this.eligibilityCache.put(50882863096L, VoteEligibilityStatus.ABLE_TO_VOTE);
+
+		assertEquals(2, this.eligibilityCache.size());
+		assertEquals(VoteEligibilityStatus.ABLE_TO_VOTE, this.eligibilityCache.get(28682801027L));
+		assertNull(this.eligibilityCache.get(55252488088L));
+		assertEquals(evictions + 1, this.counter("votacao.cpf.eligibility.cache.evictions"));
+	}
+
+	private double counter(String name) {
+		return this.meterRegistry.get(name).counter().count();
+	}
+
+}
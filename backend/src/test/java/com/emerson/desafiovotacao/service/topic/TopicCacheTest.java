@@ -0,0 +1,120 @@
+package com.emerson.desafiovotacao.service.topic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.exception.http.ConflictException;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteResultsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TopicCacheTest {
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private VoteResultsService voteResultsService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Performance: deve responder as consultas repetidas de uma pauta pelo cache, com uma consulta a menos por resultado")
+	void shouldServeRepeatedReadsFromCache() {
+		Topic topic = this.topicService.create(new TopicDto(this.title(), "Descrição da pauta"));
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		double hits = this.hits("topic");
+
+		long queriesBefore = statistics.getPrepareStatementCount();
+		this.voteResultsService.getResultsByTopicUuid(topic.getUuid(), true);
+		long firstQueries = statistics.getPrepareStatementCount() - queriesBefore;
+
+		queriesBefore = statistics.getPrepareStatementCount();
+		this.voteResultsService.getResultsByTopicUuid(topic.getUuid(), true);
+		long secondQueries = statistics.getPrepareStatementCount() - queriesBefore;
+
+		assertEquals(firstQueries - 1, secondQueries);
+		assertEquals(hits + 1, this.hits("topic"));
+
+		queriesBefore = statistics.getPrepareStatementCount();
+		assertSame(this.topicService.getCached(topic.getUuid()), this.topicService.getCached(topic.getUuid()));
+		assertEquals(queriesBefore, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@DisplayName("Deve remover a pauta do cache ao abrir uma sessão de votação")
+	void shouldEvictTopicWhenVotingSessionStarts() {
+		Topic topic = this.topicService.create(new TopicDto(this.title(), "Descrição da pauta"));
+		assertNull(this.topicService.getCached(topic.getUuid()).getLatestVotingSession());
+
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		Topic cached = this.topicService.getCached(topic.getUuid());
+		assertEquals(session.getUuid(), cached.getLatestVotingSession().getUuid());
+		// o banco de dados arredonda o endTime para microssegundos
+		assertTrue(Duration.between(session.getEndTime(), cached.getLatestVotingSessionEndTime()).abs().toNanos() < 1_000);
+	}
+
+	@Test
+	@DisplayName("Deve recusar títulos existentes pelo cache, sem guardar títulos de transações desfeitas")
+	void shouldRejectExistingTitlesFromCache() {
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		String title = this.title();
+		this.topicService.create(new TopicDto(title, "Descrição da pauta"));
+
+		double hits = this.hits("title");
+		long queriesBefore = statistics.getPrepareStatementCount();
+		assertThrows(ConflictException.class, () -> this.topicService.create(new TopicDto(title, "Outra descrição")));
+		assertEquals(queriesBefore, statistics.getPrepareStatementCount());
+		assertEquals(hits + 1, this.hits("title"));
+
+		// pauta criada em uma transação desfeita: o título continua disponível
+		String rolledBack = this.title();
+		new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+			this.topicService.create(new TopicDto(rolledBack, "Descrição da pauta"));
+			status.setRollbackOnly();
+		});
+		this.topicService.create(new TopicDto(rolledBack, "Descrição da pauta"));
+	}
+
+	private String title() {
+		return "Pauta cache " + UUID.randomUUID().toString().substring(0, 8);
+	}
+
+	private double hits(String cache) {
+		return this.meterRegistry.get("votacao.topic.cache.hits").tag("cache", cache).counter().count();
+	}
+
+}
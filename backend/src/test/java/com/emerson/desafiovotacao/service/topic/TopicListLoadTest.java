@@ -0,0 +1,130 @@
+package com.emerson.desafiovotacao.service.topic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.service.topic.dto.TopicKeysetPageDto;
+
+/**
+ * Teste de carga da listagem de pautas com 1 milhão de pautas, comparando o plano de execução da busca da sessão
+ * mais recente de cada pauta pela subconsulta correlacionada e pela referência mantida na própria pauta.
+ *
+ * Usa um banco de dados próprio. Não executa no build padrão; para executar: {@code mvn test -Pload-test}.
+ */
+@Tag("load")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:desafiovotacao_topic_load;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@ActiveProfiles("test")
+class TopicListLoadTest {
+
+	private static final int TOPICS = 1_000_000;
+
+	/** Consulta da listagem antes da referência à sessão mais recente na pauta. */
+	private static final String CORRELATED_LIST = """
+		SELECT t.uuid, t.title, t.created_at, s.uuid, s.start_time, s.end_time
+		FROM topic t
+		LEFT JOIN voting_session s ON s.topic_uuid = t.uuid
+		WHERE s.start_time = (SELECT MAX(sub.start_time) FROM voting_session sub WHERE sub.topic_uuid = t.uuid)
+		OR s.uuid IS NULL
+		ORDER BY t.created_at DESC
+		OFFSET 500000 ROWS FETCH FIRST 10 ROWS ONLY
+	""";
+
+	private static final String POINTER_LIST = """
+		SELECT t.uuid, t.title, t.created_at, s.uuid, s.start_time, s.end_time
+		FROM topic t
+		LEFT JOIN voting_session s ON s.uuid = t.latest_voting_session_uuid
+		ORDER BY t.created_at DESC
+		OFFSET 500000 ROWS FETCH FIRST 10 ROWS ONLY
+	""";
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	@DisplayName("Carga: deve listar as pautas pela sessão mais recente referenciada na pauta, sem subconsulta correlacionada")
+	void shouldListTopicsThroughLatestSessionPointer() {
+		// 1 milhão de pautas, 1 a cada 10 com duas sessões de votação
+		this.jdbcTemplate.update("""
+			INSERT INTO topic (uuid, title, description, created_at)
+			SELECT RANDOM_UUID(), 'Pauta ' || "X", 'Descrição da pauta ' || "X", DATEADD(SECOND, "X", TIMESTAMP WITH TIME ZONE '2020-01-01 00:00:00Z')
+			FROM SYSTEM_RANGE(1, ?)
+		""", TOPICS);
+		for (int minutes : new int[] { 1, 2 }) {
+			this.jdbcTemplate.update("""
+				INSERT INTO voting_session (uuid, topic_uuid, start_time, end_time)
+				SELECT RANDOM_UUID(), t.uuid, DATEADD(MINUTE, ?, t.created_at), DATEADD(MINUTE, ? + 1, t.created_at)
+				FROM topic t
+				WHERE t.title LIKE '%0'
+			""", minutes, minutes);
+		}
+
+		// mesmo preenchimento da migração V2 (PostgreSQL) para as pautas existentes
+		long start = System.nanoTime();
+		this.jdbcTemplate.update("""
+			UPDATE topic t
+			SET (latest_voting_session_uuid, latest_voting_session_end_time) = (
+				SELECT s.uuid, s.end_time
+				FROM voting_session s
+				WHERE s.topic_uuid = t.uuid
+				ORDER BY s.start_time DESC, s.uuid DESC
+				LIMIT 1
+			)
+			WHERE t.latest_voting_session_uuid IS NULL
+			AND EXISTS (SELECT 1 FROM voting_session s WHERE s.topic_uuid = t.uuid)
+		""");
+		System.out.println(String.format("Preenchimento da sessão mais recente: %s ms", (System.nanoTime() - start) / 1_000_000));
+
+		Integer pointers = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM topic WHERE latest_voting_session_uuid IS NOT NULL", Integer.class);
+		assertEquals(TOPICS / 10, pointers);
+		Integer stale = this.jdbcTemplate.queryForObject("""
+			SELECT COUNT(*)
+			FROM topic t
+			JOIN voting_session s ON s.uuid = t.latest_voting_session_uuid
+			WHERE s.start_time < (SELECT MAX(sub.start_time) FROM voting_session sub WHERE sub.topic_uuid = t.uuid)
+		""", Integer.class);
+		assertEquals(0, stale);
+
+		String correlatedPlan = this.explain(CORRELATED_LIST);
+		String pointerPlan = this.explain(POINTER_LIST);
+		System.out.println("Plano com subconsulta correlacionada:\n" + correlatedPlan);
+		System.out.println("Plano com referência na pauta:\n" + pointerPlan);
+
+		// a sessão de cada pauta é obtida pela chave primária, sem agregação por pauta
+		assertTrue(correlatedPlan.toUpperCase().contains("MAX("));
+		assertFalse(pointerPlan.toUpperCase().contains("MAX("));
+		assertTrue(pointerPlan.contains("PRIMARY_KEY"), pointerPlan);
+		assertTrue(pointerPlan.contains("idx_topic_created_at"), pointerPlan);
+
+		System.out.println(String.format("Listagem com subconsulta correlacionada: %s ms", this.time(CORRELATED_LIST)));
+		System.out.println(String.format("Listagem com referência na pauta: %s ms", this.time(POINTER_LIST)));
+
+		start = System.nanoTime();
+		TopicKeysetPageDto page = this.topicService.listByCursor("createdAt", "desc", null, 10, false);
+		System.out.println(String.format("Primeira página por cursor: %s ms", (System.nanoTime() - start) / 1_000_000));
+		assertEquals(10, page.topics().size());
+		assertTrue(page.topics().get(0).sessionId() != null);
+	}
+
+	private String explain(String sql) {
+		return String.join("\n", this.jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+	}
+
+	private long time(String sql) {
+		long start = System.nanoTime();
+		this.jdbcTemplate.queryForList(sql);
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+}
@@ -2,10 +2,14 @@ package com.emerson.desafiovotacao.service.topic;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,10 +20,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.exception.http.BadRequestException;
 import com.emerson.desafiovotacao.exception.http.ConflictException;
 import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByIdException;
 import com.emerson.desafiovotacao.repository.topic.TopicRepository;
+import com.emerson.desafiovotacao.service.topic.dto.TopicCursorDto;
 import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.topic.dto.TopicKeysetPageDto;
+import com.emerson.desafiovotacao.service.topic.dto.TopicWithOpenSessionDto;
 
 import jakarta.transaction.Transactional;
 
@@ -34,6 +42,9 @@ class TopicServiceTest {
 	@Autowired
 	private TopicRepository repository;
 
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
 	@Test
 	@DisplayName("Deve retornar uma pauta quando o ID dela existe na base")
 	void shouldReturnTopicWhenIdExists() {
@@ -83,4 +94,54 @@ class TopicServiceTest {
 		assertEquals("Já existe uma pauta com o título informado.", exception.getMessage());
 	}
 
+	@Test
+	@DisplayName("Deve percorrer as pautas por cursor, ordenadas pela data de criação, sem repetir pautas")
+	void shouldListTopicsByCursorOrderedByCreatedAt() {
+		// datas futuras para que as pautas do teste sejam as primeiras na ordenação decrescente
+		Instant createdAt = Instant.parse("2999-01-01T00:00:00Z");
+		List<Topic> topics = new ArrayList<>();
+		for (int i = 0; i < 5; i++)
+			topics.add(this.repository.save(new Topic("Pauta cursor " + i, "Descrição " + i, createdAt.plus(i, ChronoUnit.DAYS))));
+		this.votingSessionService.startVotingSession(topics.get(4).getUuid(), 5);
+
+		TopicKeysetPageDto first = this.service.listByCursor("createdAt", "desc", null, 2, false);
+		assertEquals(2, first.topics().size());
+		assertEquals(topics.get(4).getUuid(), first.topics().get(0).id());
+		assertEquals(topics.get(3).getUuid(), first.topics().get(1).id());
+		assertNotNull(first.topics().get(0).sessionId());
+		assertNull(first.topics().get(1).sessionId());
+		assertNull(first.topics().get(0).description());
+		assertNotNull(first.next());
+
+		TopicKeysetPageDto second = this.service.listByCursor("createdAt", "desc", first.next(), 2, true);
+		assertEquals(List.of(topics.get(2).getUuid(), topics.get(1).getUuid()), second.topics().stream().map(TopicWithOpenSessionDto::id).toList());
+		assertEquals("Descrição 2", second.topics().get(0).description());
+	}
+
+	@Test
+	@DisplayName("Deve percorrer as pautas por cursor, ordenadas pelo título")
+	void shouldListTopicsByCursorOrderedByTitle() {
+		// títulos iniciados por "!" para que as pautas do teste sejam as primeiras na ordenação crescente
+		for (String title : List.of("!c", "!a", "!b"))
+			this.repository.save(new Topic(title, "Descrição", Instant.now()));
+
+		List<String> titles = new ArrayList<>();
+		TopicCursorDto after = null;
+		do {
+			TopicKeysetPageDto page = this.service.listByCursor("title", "asc", after, 1, false);
+			page.topics().forEach(t -> titles.add(t.title()));
+			after = page.next();
+		} while (after != null && titles.size() < 3);
+
+		assertEquals(List.of("!a", "!b", "!c"), titles);
+	}
+
+	@Test
+	@DisplayName("Deve recusar ordenações por campos não indexados e cursores incompletos")
+	void shouldRejectNotAllowedSortAndIncompleteCursor() {
+		assertThrows(BadRequestException.class, () -> this.service.listByCursor("description", "asc", null, 10, false));
+		assertThrows(BadRequestException.class, () -> this.service.listByCursor("title", "up", null, 10, false));
+		assertThrows(BadRequestException.class, () -> this.service.listByCursor("title", "asc", new TopicCursorDto(Instant.now(), null, UUID.randomUUID()), 10, false));
+	}
+
 }
@@ -1,13 +1,17 @@
 package com.emerson.desafiovotacao.service.topic;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.UUID;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +24,9 @@ import com.emerson.desafiovotacao.exception.http.ConflictException;
 import com.emerson.desafiovotacao.repository.topic.TopicRepository;
 import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -36,6 +42,9 @@ class TopicVotingSessionServiceTest {
 	@Autowired
 	private TopicRepository topicRepository;
 
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
 	@Test
 	@DisplayName("Deve iniciar uma sessão de votação com sucesso")
 	void shouldStartVotingSessionSuccessfully() {
@@ -67,4 +76,51 @@ class TopicVotingSessionServiceTest {
 		assertEquals("Já existe uma sessão de votação em andamento para a pauta informada.", exception.getMessage());
 	}
 
+	@Test
+	@Transactional(TxType.NOT_SUPPORTED)
+	@DisplayName("Deve obter a sessão aberta do cache, sem consultar o banco de dados novamente")
+	void shouldGetOpenVotingSessionFromCache() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta cache de sessão " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// primeira consulta carrega a sessão do banco de dados
+		assertEquals(session.getUuid(), this.votingSessionService.getOpenByUuid(session.getUuid(), Instant.now()).orElseThrow().getUuid());
+
+		long queriesBefore = statistics.getPrepareStatementCount();
+		for (int i = 0; i < 10; i++) {
+			assertEquals(session.getUuid(), this.votingSessionService.getOpenByUuid(session.getUuid(), Instant.now()).orElseThrow().getUuid());
+			assertEquals(session.getUuid(), this.votingSessionService.getOpenByTopicUuid(topic.getUuid(), Instant.now()).orElseThrow().getUuid());
+		}
+		assertEquals(queriesBefore, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@DisplayName("Não deve armazenar no cache uma sessão ainda não confirmada")
+	void shouldNotCacheUncommittedVotingSession() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta sessão não confirmada", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		this.votingSessionService.getOpenByUuid(session.getUuid(), Instant.now()).orElseThrow();
+
+		// a transação do teste nunca é confirmada: cada consulta vai ao banco de dados
+		long queriesBefore = statistics.getPrepareStatementCount();
+		this.votingSessionService.getOpenByUuid(session.getUuid(), Instant.now()).orElseThrow();
+		this.votingSessionService.getOpenByTopicUuid(topic.getUuid(), Instant.now()).orElseThrow();
+		assertEquals(queriesBefore + 2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@DisplayName("Deve deixar de retornar a sessão do cache no instante do seu encerramento")
+	void shouldNotReturnVotingSessionAfterEndTime() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta sessão encerrada", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+		this.votingSessionService.getOpenByUuid(session.getUuid(), Instant.now()).orElseThrow();
+
+		assertTrue(this.votingSessionService.getOpenByTopicUuid(topic.getUuid(), session.getEndTime().minusMillis(1)).isPresent());
+		assertFalse(this.votingSessionService.getOpenByTopicUuid(topic.getUuid(), session.getEndTime()).isPresent());
+		assertFalse(this.votingSessionService.getOpenByUuid(session.getUuid(), session.getEndTime()).isPresent());
+	}
+
 }
@@ -0,0 +1,242 @@
+package com.emerson.desafiovotacao.service.vote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.VoteTally;
+import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByIdException;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteTallyRepository;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteMetrics.Outcome;
+import com.emerson.desafiovotacao.service.vote.dto.BulkVoteItemDto;
+import com.emerson.desafiovotacao.service.vote.dto.BulkVoteItemStatus;
+import com.emerson.desafiovotacao.service.vote.dto.BulkVoteResultDto;
+import com.emerson.desafiovotacao.service.vote.registry.VoterRegistry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class VoteBulkServiceTest {
+
+	private static final String UNABLE_TO_VOTE_CPF = "55252488088";
+
+	@Autowired
+	private VoteBulkService voteBulkService;
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private VoteTallyRepository voteTallyRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private VoterRegistry voterRegistry;
+
+	@Autowired
+	private CpfValidationClient cpfValidationClient;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		@SuppressWarnings("unchecked")
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			
+			// todos os CPFs aptos, exceto um
+			Mockito.when(mock.validateCpfs(Mockito.anyCollection())).thenAnswer(invocation -> {
+				Map<String, VoteEligibilityStatus> statuses = new HashMap<>();
+				for (String cpf : (Collection<String>) invocation.getArgument(0))
+					statuses.put(cpf, UNABLE_TO_VOTE_CPF.equals(cpf) ? VoteEligibilityStatus.UNABLE_TO_VOTE : VoteEligibilityStatus.ABLE_TO_VOTE);
+				return statuses;
+			});
+			return mock;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve registrar o lote de votos informando a situação de cada voto")
+	void shouldVoteInBulkWithPerItemStatus() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta votos em lote", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "28682801027", true);
+
+		BulkVoteResultDto result = this.voteBulkService.voteByTopicUuid(topic.getUuid(), List.of(
+			new BulkVoteItemDto("166.431.510-15", true),
+			new BulkVoteItemDto("96889461096", false),
+			new BulkVoteItemDto("12345678900", true),
+			new BulkVoteItemDto("16643151015", false),
+			new BulkVoteItemDto("28682801027", false),
+			new BulkVoteItemDto(UNABLE_TO_VOTE_CPF, true)
+		));
+
+		assertEquals(2, result.accepted());
+		assertEquals(4, result.rejected());
+		assertEquals(BulkVoteItemStatus.ACCEPTED, result.results().get(0).status());
+		assertEquals("16643151015", result.results().get(0).cpf());
+		assertEquals(BulkVoteItemStatus.ACCEPTED, result.results().get(1).status());
+		assertEquals(BulkVoteItemStatus.INVALID_CPF, result.results().get(2).status());
+		assertEquals(BulkVoteItemStatus.DUPLICATED, result.results().get(3).status());
+		assertEquals(BulkVoteItemStatus.DUPLICATED, result.results().get(4).status());
+		assertEquals(BulkVoteItemStatus.UNABLE_TO_VOTE, result.results().get(5).status());
+
+		assertEquals(true, this.voteRepository.findByTopicVotingSessionTopicUuidAndCpf(topic.getUuid(), "16643151015").orElseThrow().getVote());
+		assertEquals(false, this.voteRepository.findByTopicVotingSessionTopicUuidAndCpf(topic.getUuid(), "96889461096").orElseThrow().getVote());
+
+		VoteTally tally = this.voteTallyRepository.findByTopicVotingSessionUuid(session.getUuid()).orElseThrow();
+		assertEquals(2, tally.getFavorableVotes());
+		assertEquals(1, tally.getAgainstVotes());
+	}
+
+	@Test
+	@Transactional(TxType.NOT_SUPPORTED)
+	@DisplayName("Não deve consultar a elegibilidade de CPFs que o registro de votantes já conhece")
+	void shouldNotValidateCpfsAlreadyInVoterRegistry() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta " + UUID.randomUUID(), "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+		this.voterRegistry.register(session, "28682801027");
+		Mockito.clearInvocations(this.cpfValidationClient);
+
+		BulkVoteResultDto result = this.voteBulkService.voteByVotingSessionUuid(session.getUuid(), List.of(
+			new BulkVoteItemDto("28682801027", true),
+			new BulkVoteItemDto("16643151015", false)
+		));
+
+		assertEquals(BulkVoteItemStatus.DUPLICATED, result.results().get(0).status());
+		assertEquals(BulkVoteItemStatus.ACCEPTED, result.results().get(1).status());
+		Mockito.verify(this.cpfValidationClient).validateCpfs(Set.of("16643151015"));
+	}
+
+	@Test
+	@Transactional(TxType.NOT_SUPPORTED)
+	@DisplayName("Deve contabilizar o desfecho de cada voto do lote nas métricas")
+	void shouldCountBulkVoteOutcomes() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta " + UUID.randomUUID(), "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "28682801027", true);
+		Map<Outcome, Double> before = this.outcomes();
+
+		this.voteBulkService.voteByVotingSessionUuid(session.getUuid(), List.of(
+			new BulkVoteItemDto("16643151015", true),
+			new BulkVoteItemDto("96889461096", false),
+			new BulkVoteItemDto("12345678900", true),
+			new BulkVoteItemDto("28682801027", false),
+			new BulkVoteItemDto(UNABLE_TO_VOTE_CPF, true)
+		));
+		assertThrows(TopicVotingSessionNotFoundByIdException.class, () -> this.voteBulkService.voteByVotingSessionUuid(UUID.randomUUID(), List.of(
+			new BulkVoteItemDto("16643151015", true),
+			new BulkVoteItemDto("96889461096", false)
+		)));
+
+		Map<Outcome, Double> after = this.outcomes();
+		assertEquals(2, after.get(Outcome.ACCEPTED) - before.get(Outcome.ACCEPTED));
+		assertEquals(1, after.get(Outcome.INVALID_CPF) - before.get(Outcome.INVALID_CPF));
+		assertEquals(1, after.get(Outcome.DUPLICATE) - before.get(Outcome.DUPLICATE));
+		assertEquals(1, after.get(Outcome.INELIGIBLE) - before.get(Outcome.INELIGIBLE));
+		assertEquals(2, after.get(Outcome.SESSION_CLOSED) - before.get(Outcome.SESSION_CLOSED));
+	}
+
+	@Test
+	@DisplayName("Performance: deve registrar um lote de votos com uma quantidade fixa de consultas")
+	void shouldVoteInBulkWithConstantQueries() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta lote grande", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		List<BulkVoteItemDto> votes = new ArrayList<>();
+		for (int i = 0; i < 500; i++)
+			votes.add(new BulkVoteItemDto(cpf(i), i % 3 != 0));
+
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long queriesBefore = statistics.getPrepareStatementCount();
+		BulkVoteResultDto result = this.voteBulkService.voteByVotingSessionUuid(session.getUuid(), votes);
+		long queries = statistics.getPrepareStatementCount() - queriesBefore;
+
+		assertEquals(500, result.accepted());
+		assertEquals(500, this.voteRepository.findByTopicVotingSessionTopicUuid(topic.getUuid()).size());
+		assertTrue(queries <= 12, "Consultas demais para um lote: " + queries);
+	}
+
+	private Map<Outcome, Double> outcomes() {
+		Map<Outcome, Double> outcomes = new HashMap<>();
+		for (Outcome outcome : Outcome.values())
+			outcomes.put(outcome, this.meterRegistry.get("votacao.vote.outcome").tag("outcome", outcome.name().toLowerCase()).counter().count());
+		return outcomes;
+	}
+
+	/**
+	 * Gera um CPF válido (com os dígitos verificadores corretos) a partir de um número sequencial.
+	 */
+	private static String cpf(int n) {
+		int[] digits = new int[11];
+		String base = String.format("%09d", 200_000_000 + n);
+		for (int i = 0; i < 9; i++)
+			digits[i] = base.charAt(i) - '0';
+
+		for (int check = 9; check < 11; check++) {
+			int sum = 0;
+			for (int i = 0; i < check; i++)
+				sum += digits[i] * (check + 1 - i);
+			int remainder = sum % 11;
+			digits[check] = remainder < 2 ? 0 : 11 - remainder;
+		}
+
+		StringBuilder cpf = new StringBuilder(11);
+		for (int d : digits)
+			cpf.append(d);
+		return cpf.toString();
+	}
+
+}
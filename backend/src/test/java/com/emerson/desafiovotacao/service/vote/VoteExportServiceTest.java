@@ -0,0 +1,123 @@
+package com.emerson.desafiovotacao.service.vote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.Vote;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteCursorDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.transaction.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class VoteExportServiceTest {
+
+	@Autowired
+	private VoteExportService voteExportService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	@DisplayName("Deve exportar os votos da pauta em NDJSON, um voto por linha")
+	void shouldExportVotesAsNdjson() throws Exception {
+		Topic topic = this.createTopicWithVotes("Pauta exportação NDJSON", 5);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long exported = this.voteExportService.export(topic.getUuid(), VoteExportFormat.NDJSON, null, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(5, exported);
+		assertEquals(5, lines.length);
+
+		JsonNode first = this.objectMapper.readTree(lines[0]);
+		assertEquals("00000000001", first.get("cpf").asText());
+		assertTrue(first.get("vote").asBoolean());
+		assertTrue(first.hasNonNull("uuid"));
+		assertTrue(first.hasNonNull("topicVotingSessionUuid"));
+		assertTrue(first.hasNonNull("votedAt"));
+	}
+
+	@Test
+	@DisplayName("Deve exportar os votos da pauta em CSV com cabeçalho")
+	void shouldExportVotesAsCsv() {
+		Topic topic = this.createTopicWithVotes("Pauta exportação CSV", 3);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.voteExportService.export(topic.getUuid(), VoteExportFormat.CSV, null, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(4, lines.length);
+		assertEquals("uuid,topicVotingSessionUuid,cpf,vote,votedAt", lines[0]);
+		assertEquals("00000000002", lines[2].split(",")[2]);
+	}
+
+	@Test
+	@DisplayName("Deve retomar a exportação a partir do cursor informado")
+	void shouldResumeExportFromCursor() throws Exception {
+		Topic topic = this.createTopicWithVotes("Pauta exportação retomada", 6);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.voteExportService.export(topic.getUuid(), VoteExportFormat.NDJSON, null, out);
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+		// retoma a partir do segundo voto exportado
+		JsonNode second = this.objectMapper.readTree(lines[1]);
+		VoteCursorDto cursor = new VoteCursorDto(Instant.parse(second.get("votedAt").asText()), UUID.fromString(second.get("uuid").asText()));
+
+		ByteArrayOutputStream resumed = new ByteArrayOutputStream();
+		long exported = this.voteExportService.export(topic.getUuid(), VoteExportFormat.NDJSON, cursor, resumed);
+		String[] resumedLines = resumed.toString(StandardCharsets.UTF_8).split("\n");
+
+		assertEquals(4, exported);
+		for (int i = 0; i < resumedLines.length; i++)
+			assertEquals(lines[i + 2], resumedLines[i]);
+	}
+
+	private Topic createTopicWithVotes(String title, int votesCount) {
+		Topic topic = this.topicService.create(new TopicDto(title, "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		Instant votedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		List<Vote> votes = new ArrayList<>();
+		for (int i = 0; i < votesCount; i++)
+			votes.add(new Vote(session, String.format("%011d", i + 1), i % 2 == 0, votedAt.plusSeconds(i)));
+		this.voteRepository.saveAllAndFlush(votes);
+
+		return topic;
+	}
+
+}
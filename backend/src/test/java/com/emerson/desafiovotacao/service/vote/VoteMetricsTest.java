@@ -0,0 +1,174 @@
+package com.emerson.desafiovotacao.service.vote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.exception.http.BadRequestException;
+import com.emerson.desafiovotacao.exception.http.ConflictException;
+import com.emerson.desafiovotacao.exception.http.TopicVotingSessionNotFoundByTopicException;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteMetrics.Outcome;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class VoteMetricsTest {
+
+	private static final String INELIGIBLE_CPF = "28682801027";
+
+	private static final String INVALID_CPF = "12345678900";
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private VoteMetrics metrics;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			Mockito.when(mock.validateCpf(INELIGIBLE_CPF))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.UNABLE_TO_VOTE));
+			Mockito.when(mock.validateCpf(INVALID_CPF))
+				   .thenThrow(new BadRequestException("Informe um CPF válido."));
+			return mock;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve contabilizar o desfecho de cada voto e medir as etapas do registro")
+	void shouldCountOutcomesAndTimeStages() {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		Topic withoutSession = this.topicService.create(new TopicDto("Pauta métricas " + UUID.randomUUID().toString().substring(0, 8), "Sem sessão"));
+
+		double accepted = this.outcome("accepted");
+		double duplicate = this.outcome("duplicate");
+		double ineligible = this.outcome("ineligible");
+		double invalidCpf = this.outcome("invalid_cpf");
+		double sessionClosed = this.outcome("session_closed");
+		long inserts = this.stage("insert");
+		long eligibility = this.stage("eligibility");
+		long commits = this.stage("commit");
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", true);
+		assertThrows(ConflictException.class, () -> this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", false));
+		assertThrows(BadRequestException.class, () -> this.voteService.voteByVotingSessionUuid(session.getUuid(), INELIGIBLE_CPF, true));
+		assertThrows(BadRequestException.class, () -> this.voteService.voteByVotingSessionUuid(session.getUuid(), INVALID_CPF, true));
+		assertThrows(TopicVotingSessionNotFoundByTopicException.class, () -> this.voteService.voteByTopicUuid(withoutSession.getUuid(), "96889461096", true));
+
+		assertEquals(accepted + 1, this.outcome("accepted"));
+		assertEquals(duplicate + 1, this.outcome("duplicate"));
+		assertEquals(ineligible + 1, this.outcome("ineligible"));
+		assertEquals(invalidCpf + 1, this.outcome("invalid_cpf"));
+		assertEquals(sessionClosed + 1, this.outcome("session_closed"));
+
+		// o voto duplicado é recusado antes da consulta de elegibilidade, e apenas o voto aceito é gravado
+		assertEquals(eligibility + 3, this.stage("eligibility"));
+		assertEquals(inserts + 1, this.stage("insert"));
+		assertEquals(commits + 1, this.stage("commit"));
+	}
+
+	@Test
+	@DisplayName("Não deve contabilizar como aceito um voto cuja transação não foi confirmada")
+	void shouldNotCountAcceptedWithoutCommit() {
+		double accepted = this.outcome("accepted");
+		long commits = this.stage("commit");
+
+		new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+			this.metrics.recordCommit(Outcome.ACCEPTED);
+			status.setRollbackOnly();
+		});
+		assertEquals(accepted, this.outcome("accepted"));
+		assertEquals(commits, this.stage("commit"));
+
+		new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> this.metrics.recordCommit(Outcome.ACCEPTED));
+		assertEquals(accepted + 1, this.outcome("accepted"));
+		assertEquals(commits + 1, this.stage("commit"));
+	}
+
+	@Test
+	@DisplayName("Deve expor as métricas dos votos e do pool de conexões no endpoint do Prometheus, sem CPFs ou IDs")
+	void shouldExposePrometheusEndpoint() throws Exception {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "50882863096", true);
+
+		String scrape = this.mockMvc.perform(get("/actuator/prometheus"))
+									.andExpect(status().isOk())
+									.andReturn()
+									.getResponse()
+									.getContentAsString();
+
+		assertTrue(scrape.contains("votacao_vote_outcome_total{application=\"desafio-votacao\",outcome=\"accepted\"}"), scrape);
+		assertTrue(scrape.contains("votacao_vote_stage_duration_seconds_bucket{application=\"desafio-votacao\",stage=\"insert\""), scrape);
+		assertTrue(scrape.contains("hikaricp_connections_active"), scrape);
+		assertFalse(scrape.contains("50882863096"));
+		assertFalse(scrape.contains(session.getUuid().toString()));
+		assertFalse(scrape.contains(session.getTopic().getUuid().toString()));
+	}
+
+	private TopicVotingSession createTopicWithVotingSession() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta métricas " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta"));
+		return this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+	}
+
+	private double outcome(String outcome) {
+		return this.meterRegistry.get("votacao.vote.outcome").tag("outcome", outcome).counter().count();
+	}
+
+	private long stage(String stage) {
+		return this.meterRegistry.get("votacao.vote.stage.duration").tag("stage", stage).timer().count();
+	}
+
+}
@@ -6,8 +6,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,7 +27,12 @@ import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
 import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
 import com.emerson.desafiovotacao.service.vote.dto.Result;
 import com.emerson.desafiovotacao.service.vote.dto.TopicVoteResultsDto;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVotingSessionVotesDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteKeysetPageDto;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
 
 @SpringBootTest
@@ -47,6 +55,12 @@ class VoteResultsServiceTest {
 	@Autowired
 	private VoteRepository voteRepository;
 
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
 	@Test
 	@DisplayName("Deve retornar resultado com votos FAVORÁVEIS sendo maioria")
 	void shouldReturnFavorableMajorityResults() {
@@ -138,4 +152,105 @@ class VoteResultsServiceTest {
 		assertNull(result.finalResult());
 	}
 
+	@Test
+	@DisplayName("Deve retornar apenas as contagens no modo resumido, sem os votos individuais")
+	void shouldReturnOnlyCountsInSummaryMode() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta Resumida", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		this.voteRepository.saveAll(List.of(
+			new Vote(session, "11100000000", true, Instant.now()),
+			new Vote(session, "22200000000", false, Instant.now()),
+			new Vote(session, "33300000000", false, Instant.now())
+		));
+
+		TopicVoteResultsDto result = this.voteResultsService.getResultsByTopicUuid(topic.getUuid(), true);
+
+		assertEquals(1, result.favorableVotes());
+		assertEquals(2, result.againstVotes());
+		assertEquals(Result.AGAINST, result.currentResult());
+
+		TopicVotingSessionVotesDto sessionVotes = result.votingSessionsVotes().get(0);
+		assertEquals(1, sessionVotes.favorableVotes());
+		assertEquals(2, sessionVotes.againstVotes());
+		assertNull(sessionVotes.votes());
+	}
+
+	@Test
+	@DisplayName("Deve paginar os votos de uma sessão por cursor, em ordem e sem repetições")
+	void shouldPageVotingSessionVotesByCursor() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta Paginada", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		// votos com datas repetidas para garantir o desempate pelo UUID
+		Instant votedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		List<Vote> votes = new ArrayList<>();
+		for (int i = 0; i < 7; i++)
+			votes.add(new Vote(session, String.format("%011d", i + 1), i % 2 == 0, votedAt.plusSeconds(i / 2)));
+		this.voteRepository.saveAllAndFlush(votes);
+
+		List<VoteDto> pagedVotes = new ArrayList<>();
+		VoteKeysetPageDto page = this.voteResultsService.listVotesByVotingSessionUuid(session.getUuid(), null, 3);
+		pagedVotes.addAll(page.votes());
+		int pages = 1;
+		while (page.next() != null) {
+			page = this.voteResultsService.listVotesByVotingSessionUuid(session.getUuid(), page.next(), 3);
+			pagedVotes.addAll(page.votes());
+			pages++;
+		}
+
+		assertEquals(3, pages);
+		assertEquals(7, pagedVotes.size());
+		assertEquals(7, pagedVotes.stream().map(VoteDto::cpf).distinct().count());
+		for (int i = 1; i < pagedVotes.size(); i++)
+			assertTrue(!pagedVotes.get(i).votedAt().isBefore(pagedVotes.get(i - 1).votedAt()));
+	}
+
+	@Test
+	@DisplayName("Performance: deve calcular o resultado de pautas com muitas sessões com um número constante de consultas")
+	void shouldComputeResultsOfTopicWithManySessionsWithConstantQueries() {
+		int sessionsCount = 200;
+		int votesPerSession = 25;
+
+		Topic topic = this.topicService.create(new TopicDto("Pauta muitas sessões", "Descrição da pauta"));
+		Instant start = Instant.now().minus(sessionsCount + 1, ChronoUnit.HOURS);
+		List<Vote> votes = new ArrayList<>();
+		for (int s = 0; s < sessionsCount; s++) {
+			TopicVotingSession session = this.votingSessionRepository.save(
+				TopicVotingSession.builder()
+					.topic(topic)
+					.startTime(start.plus(s, ChronoUnit.HOURS))
+					.endTime(start.plus(s, ChronoUnit.HOURS).plus(30, ChronoUnit.MINUTES))
+					.build()
+			);
+			for (int v = 0; v < votesPerSession; v++)
+				votes.add(new Vote(session, String.format("%011d", s * votesPerSession + v), v % 5 != 0, session.getStartTime()));
+		}
+		this.voteRepository.saveAllAndFlush(votes);
+		this.entityManager.clear();
+
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		long queriesBefore = statistics.getPrepareStatementCount();
+		TopicVoteResultsDto result = this.voteResultsService.getResultsByTopicUuid(topic.getUuid());
+		long queries = statistics.getPrepareStatementCount() - queriesBefore;
+
+		// pauta, votos, sessões, contagens consolidadas e contagem agregada dos votos
+		assertTrue(queries <= 5, "Quantidade de consultas não deve depender da quantidade de sessões (" + queries + ")");
+		assertEquals(sessionsCount, result.votingSessionsVotes().size());
+		assertEquals(sessionsCount * votesPerSession * 4 / 5, result.favorableVotes());
+		assertEquals(sessionsCount * votesPerSession / 5, result.againstVotes());
+		assertEquals(Result.FAVORABLE, result.finalResult());
+		for (TopicVotingSessionVotesDto s : result.votingSessionsVotes()) {
+			assertEquals(votesPerSession, s.votes().size());
+			assertEquals(votesPerSession, s.favorableVotes() + s.againstVotes());
+		}
+
+		queriesBefore = statistics.getPrepareStatementCount();
+		TopicVoteResultsDto summary = this.voteResultsService.getResultsByTopicUuid(topic.getUuid(), true);
+		assertTrue(statistics.getPrepareStatementCount() - queriesBefore <= 4);
+		assertEquals(result.favorableVotes(), summary.favorableVotes());
+		assertEquals(result.againstVotes(), summary.againstVotes());
+	}
+
 }
@@ -1,13 +1,20 @@
 package com.emerson.desafiovotacao.service.vote;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +27,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.emerson.desafiovotacao.domain.topic.Topic;
@@ -32,6 +41,7 @@ import com.emerson.desafiovotacao.external.CpfValidationClient;
 import com.emerson.desafiovotacao.external.CpfValidationResponse;
 import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
 import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteBatchRepository;
 import com.emerson.desafiovotacao.repository.vote.VoteRepository;
 import com.emerson.desafiovotacao.service.topic.TopicService;
 import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
@@ -59,6 +69,12 @@ class VoteServiceTest {
 	
 	@Autowired
 	private TopicVotingSessionRepository votingSessionRepository;
+	
+	@Autowired
+	private VoteBatchRepository voteBatchRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
 
 	@TestConfiguration
 	static class MockCpfValidationClientConfig {
@@ -119,6 +135,36 @@ class VoteServiceTest {
 		assertEquals("O associado já votou nesta pauta. Só é permitido votar uma vez por pauta.", exception.getMessage());
 	}
 
+	@Test
+	@DisplayName("Deve identificar o voto repetido pela restrição única (pauta, CPF), pelo JPA e pelo JDBC")
+	void shouldDetectDuplicatedVoteFromConstraint() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta restrição única", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+		this.voteRepository.saveAndFlush(new Vote(session, "96889461096", true, Instant.now()));
+
+		DataIntegrityViolationException batch = assertThrows(DataIntegrityViolationException.class,
+				() -> this.voteBatchRepository.insertAll(List.of(new Vote(session, "96889461096", false, Instant.now()))));
+		assertTrue(VoteService.isDuplicatedKey(batch));
+
+		DataIntegrityViolationException jpa = assertThrows(DataIntegrityViolationException.class,
+				() -> this.voteRepository.saveAndFlush(new Vote(session, "96889461096", false, Instant.now())));
+		assertTrue(VoteService.isDuplicatedVote(jpa));
+	}
+
+	@Test
+	@DisplayName("Não deve tratar como voto repetido outras falhas de integridade")
+	void shouldNotTreatOtherIntegrityViolationsAsDuplicatedVote() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta sessão inexistente", "Descrição da pauta"));
+		TopicVotingSession missingSession = TopicVotingSession.builder()
+				.uuid(UUID.randomUUID())
+				.topic(topic)
+				.build();
+
+		DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+				() -> this.voteBatchRepository.insertAll(List.of(new Vote(missingSession, "96889461096", true, Instant.now()))));
+		assertFalse(VoteService.isDuplicatedKey(e));
+	}
+
 	@Test
 	@DisplayName("Deve registrar um voto com sucesso usando o ID da sessão")
 	void shouldVoteSuccessfullyBySessionUuid() {
@@ -133,6 +179,20 @@ class VoteServiceTest {
 		assertEquals(false, savedVote.get().getVote());
 	}
 
+	@Test
+	@DisplayName("Deve gravar o CPF como número e lê-lo com os zeros à esquerda")
+	void shouldStoreCpfAsNumber() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta CPF numérico", "Descrição da pauta"));
+		this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		String cpf = "07068093868";
+		this.voteService.voteByTopicUuid(topic.getUuid(), "070.680.938-68", true);
+
+		Object storedCpf = this.jdbcTemplate.queryForObject("SELECT cpf FROM vote WHERE topic_uuid = ?", Object.class, topic.getUuid());
+		assertEquals(7068093868L, storedCpf);
+		assertEquals(cpf, this.voteRepository.findByTopicVotingSessionTopicUuidAndCpf(topic.getUuid(), cpf).orElseThrow().getCpf());
+	}
+
 	@Test
 	@DisplayName("Deve lançar exceção se a sessão informada não estiver ativa")
 	void shouldThrowIfSessionNotActive() {
@@ -155,6 +215,41 @@ class VoteServiceTest {
 		assertEquals("Não foi possível encontrar pauta ativa com o ID informado.", exception.getMessage());
 	}
 	
+	@Test
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	@DisplayName("Concorrência: deve registrar apenas um voto quando o mesmo associado vota várias vezes em paralelo")
+	void shouldPersistOnlyOneVoteOnConcurrentDuplicatedVotes() throws InterruptedException {
+		// sem transação do teste: cada voto precisa ser gravado em sua própria transação, como nas requisições reais
+		Topic topic = this.topicService.create(new TopicDto("Pauta concorrência", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		String cpf = "71428793860";
+		int attempts = 32;
+		AtomicInteger accepted = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(attempts)) {
+			for (int i = 0; i < attempts; i++) {
+				executor.submit(() -> {
+					start.await();
+					try {
+						this.voteService.voteByVotingSessionUuid(session.getUuid(), cpf, true);
+						accepted.incrementAndGet();
+					} catch (ConflictException e) {
+						conflicts.incrementAndGet();
+					}
+					return null;
+				});
+			}
+			start.countDown();
+		}
+
+		assertEquals(1, accepted.get());
+		assertEquals(attempts - 1, conflicts.get());
+		assertEquals(1, this.voteRepository.findByTopicVotingSessionTopicUuid(topic.getUuid()).size());
+	}
+	
 	@Test
 	@DisplayName("Performance: deve registrar milhares de votos em tempo aceitável")
 	void shouldHandleMassiveVotingPerformance() {
@@ -0,0 +1,143 @@
+package com.emerson.desafiovotacao.service.vote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.Vote;
+import com.emerson.desafiovotacao.domain.vote.VoteTally;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteTallyRepository;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTallyDriftDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTallyVerificationDto;
+
+import jakarta.transaction.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class VoteTallyServiceTest {
+
+	@Autowired
+	private VoteTallyService voteTallyService;
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private VoteTallyRepository voteTallyRepository;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			return mock;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve manter a contagem da sessão atualizada a cada voto registrado")
+	void shouldIncrementTallyOnEachVote() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta contagem", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", true);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "96889461096", true);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "28682801027", false);
+
+		Optional<VoteTally> tally = this.voteTallyRepository.findByTopicVotingSessionUuid(session.getUuid());
+		assertTrue(tally.isPresent());
+		assertEquals(2, tally.get().getFavorableVotes());
+		assertEquals(1, tally.get().getAgainstVotes());
+		assertEquals(3, tally.get().getTotalVotes());
+		assertTrue(tally.get().getLastVotedAt() != null);
+	}
+
+	@Test
+	@DisplayName("Deve reportar e corrigir divergências entre a contagem e os votos registrados")
+	void shouldReportAndRebuildDrift() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta divergente", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", true);
+
+		// votos inseridos diretamente, sem passar pela contagem
+		this.voteRepository.saveAllAndFlush(List.of(
+			new Vote(session, "22200000000", false, Instant.now()),
+			new Vote(session, "33300000000", false, Instant.now())
+		));
+
+		VoteTallyVerificationDto verification = this.voteTallyService.verify();
+		VoteTallyDriftDto drift = this.findDrift(verification, session).orElseThrow();
+		assertFalse(drift.missing());
+		assertEquals(1, drift.expectedFavorableVotes());
+		assertEquals(2, drift.expectedAgainstVotes());
+		assertEquals(1, drift.actualFavorableVotes());
+		assertEquals(0, drift.actualAgainstVotes());
+
+		assertTrue(this.findDrift(this.voteTallyService.rebuild(), session).isPresent());
+		assertTrue(this.findDrift(this.voteTallyService.verify(), session).isEmpty());
+
+		VoteTally tally = this.voteTallyRepository.findByTopicVotingSessionUuid(session.getUuid()).orElseThrow();
+		assertEquals(1, tally.getFavorableVotes());
+		assertEquals(2, tally.getAgainstVotes());
+		assertEquals(3, tally.getTotalVotes());
+	}
+
+	@Test
+	@DisplayName("Deve reportar como ausente a contagem de sessões com votos e sem contagem")
+	void shouldReportMissingTally() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta sem contagem", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		this.voteRepository.saveAndFlush(new Vote(session, "22200000000", true, Instant.now()));
+
+		VoteTallyDriftDto drift = this.findDrift(this.voteTallyService.verify(), session).orElseThrow();
+		assertTrue(drift.missing());
+		assertEquals(1, drift.expectedFavorableVotes());
+	}
+
+	private Optional<VoteTallyDriftDto> findDrift(VoteTallyVerificationDto verification, TopicVotingSession session) {
+		return verification.drifts()
+						.stream()
+						.filter(d -> d.topicVotingSessionUuid().equals(session.getUuid()))
+						.findFirst();
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.emerson.desafiovotacao.service.vote.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.VoteTally;
+import com.emerson.desafiovotacao.exception.http.ConflictException;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteTallyRepository;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteService;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTicketDto;
+import com.emerson.desafiovotacao.service.vote.dto.VoteTicketStatus;
+
+// sem @Transactional: os votos são gravados pelo gravador assíncrono, em outra thread e transação
+@SpringBootTest(properties = { "votacao.vote.ingestion.mode=ASYNC", "votacao.vote.ingestion.max-linger=200ms" })
+@ActiveProfiles("test")
+class VoteIngestionServiceTest {
+
+	@Autowired
+	private VoteIngestionService voteIngestionService;
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private VoteTallyRepository voteTallyRepository;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			return mock;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve gravar em lote os votos enfileirados e atualizar a contagem da sessão")
+	void shouldWriteQueuedVotesInBatch() throws InterruptedException {
+		Topic topic = this.topicService.create(new TopicDto("Pauta recepção assíncrona", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		List<VoteTicketDto> tickets = List.of(
+			this.voteService.enqueueByVotingSessionUuid(session.getUuid(), "16643151015", true),
+			this.voteService.enqueueByVotingSessionUuid(session.getUuid(), "96889461096", true),
+			this.voteService.enqueueByTopicUuid(topic.getUuid(), "28682801027", false)
+		);
+
+		for (VoteTicketDto ticket : tickets) {
+			assertEquals(VoteTicketStatus.PENDING, ticket.status());
+			assertEquals(VoteTicketStatus.ACCEPTED, this.await(ticket.ticket()).status());
+		}
+
+		assertTrue(this.voteRepository.findByTopicVotingSessionTopicUuidAndCpf(topic.getUuid(), "28682801027").isPresent());
+
+		VoteTally tally = this.voteTallyRepository.findByTopicVotingSessionUuid(session.getUuid()).orElseThrow();
+		assertEquals(2, tally.getFavorableVotes());
+		assertEquals(1, tally.getAgainstVotes());
+		assertEquals(3, tally.getTotalVotes());
+	}
+
+	@Test
+	@DisplayName("Deve recusar o voto de um associado que já votou na pauta")
+	void shouldRejectDuplicatedVote() throws InterruptedException {
+		Topic topic = this.topicService.create(new TopicDto("Pauta voto duplicado assíncrono", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		VoteTicketDto ticket = this.voteService.enqueueByVotingSessionUuid(session.getUuid(), "16643151015", true);
+
+		// ainda aguardando gravação
+		assertThrows(ConflictException.class, () -> this.voteService.enqueueByVotingSessionUuid(session.getUuid(), "16643151015", false));
+
+		assertEquals(VoteTicketStatus.ACCEPTED, this.await(ticket.ticket()).status());
+
+		// já gravado
+		assertThrows(ConflictException.class, () -> this.voteService.enqueueByVotingSessionUuid(session.getUuid(), "16643151015", false));
+	}
+
+	private VoteTicketDto await(UUID ticket) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			VoteTicketDto status = this.voteIngestionService.getTicket(ticket);
+			if (status.status() != VoteTicketStatus.PENDING)
+				return status;
+			Thread.sleep(50);
+		}
+		return this.voteIngestionService.getTicket(ticket);
+	}
+
+}
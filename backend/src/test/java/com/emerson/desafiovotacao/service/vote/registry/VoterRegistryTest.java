@@ -0,0 +1,163 @@
+package com.emerson.desafiovotacao.service.vote.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.Vote;
+import com.emerson.desafiovotacao.exception.http.ConflictException;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.repository.topic.TopicVotingSessionRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteService;
+
+// sem @Transactional: o registro só é atualizado após o commit das sessões e dos votos
+@SpringBootTest
+@ActiveProfiles("test")
+class VoterRegistryTest {
+
+	@Autowired
+	private VoterRegistry voterRegistry;
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private TopicVotingSessionRepository votingSessionRepository;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private CpfValidationClient cpfValidationClient;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			return mock;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve recusar pelo registro o voto repetido de um associado, sem validar o CPF novamente")
+	void shouldRejectRepeatedVoteFromRegistry() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta registro de votantes", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+		assertTrue(this.voterRegistry.isTracking(session));
+
+		String cpf = "16643151015";
+		assertFalse(this.voterRegistry.hasVoted(session, cpf));
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), cpf, true);
+		assertTrue(this.voterRegistry.hasVoted(session, cpf));
+
+		assertThrows(ConflictException.class, () -> this.voteService.voteByVotingSessionUuid(session.getUuid(), "166.431.510-15", false));
+		Mockito.verify(this.cpfValidationClient, Mockito.times(1)).validateCpf(cpf);
+	}
+
+	@Test
+	@DisplayName("Deve carregar no registro os associados que já votaram na pauta ao abrir uma nova sessão")
+	void shouldWarmRegistryFromPreviousVotesOnSessionOpen() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta com sessão anterior", "Descrição da pauta"));
+		TopicVotingSession endedSession = this.votingSessionRepository.save(
+				TopicVotingSession.builder()
+						.topic(topic)
+						.startTime(Instant.now().minus(10, ChronoUnit.MINUTES))
+						.endTime(Instant.now().minus(5, ChronoUnit.MINUTES))
+						.build()
+		);
+		this.voteRepository.saveAndFlush(new Vote(endedSession, "96889461096", true, Instant.now().minus(6, ChronoUnit.MINUTES)));
+
+		TopicVotingSession session = this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+
+		assertTrue(this.voterRegistry.hasVoted(session, "96889461096"));
+		assertFalse(this.voterRegistry.hasVoted(session, "28682801027"));
+	}
+
+	@Test
+	@DisplayName("Deve liberar do registro as sessões encerradas")
+	void shouldReleaseEndedSessions() throws InterruptedException {
+		Topic topic = this.topicService.create(new TopicDto("Pauta com sessão curta", "Descrição da pauta"));
+		TopicVotingSession session = this.votingSessionRepository.save(
+				TopicVotingSession.builder()
+						.topic(topic)
+						.startTime(Instant.now())
+						.endTime(Instant.now().plusMillis(300))
+						.build()
+		);
+		this.voterRegistry.open(session);
+		assertTrue(this.voterRegistry.isTracking(session));
+		long memoryFootprint = this.voterRegistry.getMemoryFootprint();
+
+		Thread.sleep(400);
+		this.voterRegistry.releaseExpired();
+
+		assertFalse(this.voterRegistry.isTracking(session));
+		assertTrue(this.voterRegistry.getMemoryFootprint() < memoryFootprint);
+	}
+
+	@Test
+	@DisplayName("Deve manter todos os CPFs no conjunto fora do heap após o seu crescimento")
+	void shouldKeepAllValuesWhenSetGrows() {
+		OffHeapLongHashSet set = new OffHeapLongHashSet(0);
+		long initialFootprint = set.memoryFootprint();
+
+		for (long cpf = 10_000_000_000L; cpf < 10_000_005_000L; cpf++)
+			assertTrue(set.add(cpf));
+		assertFalse(set.add(10_000_000_000L));
+
+		assertEquals(5_000, set.size());
+		assertTrue(set.memoryFootprint() > initialFootprint);
+		for (long cpf = 10_000_000_000L; cpf < 10_000_005_000L; cpf++)
+			assertTrue(set.contains(cpf));
+		assertFalse(set.contains(10_000_005_000L));
+	}
+
+	@Test
+	@DisplayName("Deve recusar novos CPFs sem alterar o conjunto fora do heap ao atingir a capacidade máxima")
+	void shouldRejectValuesWhenSetIsFull() {
+		OffHeapLongHashSet set = new OffHeapLongHashSet(0, 1 << 10);
+
+		for (long cpf = 10_000_000_000L; cpf < 10_000_000_512L; cpf++)
+			assertTrue(set.add(cpf));
+		assertThrows(IllegalStateException.class, () -> set.add(10_000_000_512L));
+		assertFalse(set.add(10_000_000_000L));
+
+		assertEquals(512, set.size());
+		assertFalse(set.contains(10_000_000_512L));
+		assertTrue(set.contains(10_000_000_511L));
+	}
+
+}
@@ -0,0 +1,198 @@
+package com.emerson.desafiovotacao.service.vote.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.Vote;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.repository.vote.TopicResultRepository;
+import com.emerson.desafiovotacao.repository.vote.VoteRepository;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteResultsService;
+import com.emerson.desafiovotacao.service.vote.VoteService;
+import com.emerson.desafiovotacao.service.vote.dto.Result;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVoteResultsDto;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVotingSessionStatus;
+import com.emerson.desafiovotacao.service.vote.ingestion.VoteIngestionService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VoteResultSnapshotServiceTest {
+
+	@Autowired
+	private VoteResultSnapshotService voteResultSnapshotService;
+
+	@Autowired
+	private VoteResultsService voteResultsService;
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private TopicResultRepository topicResultRepository;
+
+	@Autowired
+	private VoteIngestionService voteIngestionService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			return mock;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve gravar na inicialização o resultado das sessões encerradas com a aplicação parada e responder a partir dele")
+	void shouldCatchUpAndServeFinishedTopicsFromSnapshot() {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", true);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "96889461096", true);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "28682801027", false);
+		this.finish(session);
+
+		this.voteResultSnapshotService.catchUp();
+		assertTrue(this.topicResultRepository.findByLatestVotingSessionUuid(session.getUuid()).isPresent());
+
+		// o resultado gravado é imutável: votos inseridos depois não o alteram
+		this.voteRepository.saveAndFlush(new Vote(session, "50882863096", false, Instant.now()));
+
+		TopicVoteResultsDto results = this.voteResultsService.getResultsByTopicUuid(session.getTopic().getUuid(), true);
+		assertEquals(2, results.favorableVotes());
+		assertEquals(1, results.againstVotes());
+		assertEquals(Result.FAVORABLE, results.finalResult());
+		assertEquals(1, results.votingSessionsVotes().size());
+		assertEquals(TopicVotingSessionStatus.FINISHED, results.votingSessionsVotes().get(0).status());
+		assertEquals(2, results.votingSessionsVotes().get(0).favorableVotes());
+		assertNull(results.votingSessionsVotes().get(0).votes());
+	}
+
+	@Test
+	@DisplayName("Deve gravar o resultado de cada sessão uma única vez e somente após o seu término")
+	void shouldFinalizeOnlyOnceAfterEndTime() {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", false);
+
+		assertFalse(this.voteResultSnapshotService.finalizeSession(session.getUuid()));
+
+		this.finish(session);
+		assertTrue(this.voteResultSnapshotService.finalizeSession(session.getUuid()));
+		assertFalse(this.voteResultSnapshotService.finalizeSession(session.getUuid()));
+
+		TopicVoteResultsDto results = this.voteResultsService.getResultsByTopicUuid(session.getTopic().getUuid(), true);
+		assertEquals(0, results.favorableVotes());
+		assertEquals(1, results.againstVotes());
+		assertEquals(Result.AGAINST, results.finalResult());
+	}
+
+	@Test
+	@DisplayName("Deve voltar a calcular o resultado quando uma nova sessão é aberta e gravar um novo resultado ao seu término")
+	void shouldIgnoreSnapshotWhileNewSessionIsOpen() {
+		TopicVotingSession first = this.createTopicWithVotingSession();
+		UUID topicUuid = first.getTopic().getUuid();
+		this.voteService.voteByVotingSessionUuid(first.getUuid(), "16643151015", true);
+		this.finish(first);
+		assertTrue(this.voteResultSnapshotService.finalizeSession(first.getUuid()));
+
+		TopicVotingSession second = this.votingSessionService.startVotingSession(topicUuid, 5);
+		this.voteService.voteByVotingSessionUuid(second.getUuid(), "96889461096", false);
+		this.voteService.voteByVotingSessionUuid(second.getUuid(), "28682801027", false);
+
+		TopicVoteResultsDto results = this.voteResultsService.getResultsByTopicUuid(topicUuid, true);
+		assertEquals(1, results.favorableVotes());
+		assertEquals(2, results.againstVotes());
+		assertNull(results.finalResult());
+
+		this.finish(second);
+		assertTrue(this.voteResultSnapshotService.finalizeSession(second.getUuid()));
+
+		results = this.voteResultsService.getResultsByTopicUuid(topicUuid, true);
+		assertEquals(1, results.favorableVotes());
+		assertEquals(2, results.againstVotes());
+		assertEquals(Result.AGAINST, results.finalResult());
+		assertEquals(2, results.votingSessionsVotes().size());
+		assertTrue(this.topicResultRepository.findByLatestVotingSessionUuid(first.getUuid()).isPresent());
+	}
+
+	@Test
+	@DisplayName("Deve adiar o resultado enquanto a sessão possuir votos não confirmados ou contagem divergente da tabela de votos")
+	void shouldPostponeWhileVotesAreNotSettled() {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", true);
+		this.finish(session);
+
+		// voto aceito antes do término e ainda não confirmado (ex.: enfileirado)
+		this.voteIngestionService.begin(session.getUuid());
+		assertFalse(this.voteResultSnapshotService.finalizeSession(session.getUuid()));
+		this.voteIngestionService.end(session.getUuid());
+
+		// voto confirmado e ainda não contabilizado na contagem consolidada
+		this.voteRepository.saveAndFlush(new Vote(session, "96889461096", false, Instant.now()));
+		assertFalse(this.voteResultSnapshotService.finalizeSession(session.getUuid()));
+
+		this.jdbcTemplate.update("UPDATE vote_tally SET against_votes = 1, total_votes = 2 WHERE topic_voting_session_uuid = ?", session.getUuid());
+		assertTrue(this.voteResultSnapshotService.finalizeSession(session.getUuid()));
+
+		TopicVoteResultsDto results = this.voteResultsService.getResultsByTopicUuid(session.getTopic().getUuid(), true);
+		assertEquals(1, results.favorableVotes());
+		assertEquals(1, results.againstVotes());
+		assertEquals(Result.TIED, results.finalResult());
+	}
+
+	private TopicVotingSession createTopicWithVotingSession() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta resultado " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta"));
+		return this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+	}
+
+	/**
+	 * Encerra a sessão de votação antecipando o seu término, como se o tempo da sessão tivesse passado.
+	 */
+	private void finish(TopicVotingSession session) {
+		Timestamp endTime = Timestamp.from(Instant.now().minus(1, ChronoUnit.MINUTES));
+		this.jdbcTemplate.update("UPDATE voting_session SET start_time = ?, end_time = ? WHERE uuid = ?",
+				Timestamp.from(session.getStartTime().minus(10, ChronoUnit.MINUTES)), endTime, session.getUuid());
+		this.jdbcTemplate.update("UPDATE topic SET latest_voting_session_end_time = ? WHERE latest_voting_session_uuid = ?", endTime, session.getUuid());
+	}
+
+}
@@ -0,0 +1,183 @@
+package com.emerson.desafiovotacao.service.vote.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// transmissão automática desativada (intervalo longo): os testes disparam as transmissões manualmente
+@SpringBootTest(properties = "votacao.vote.results.stream.interval=1h")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VoteResultsStreamServiceTest {
+
+	@Autowired
+	private VoteResultsStreamService voteResultsStreamService;
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			return mock;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve agrupar os votos recebidos no intervalo em um único evento")
+	void shouldCoalesceVotesIntoSingleEvent() throws Exception {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		MvcResult stream = this.subscribe(session.getTopic().getUuid());
+
+		this.voteResultsStreamService.broadcast();
+		List<JsonNode> events = this.awaitEvents(stream, 1);
+		assertEquals(1, events.size());
+		assertEquals(0, events.get(0).get("favorableVotes").asLong());
+		assertEquals("OPEN", events.get(0).get("votingSessionsVotes").get(0).get("status").asText());
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", true);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "96889461096", true);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "28682801027", false);
+
+		this.voteResultsStreamService.broadcast();
+		events = this.awaitEvents(stream, 2);
+		assertEquals(2, events.size());
+		assertEquals(2, events.get(1).get("favorableVotes").asLong());
+		assertEquals(1, events.get(1).get("againstVotes").asLong());
+		assertEquals("FAVORABLE", events.get(1).get("currentResult").asText());
+
+		// sem novos votos, nenhum evento é enviado
+		this.voteResultsStreamService.broadcast();
+		assertEquals(2, this.events(stream).size());
+	}
+
+	@Test
+	@DisplayName("Deve calcular o resultado uma única vez por pauta, independente da quantidade de assinantes")
+	void shouldShareComputationAmongSubscribers() throws Exception {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		UUID topicUuid = session.getTopic().getUuid();
+
+		List<MvcResult> streams = new ArrayList<>();
+		for (int i = 0; i < 20; i++)
+			streams.add(this.subscribe(topicUuid));
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", false);
+
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		this.voteResultsStreamService.broadcast();
+		assertTrue(statistics.getPrepareStatementCount() <= 4,
+				String.format("%s consultas executadas na transmissão", statistics.getPrepareStatementCount()));
+
+		for (MvcResult stream : streams) {
+			List<JsonNode> events = this.awaitEvents(stream, 1);
+			assertEquals(1, events.size());
+			assertEquals(1, events.get(0).get("againstVotes").asLong());
+		}
+
+		// novos assinantes recebem imediatamente o último resultado transmitido
+		List<JsonNode> events = this.awaitEvents(this.subscribe(topicUuid), 1);
+		assertEquals(1, events.size());
+		assertEquals(1, events.get(0).get("againstVotes").asLong());
+	}
+
+	@Test
+	@DisplayName("Deve recusar a transmissão de uma pauta inexistente")
+	void shouldRejectUnknownTopic() throws Exception {
+		this.mockMvc.perform(get("/api/v1/vote/topic/{topicUuid}/results/stream", UUID.randomUUID()))
+					.andExpect(status().isNotFound());
+	}
+
+	private TopicVotingSession createTopicWithVotingSession() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta transmissão " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta"));
+		return this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+	}
+
+	private MvcResult subscribe(UUID topicUuid) throws Exception {
+		return this.mockMvc.perform(get("/api/v1/vote/topic/{topicUuid}/results/stream", topicUuid))
+						   .andExpect(request().asyncStarted())
+						   .andReturn();
+	}
+
+	/**
+	 * Aguarda o envio dos eventos ao assinante, feito em segundo plano.
+	 */
+	private List<JsonNode> awaitEvents(MvcResult stream, int count) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		List<JsonNode> events = this.events(stream);
+		while (events.size() < count && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			events = this.events(stream);
+		}
+		return events;
+	}
+
+	private List<JsonNode> events(MvcResult stream) throws Exception {
+		List<JsonNode> events = new ArrayList<>();
+		for (String event : stream.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n\n")) {
+			if (!event.startsWith("event:" + VoteResultsStreamService.RESULTS_EVENT))
+				continue;
+			events.add(this.objectMapper.readTree(event.substring(event.indexOf("data:") + "data:".length())));
+		}
+		return events;
+	}
+
+}
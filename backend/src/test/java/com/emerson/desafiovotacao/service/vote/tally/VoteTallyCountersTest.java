@@ -0,0 +1,244 @@
+package com.emerson.desafiovotacao.service.vote.tally;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.domain.vote.VoteTally;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.repository.vote.VoteTallyRepository;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteResultsService;
+import com.emerson.desafiovotacao.service.vote.VoteService;
+import com.emerson.desafiovotacao.service.vote.VoteTallyService;
+import com.emerson.desafiovotacao.service.vote.dto.TopicVoteResultsDto;
+
+@SpringBootTest(properties = {
+	"votacao.vote.tally.mode=MEMORY",
+	// a gravação é disparada pelos próprios testes
+	"votacao.vote.tally.flush-interval=1h"
+})
+@ActiveProfiles("test")
+class VoteTallyCountersTest {
+
+	private static final String[] CPFS = {
+		"16643151015", "96889461096", "28682801027", "50882863096", "52998224725",
+		"11144477735", "39053344705", "86288366757", "71428793860", "45317828791"
+	};
+
+	@Autowired
+	private VoteTallyCounters counters;
+
+	@Autowired
+	private VoteTallyService voteTallyService;
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private VoteResultsService voteResultsService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private VoteTallyRepository voteTallyRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			return mock;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve ler os resultados dos contadores em memória e gravar apenas as diferenças")
+	void shouldReadFromCountersAndFlushDeltas() {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[0], true);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[1], true);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[2], false);
+
+		this.assertResults(session, 2, 1);
+		assertTrue(this.voteTallyRepository.findByTopicVotingSessionUuid(session.getUuid()).isEmpty());
+
+		assertTrue(this.counters.flush() > 0);
+		this.assertTally(session, 2, 1);
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[3], true);
+		this.assertResults(session, 3, 1);
+		this.assertTally(session, 2, 1);
+
+		this.counters.flush();
+		this.assertTally(session, 3, 1);
+		this.assertResults(session, 3, 1);
+		assertTrue(this.voteTallyService.verify().drifts().stream().noneMatch(d -> d.topicVotingSessionUuid().equals(session.getUuid())));
+	}
+
+	@Test
+	@DisplayName("Deve contabilizar exatamente votos concorrentes na mesma sessão")
+	void shouldCountConcurrentVotesExactly() throws Exception {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+
+		ExecutorService executor = Executors.newFixedThreadPool(CPFS.length);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < CPFS.length; i++) {
+				String cpf = CPFS[i];
+				boolean vote = i % 3 != 0;
+				futures.add(executor.submit(() -> this.voteService.voteByVotingSessionUuid(session.getUuid(), cpf, vote)));
+				if (i == CPFS.length / 2)
+					futures.add(executor.submit(this.counters::flush));
+			}
+			for (Future<?> f : futures)
+				f.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		this.assertResults(session, 6, 4);
+		this.counters.flush();
+		this.assertTally(session, 6, 4);
+	}
+
+	@Test
+	@DisplayName("Deve reconstruir as contagens a partir da tabela de votos ao perder os contadores em memória")
+	void shouldRecoverFromVotesAfterLosingCounters() {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[0], true);
+		this.counters.flush();
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[1], false);
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[2], false);
+		this.assertTally(session, 1, 0);
+
+		// simula uma queda com votos ainda não gravados: os contadores se perdem e a aplicação é reiniciada
+		VoteTallyService target = AopTestUtils.getTargetObject(this.voteTallyService);
+		ReflectionTestUtils.invokeMethod(target, "recover");
+
+		this.assertTally(session, 1, 2);
+		this.assertResults(session, 1, 2);
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[3], true);
+		this.assertResults(session, 2, 2);
+		this.counters.flush();
+		this.assertTally(session, 2, 2);
+	}
+
+	@Test
+	@DisplayName("Deve manter os contadores de uma sessão encerrada até que nenhum voto possa mais ser somado a eles")
+	void shouldKeepCountersOfEndedSessionUntilVotesAreFlushed() {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[0], true);
+		this.counters.flush();
+
+		// contadores de uma sessão encerrada há mais tempo que a retenção, com um voto ainda em sua transação
+		session.setEndTime(Instant.now().minus(Duration.ofHours(1)));
+		this.counters.clear();
+		new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+			this.counters.add(session, 0, 1, Instant.now());
+			this.counters.flush();
+			assertNotNull(this.counters.get(session.getUuid()));
+		});
+
+		// o voto confirmado fica pendente e os contadores só são liberados após gravá-lo
+		assertEquals(1, this.counters.get(session.getUuid()).againstVotes());
+		this.counters.flush();
+		assertNull(this.counters.get(session.getUuid()));
+		this.assertTally(session, 1, 1);
+	}
+
+	@Test
+	@DisplayName("Deve aguardar o término da reconstrução das contagens para contabilizar novos votos")
+	void shouldHoldVotesWhileCountsAreRebuilt() throws Exception {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[0], true);
+		this.counters.flush();
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> vote = new TransactionTemplate(this.transactionManager).execute(status -> {
+				this.counters.clearAfterCommit();
+				Future<?> f = executor.submit(() -> this.voteService.voteByVotingSessionUuid(session.getUuid(), CPFS[1], false));
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				assertFalse(f.isDone());
+				return f;
+			});
+			vote.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		// o voto não foi descartado com os contadores: foi somado a um novo contador, que parte da contagem gravada
+		this.assertResults(session, 1, 1);
+		this.counters.flush();
+		this.assertTally(session, 1, 1);
+	}
+
+	private TopicVotingSession createTopicWithVotingSession() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta contagem em memória " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta"));
+		return this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+	}
+
+	private void assertResults(TopicVotingSession session, long favorableVotes, long againstVotes) {
+		TopicVoteResultsDto results = this.voteResultsService.getResultsByTopicUuid(session.getTopic().getUuid(), true);
+		assertEquals(favorableVotes, results.favorableVotes());
+		assertEquals(againstVotes, results.againstVotes());
+	}
+
+	private void assertTally(TopicVotingSession session, long favorableVotes, long againstVotes) {
+		VoteTally tally = this.voteTallyRepository.findByTopicVotingSessionUuid(session.getUuid()).orElseThrow();
+		assertEquals(favorableVotes, tally.getFavorableVotes());
+		assertEquals(againstVotes, tally.getAgainstVotes());
+		assertEquals(favorableVotes + againstVotes, tally.getTotalVotes());
+	}
+
+}
@@ -0,0 +1,169 @@
+package com.emerson.desafiovotacao.web.vote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import com.emerson.desafiovotacao.DesafiovotacaoApplication;
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+
+/**
+ * Teste de carga comparativo do registro de votos com threads de plataforma e com threads virtuais,
+ * com a consulta de elegibilidade artificialmente lenta.
+ * 
+ * Não executa no build padrão; para executar: {@code mvn test -Pload-test}.
+ */
+@Tag("load")
+class VoteControllerLoadTest {
+
+	private static final int VOTES = 2_000;
+
+	private static final int CONCURRENCY = 200;
+
+	private static final Duration ELIGIBILITY_LATENCY = Duration.ofMillis(50);
+
+	private static final int PLATFORM_THREADS = 50;
+
+	/**
+	 * Consulta de elegibilidade que aguarda {@link #ELIGIBILITY_LATENCY} antes de cada validação, reproduzindo um serviço externo lento.
+	 */
+	@TestConfiguration
+	static class SlowCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient slowCpfValidationClient() {
+			return new CpfValidationClient() {
+
+				@Override
+				public CpfValidationResponse validateCpf(String cpf) {
+					sleep();
+					return super.validateCpf(cpf);
+				}
+
+				@Override
+				public Map<String, VoteEligibilityStatus> validateCpfs(Collection<String> cpfs) {
+					sleep();
+					return super.validateCpfs(cpfs);
+				}
+			};
+		}
+
+		private static void sleep() {
+			// bloqueio sem synchronized: em threads virtuais, libera a thread de plataforma durante a espera
+			try {
+				Thread.sleep(ELIGIBILITY_LATENCY);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private final HttpClient httpClient = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+	@Test
+	@DisplayName("Carga: deve comparar a vazão do registro de votos com threads de plataforma e virtuais")
+	void shouldCompareThroughputOfPlatformAndVirtualThreads() throws Exception {
+		double platform = this.run(false, 0);
+		double virtual = this.run(true, VOTES);
+
+		System.out.println(String.format("Threads de plataforma (%s): %.1f votos/s", PLATFORM_THREADS, platform));
+		System.out.println(String.format("Threads virtuais: %.1f votos/s (%.1fx)", virtual, virtual / platform));
+	}
+
+	private double run(boolean virtualThreads, int cpfOffset) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DesafiovotacaoApplication.class, SlowCpfValidationClientConfig.class)
+				.profiles("test")
+				.properties(
+					"server.port=0",
+					"spring.threads.virtual.enabled=" + virtualThreads,
+					"server.tomcat.threads.max=" + PLATFORM_THREADS,
+					"logging.level.com.emerson.desafiovotacao=WARN"
+				)
+				.run()) {
+			int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+			Topic topic = context.getBean(TopicService.class).create(new TopicDto("Pauta carga " + virtualThreads, "Teste de carga"));
+			UUID sessionUuid = context.getBean(TopicVotingSessionService.class).startVotingSession(topic.getUuid(), 30).getUuid();
+
+			// aquecimento
+			this.vote(port, sessionUuid, cpf(cpfOffset + VOTES * 2));
+
+			List<Future<Integer>> responses = new ArrayList<>(VOTES);
+			long start = System.nanoTime();
+			try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY)) {
+				for (int i = 0; i < VOTES; i++) {
+					String cpf = cpf(cpfOffset + i);
+					responses.add(executor.submit(() -> this.vote(port, sessionUuid, cpf)));
+				}
+			}
+			double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+			// 204 para CPFs aptos e 400 para CPFs inaptos (elegibilidade simulada aleatoriamente)
+			for (Future<Integer> response : responses) {
+				int status = response.get();
+				assertEquals(true, status == 204 || status == 400, "Status inesperado: " + status);
+			}
+
+			return VOTES / seconds;
+		}
+	}
+
+	private int vote(int port, UUID sessionUuid, String cpf) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(String.format("http://localhost:%s/api/v1/vote/votingSession/%s?cpf=%s&vote=true", port, sessionUuid, cpf)))
+										 .POST(HttpRequest.BodyPublishers.noBody())
+										 .build();
+		return this.httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	/**
+	 * Gera um CPF válido (com os dígitos verificadores corretos) a partir de um número sequencial.
+	 */
+	private static String cpf(int n) {
+		int[] digits = new int[11];
+		String base = String.format("%09d", 100_000_000 + n);
+		for (int i = 0; i < 9; i++)
+			digits[i] = base.charAt(i) - '0';
+
+		for (int check = 9; check < 11; check++) {
+			int sum = 0;
+			for (int i = 0; i < check; i++)
+				sum += digits[i] * (check + 1 - i);
+			int remainder = sum % 11;
+			digits[check] = remainder < 2 ? 0 : 11 - remainder;
+		}
+
+		StringBuilder cpf = new StringBuilder(11);
+		for (int d : digits)
+			cpf.append(d);
+		return cpf.toString();
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.emerson.desafiovotacao.web.vote;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.emerson.desafiovotacao.repository.topic.TopicRepository;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(Lifecycle.PER_CLASS)
+class VoteExportCompressionTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicRepository topicRepository;
+
+	private UUID topicUuid;
+
+	@BeforeAll
+	void createTopic() {
+		this.topicUuid = this.topicService.create(new TopicDto("Pauta exportação " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta")).getUuid();
+	}
+
+	// a pauta é gravada fora de uma transação de teste, pois a exportação é processada em outra thread
+	@AfterAll
+	void deleteTopic() {
+		this.topicRepository.deleteById(this.topicUuid);
+	}
+
+	@ParameterizedTest(name = "Accept-Encoding: \"{0}\" -> gzip: {1}")
+	@CsvSource(delimiter = '|', value = {
+		"gzip                 | true",
+		"GZIP;Q=0.5           | true",
+		"deflate, x-gzip      | true",
+		"*                    | true",
+		"br, *;q=0.1          | true",
+		"gzip;q=0             | false",
+		"gzip;q=0.000, *      | false",
+		"*;q=0                | false",
+		"br, identity         | false",
+		"gzip;q=abc           | false"
+	})
+	@DisplayName("Deve compactar a exportação em gzip apenas quando o cliente aceita o gzip com qualidade maior que zero")
+	void shouldNegotiateGzipByQuality(String acceptEncoding, boolean gzip) throws Exception {
+		MockHttpServletRequestBuilder export = get("/api/v1/vote/topic/" + this.topicUuid + "/export")
+				.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		MvcResult result = this.mockMvc.perform(export)
+									   .andExpect(request().asyncStarted())
+									   .andReturn();
+
+		this.mockMvc.perform(asyncDispatch(result))
+					.andExpect(status().isOk())
+					.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+					.andExpect(gzip ? header().string(HttpHeaders.CONTENT_ENCODING, "gzip") : header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.emerson.desafiovotacao.web.vote;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.emerson.desafiovotacao.domain.topic.Topic;
+import com.emerson.desafiovotacao.domain.topic.TopicVotingSession;
+import com.emerson.desafiovotacao.external.CpfValidationClient;
+import com.emerson.desafiovotacao.external.CpfValidationResponse;
+import com.emerson.desafiovotacao.external.VoteEligibilityStatus;
+import com.emerson.desafiovotacao.service.topic.TopicService;
+import com.emerson.desafiovotacao.service.topic.TopicVotingSessionService;
+import com.emerson.desafiovotacao.service.topic.dto.TopicDto;
+import com.emerson.desafiovotacao.service.vote.VoteService;
+import com.emerson.desafiovotacao.service.vote.snapshot.VoteResultSnapshotService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VoteResultsConditionalRequestTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private VoteService voteService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private TopicVotingSessionService votingSessionService;
+
+	@Autowired
+	private VoteResultSnapshotService voteResultSnapshotService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@TestConfiguration
+	static class MockCpfValidationClientConfig {
+
+		@Bean
+		@Primary
+		CpfValidationClient cpfValidationClient() {
+			CpfValidationClient mock = Mockito.mock(CpfValidationClient.class);
+			Mockito.when(mock.validateCpf(Mockito.anyString()))
+				   .thenReturn(new CpfValidationResponse(VoteEligibilityStatus.ABLE_TO_VOTE));
+			return mock;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve responder 304 aos resultados não modificados e mudar a ETag a cada novo voto")
+	void shouldAnswerNotModifiedUntilNewVote() throws Exception {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		String url = "/api/v1/vote/topic/" + session.getTopic().getUuid() + "/results?summary=true";
+
+		String eTag = this.mockMvc.perform(get(url))
+								  .andExpect(status().isOk())
+								  .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+								  .andReturn()
+								  .getResponse()
+								  .getHeader(HttpHeaders.ETAG);
+		assertNotNull(eTag);
+
+		this.mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+					.andExpect(status().isNotModified())
+					.andExpect(header().string(HttpHeaders.ETAG, eTag))
+					.andExpect(content().string(""));
+
+		// a versão dos resultados resumidos é diferente da versão dos resultados completos
+		this.mockMvc.perform(get("/api/v1/vote/topic/" + session.getTopic().getUuid() + "/results").header(HttpHeaders.IF_NONE_MATCH, eTag))
+					.andExpect(status().isOk());
+
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "16643151015", true);
+
+		String newETag = this.mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+									 .andExpect(status().isOk())
+									 .andReturn()
+									 .getResponse()
+									 .getHeader(HttpHeaders.ETAG);
+		assertNotEquals(eTag, newETag);
+	}
+
+	@Test
+	@DisplayName("Deve enviar os resultados de pautas encerradas com Last-Modified e cache de longa duração")
+	void shouldCacheFinishedResults() throws Exception {
+		TopicVotingSession session = this.createTopicWithVotingSession();
+		this.voteService.voteByVotingSessionUuid(session.getUuid(), "96889461096", false);
+		String url = "/api/v1/vote/topic/" + session.getTopic().getUuid() + "/results?summary=true";
+		String openETag = this.mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		this.finish(session);
+		assertTrue(this.voteResultSnapshotService.finalizeSession(session.getUuid()));
+
+		String eTag = this.mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, openETag))
+								  .andExpect(status().isOk())
+								  .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+								  .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+								  .andReturn()
+								  .getResponse()
+								  .getHeader(HttpHeaders.ETAG);
+		assertNotEquals(openETag, eTag);
+
+		this.mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+					.andExpect(status().isNotModified())
+					.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+	}
+
+	@Test
+	@DisplayName("Deve responder 304 à lista de pautas não modificada e mudar a ETag ao criar pauta ou abrir sessão")
+	void shouldAnswerNotModifiedTopicListUntilChanged() throws Exception {
+		String url = "/api/v1/topic/list?page=1&size=5";
+		String eTag = this.mockMvc.perform(get(url))
+								  .andExpect(status().isOk())
+								  .andReturn()
+								  .getResponse()
+								  .getHeader(HttpHeaders.ETAG);
+		assertNotNull(eTag);
+
+		this.mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+					.andExpect(status().isNotModified());
+		this.mockMvc.perform(get("/api/v1/topic/list?page=2&size=5").header(HttpHeaders.IF_NONE_MATCH, eTag))
+					.andExpect(status().isOk());
+
+		Topic topic = this.topicService.create(new TopicDto("Pauta condicional " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta"));
+		String createdETag = this.mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+										 .andExpect(status().isOk())
+										 .andReturn()
+										 .getResponse()
+										 .getHeader(HttpHeaders.ETAG);
+
+		this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+		this.mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, createdETag))
+					.andExpect(status().isOk());
+	}
+
+	private TopicVotingSession createTopicWithVotingSession() {
+		Topic topic = this.topicService.create(new TopicDto("Pauta condicional " + UUID.randomUUID().toString().substring(0, 8), "Descrição da pauta"));
+		return this.votingSessionService.startVotingSession(topic.getUuid(), 5);
+	}
+
+	/**
+	 * Encerra a sessão de votação antecipando o seu término, como se o tempo da sessão tivesse passado.
+	 */
+	private void finish(TopicVotingSession session) {
+		Timestamp endTime = Timestamp.from(Instant.now().minus(1, ChronoUnit.MINUTES));
+		this.jdbcTemplate.update("UPDATE voting_session SET start_time = ?, end_time = ? WHERE uuid = ?",
+				Timestamp.from(session.getStartTime().minus(10, ChronoUnit.MINUTES)), endTime, session.getUuid());
+		this.jdbcTemplate.update("UPDATE topic SET latest_voting_session_end_time = ? WHERE latest_voting_session_uuid = ?", endTime, session.getUuid());
+	}
+
+}
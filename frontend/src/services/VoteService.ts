@@ -10,7 +10,7 @@ class VoteService {
     }
 
     getResults(topicId: string, cancelTokenSource?: CancelTokenSource): Promise<AxiosResponse<any, any>> {
-        return api.get<any>(`${this.apiVersion}/vote/topic/${topicId}/results`, {  cancelToken: cancelTokenSource?.token });
+        return api.get<any>(`${this.apiVersion}/vote/topic/${topicId}/results`, { params: { summary: true }, cancelToken: cancelTokenSource?.token });
     }
 
 }